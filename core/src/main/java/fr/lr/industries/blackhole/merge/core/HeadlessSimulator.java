@@ -0,0 +1,51 @@
+package fr.lr.industries.blackhole.merge.core;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.integrator.Integrator;
+import fr.lr.industries.blackhole.merge.core.integrator.SemiImplicitEulerIntegrator;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import fr.lr.industries.blackhole.merge.core.solver.BarnesHutForceSolver;
+import fr.lr.industries.blackhole.merge.core.solver.DirectForceSolver;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The HeadlessSimulator class is used to run a simulation without any display, for example on a server
+// Usage: HeadlessSimulator [black hole count] [maximum steps] [direct|barnes-hut] [theta] [euler|leapfrog|velocity-verlet|yoshida-4] [time step|adaptive], without any argument the default binary of the application is simulated until it merges
+public class HeadlessSimulator {
+    // The MAX_STEPS constant is used to stop a simulation that never merges
+    public static final long MAX_STEPS = 100_000_000L;
+
+    // The main method is used to run a simulation and print how it ended
+    public static void main(final String[] args) {
+        // Get the number of black holes and the maximum number of steps from the arguments
+        final int blackHoleCount = args.length > 0 ? Integer.parseInt(args[0]) : 2;
+        final long maxSteps = args.length > 1 ? Long.parseLong(args[1]) : MAX_STEPS;
+        // Get the force solver and its opening angle from the arguments, the exact one is used by default
+        final String solverName = args.length > 2 ? args[2] : DirectForceSolver.NAME;
+        final double theta = args.length > 3 ? Double.parseDouble(args[3]) : BarnesHutForceSolver.DEFAULT_THETA;
+        // Get the integrator and the time step from the arguments, the ones of the application are used by default
+        final String integratorName = args.length > 4 ? args[4] : SemiImplicitEulerIntegrator.NAME;
+        final String timeStep = args.length > 5 ? args[5] : String.valueOf(SimulationDefaults.DEFAULT_TIME_STEP);
+
+        // Create the default binary or a cluster of black holes, and its stepper
+        final SimulationState state = blackHoleCount == 2
+                ? SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT)
+                : SimulationState.createCluster(blackHoleCount, SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT, 44L);
+        final SimulationStepper stepper = new SimulationStepper(state);
+        stepper.setForceSolver(ForceSolver.create(solverName, theta));
+        stepper.setIntegrator(Integrator.create(integratorName));
+        if (timeStep.equals("adaptive")) state.setAdaptiveTimeStep(true);
+        else state.setTimeStep(Double.parseDouble(timeStep));
+
+        // Print the merges of the binary as soon as they happen, a cluster would print way too many of them
+        if (blackHoleCount == 2) stepper.addMergeListener(event -> System.out.println("Merged after " + event.getSteps() + " steps (" + String.format("%.2f", event.getTimeElapsed()) + " simulated time), final mass: " + String.format("%.3e", event.getMergedMass()) + " kg"));
+
+        // Get the time at which the simulation started to measure how long it took
+        final long start = System.nanoTime();
+        // Run the simulation until the black holes are merged
+        final long steps = stepper.run(maxSteps);
+        // Print how long the simulation took and how many black holes are left
+        System.out.println(steps + " steps done in " + String.format("%.3f", (System.nanoTime() - start) / 1.0e9) + "s, " + state.getBlackHoles().getCount() + " black hole(s) left, using the " + stepper.getForceSolver().getName() + " solver and the " + stepper.getIntegrator().getName() + " integrator");
+    }
+}
@@ -0,0 +1,461 @@
+package fr.lr.industries.blackhole.merge.core.bank;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import fr.lr.industries.blackhole.merge.core.waves.ChannelWriter;
+import fr.lr.industries.blackhole.merge.core.waves.Fft;
+import fr.lr.industries.blackhole.merge.core.waves.WaveHistory;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+// The TemplateBank class is used to find which binary of the simulation made a signal, by matching the signal against the chirps of a grid of binaries
+// The grid covers the masses and the radius of the sliders of the settings, the same radius for both black holes, and only one of two binaries that only swap their masses, they make the same strain
+// The template of a binary is the strain h+ of its last steps before the merge, simulated without any display, normalized and kept as the lowest bins of its spectrum, as floats
+// The signal is matched with an FFT over segments of the signal (overlap-save), so every template is matched at every lag at once, and both quadratures of the template are matched so the phase doesn't matter
+// Calculated using the formula: SNR(lag) = |IFFT(2 * D * conj(T))(lag)| / sigma, with D the spectrum of a segment, T the spectrum of a template of unit energy and sigma the noise of the signal
+// https://en.wikipedia.org/wiki/Matched_filter
+// The templates are made and matched in parallel by a pool of threads owned by the bank, and the bank is saved to a file, so it is only simulated again when its grid changes
+public class TemplateBank {
+    // The FFT_SIZE constant is used to set the number of samples of the segments of the signal
+    public static final int FFT_SIZE = 4096;
+
+    // The TEMPLATE_LENGTH constant is used to set the number of steps of a template, a segment is matched at FFT_SIZE - TEMPLATE_LENGTH + 1 lags
+    public static final int TEMPLATE_LENGTH = 2048;
+
+    // The BIN_COUNT constant is used to set the number of bins of the spectrum kept for a template, the chirps are slower than 8 steps per cycle so nothing is lost above
+    public static final int BIN_COUNT = FFT_SIZE / 8;
+
+    // The MAX_TEMPLATE_STEPS constant is used to stop the binaries that never merge, their template is then their last steps
+    public static final long MAX_TEMPLATE_STEPS = 50_000L;
+
+    // The DEFAULT_MASS_COUNT and DEFAULT_RADIUS_COUNT constants are used to set the default number of masses and radii of the grid
+    public static final int DEFAULT_MASS_COUNT = 25;
+    public static final int DEFAULT_RADIUS_COUNT = 12;
+
+    // The MIN_MASS and MAX_MASS constants are used to set the range of masses of the grid, the largest ones of the sliders, lighter binaries fly apart instead of merging
+    public static final double MIN_MASS = SimulationDefaults.DEFAULT_BLACK_HOLE_MASS / 4;
+    public static final double MAX_MASS = SimulationDefaults.DEFAULT_BLACK_HOLE_MASS * 4;
+
+    // The MIN_RADIUS and MAX_RADIUS constants are used to set the range of radii of the grid, the one of the sliders
+    public static final double MIN_RADIUS = 25.0;
+    public static final double MAX_RADIUS = (SimulationDefaults.DEFAULT_SIMULATION_HEIGHT / 2) / 1.02;
+
+    // The MAGIC and VERSION constants are used to recognize a file of a bank, "BHTB" and the version of its format
+    private static final int MAGIC = 0x42544842;
+    private static final int VERSION = 1;
+
+    // The HEADER_SIZE constant is used to set the size of the header of a file of a bank in bytes
+    private static final int HEADER_SIZE = 6 * Integer.BYTES + Long.BYTES + Double.BYTES + 2 * Integer.BYTES;
+
+    // The CHUNK_SIZE constant is used to set the number of templates made or matched by a thread at once, they share the arrays of the FFT
+    private static final int CHUNK_SIZE = 16;
+
+    // The massCount and radiusCount variables are used to store the number of masses and radii of the grid
+    private final int massCount;
+    private final int radiusCount;
+
+    // The mass1, mass2 and radius variables are used to store the parameters of the binary of every template
+    private final double[] mass1;
+    private final double[] mass2;
+    private final double[] radius;
+
+    // The spectra variable is used to store the lowest bins of the spectrum of every template, as real and imaginary parts
+    private final float[] spectra;
+
+    // The fft variable is used to transform the templates and the segments, it is shared by the threads
+    private final Fft fft = new Fft(FFT_SIZE);
+
+    // The pool variable is used to store the threads making and matching the templates
+    private final ForkJoinPool pool;
+
+    // The TemplateBank constructor is used to create a new bank of the grid of the given size, without any template yet, using the given number of threads
+    private TemplateBank(final int massCount, final int radiusCount, final int parallelism) {
+        // Check that the grid has at least a template
+        if (massCount < 1 || radiusCount < 1) throw new IllegalArgumentException("The grid must have at least a mass and a radius, got " + massCount + " masses and " + radiusCount + " radii");
+
+        // Assign the parameters to the global variables and create the pool
+        this.massCount = massCount;
+        this.radiusCount = radiusCount;
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+
+        // Create the arrays of the templates, a template for every pair of masses, the first one not heavier than the second one, and every radius
+        final int count = massCount * (massCount + 1) / 2 * radiusCount;
+        this.mass1 = new double[count];
+        this.mass2 = new double[count];
+        this.radius = new double[count];
+        this.spectra = new float[count * BIN_COUNT * 2];
+
+        // Get the parameters of every template, the masses are spaced evenly on a log scale and the radii on a linear scale
+        int index = 0;
+        for (int i = 0; i < massCount; i++) {
+            for (int j = i; j < massCount; j++) {
+                for (int k = 0; k < radiusCount; k++) {
+                    this.mass1[index] = getGridValue(MIN_MASS, MAX_MASS, i, massCount, true);
+                    this.mass2[index] = getGridValue(MIN_MASS, MAX_MASS, j, massCount, true);
+                    this.radius[index] = getGridValue(MIN_RADIUS, MAX_RADIUS, k, radiusCount, false);
+                    index++;
+                }
+            }
+        }
+    }
+
+    // The getGridValue method is used to get the value of the given index of a grid of the given number of values between a minimum and a maximum
+    private static double getGridValue(final double minimum, final double maximum, final int index, final int count, final boolean logarithmic) {
+        // A grid of a single value is at the minimum
+        if (count == 1) return minimum;
+        // Return the value, evenly spaced on a log or a linear scale
+        final double ratio = (double) index / (count - 1);
+        return logarithmic ? minimum * Math.pow(maximum / minimum, ratio) : minimum + (maximum - minimum) * ratio;
+    }
+
+    // The generate method is used to create a bank of the grid of the given size and simulate every template
+    public static TemplateBank generate(final int massCount, final int radiusCount, final int parallelism) {
+        // Create the bank and make the templates in parallel
+        final TemplateBank bank = new TemplateBank(massCount, radiusCount, parallelism);
+        bank.pool.invoke(bank.new GenerateAction(0, bank.getCount()));
+        // Return the bank
+        return bank;
+    }
+
+    // The loadOrGenerate method is used to load the bank of the given file if it has the same grid, or to generate it and save it to the file otherwise
+    public static TemplateBank loadOrGenerate(final Path path, final int massCount, final int radiusCount, final int parallelism) throws IOException {
+        // Load the bank if the file has the same grid
+        final TemplateBank bank = new TemplateBank(massCount, radiusCount, parallelism);
+        if (Files.isRegularFile(path) && bank.load(path)) return bank;
+
+        // Otherwise make the templates and save them
+        bank.pool.invoke(bank.new GenerateAction(0, bank.getCount()));
+        bank.save(path);
+        // Return the bank
+        return bank;
+    }
+
+    // The simulateChirp method is used to simulate the default binary with the given masses and radius without any display, it returns the strain h+ of every step until the merge
+    public static double[] simulateChirp(final double mass1, final double mass2, final double radius, final long maxSteps) {
+        // Create the binary and its stepper
+        final SimulationStepper stepper = createStepper(mass1, mass2, radius);
+        final SimulationState state = stepper.getState();
+
+        // Keep the strain of every step, the array grows as needed
+        double[] strain = new double[1024];
+        int count = 0;
+        while (count < maxSteps && stepper.step()) {
+            if (count == strain.length) strain = Arrays.copyOf(strain, count * 2);
+            strain[count++] = state.getStrainPlus();
+        }
+        // Return the strain of every step
+        return Arrays.copyOf(strain, count);
+    }
+
+    // The createStepper method is used to create the default binary with the given masses and radius, and its stepper
+    private static SimulationStepper createStepper(final double mass1, final double mass2, final double radius) {
+        // Create the default binary of the application and replace its black holes
+        final SimulationState state = SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT);
+        state.resetToDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT, mass1, radius, mass2, radius);
+        // Return its stepper
+        return new SimulationStepper(state);
+    }
+
+    // The generateTemplate method is used to simulate the binary of a template and store the lowest bins of the spectrum of its last steps, using the given arrays for the FFT
+    private void generateTemplate(final int index, final double[] real, final double[] imaginary) {
+        // Simulate the binary until it merges, its stepper keeps the last strains
+        final SimulationStepper stepper = createStepper(this.mass1[index], this.mass2[index], this.radius[index]);
+        stepper.run(MAX_TEMPLATE_STEPS);
+        final WaveHistory history = stepper.getStrainGenerator().getPlusHistory();
+
+        // Copy the last steps at the end of the template, a binary merging sooner starts with zeros, and transform it
+        Arrays.fill(real, 0);
+        Arrays.fill(imaginary, 0);
+        final int count = Math.min(TEMPLATE_LENGTH, history.size());
+        for (int i = 0; i < count; i++) real[TEMPLATE_LENGTH - count + i] = history.get(history.getLastIndex() - count + 1 + i);
+        this.fft.transform(real, imaginary);
+
+        // Get the energy of the template kept by the bins, the mean (the first bin) is never matched: 2 / N * sum(|T|^2)
+        double energy = 0;
+        for (int bin = 1; bin < BIN_COUNT; bin++) energy += real[bin] * real[bin] + imaginary[bin] * imaginary[bin];
+        energy *= 2.0 / FFT_SIZE;
+
+        // Store the bins scaled to a unit energy, so the match of white noise has the deviation of the noise, a binary without strain stays silent
+        final double scale = energy > 0 ? 1 / Math.sqrt(energy) : 0;
+        final int offset = index * BIN_COUNT * 2;
+        for (int bin = 0; bin < BIN_COUNT; bin++) {
+            this.spectra[offset + 2 * bin] = bin == 0 ? 0 : (float) (real[bin] * scale);
+            this.spectra[offset + 2 * bin + 1] = bin == 0 ? 0 : (float) (imaginary[bin] * scale);
+        }
+    }
+
+    // The search method is used to find the template that matches the given signal best, one sample per step, with the given deviation of its noise, or an estimation of it if it isn't positive
+    public TemplateMatch search(final double[] signal, final double noise) {
+        // Get the deviation of the noise
+        final double sigma = noise > 0 ? noise : estimateNoise(signal);
+        if (!(sigma > 0)) throw new IllegalArgumentException("The noise of the signal must be positive, got " + sigma);
+
+        // Get the lags to match, at least one if the signal is shorter than a template, and the segments covering them
+        final int hop = FFT_SIZE - TEMPLATE_LENGTH + 1;
+        final long lagCount = Math.max(1, signal.length - TEMPLATE_LENGTH + 1);
+        final int segmentCount = (int) ((lagCount + hop - 1) / hop);
+
+        // Transform every segment once, they are shared by every template
+        final double[] real = new double[FFT_SIZE], imaginary = new double[FFT_SIZE];
+        final double[] segments = new double[segmentCount * BIN_COUNT * 2];
+        for (int segment = 0; segment < segmentCount; segment++) {
+            // Copy the samples of the segment, zeros after the end of the signal, and transform them
+            final int start = segment * hop;
+            for (int i = 0; i < FFT_SIZE; i++) {
+                real[i] = start + i < signal.length ? signal[start + i] : 0;
+                imaginary[i] = 0;
+            }
+            this.fft.transform(real, imaginary);
+
+            // Keep the bins matched with the templates
+            for (int bin = 0; bin < BIN_COUNT; bin++) {
+                segments[(segment * BIN_COUNT + bin) * 2] = real[bin];
+                segments[(segment * BIN_COUNT + bin) * 2 + 1] = imaginary[bin];
+            }
+        }
+
+        // Match every template in parallel and return the best one
+        return this.pool.invoke(new SearchTask(0, this.getCount(), segments, segmentCount, lagCount, sigma));
+    }
+
+    // The matchTemplate method is used to match a template at every lag of the segments, using the given arrays for the FFT, it returns the match of its best lag
+    private TemplateMatch matchTemplate(final int index, final double[] segments, final int segmentCount, final long lagCount, final double sigma, final double[] real, final double[] imaginary) {
+        // Iterate through every segment to find the loudest lag
+        final int hop = FFT_SIZE - TEMPLATE_LENGTH + 1, offset = index * BIN_COUNT * 2;
+        double loudest = -1;
+        long loudestLag = 0;
+        for (int segment = 0; segment < segmentCount; segment++) {
+            // Multiply the segment by the conjugate of the template, doubled and without the negative frequencies so the result is complex and both quadratures are matched
+            Arrays.fill(real, 0);
+            Arrays.fill(imaginary, 0);
+            for (int bin = 1; bin < BIN_COUNT; bin++) {
+                final int segmentBin = (segment * BIN_COUNT + bin) * 2;
+                final double segmentReal = segments[segmentBin], segmentImaginary = segments[segmentBin + 1];
+                final double templateReal = this.spectra[offset + 2 * bin], templateImaginary = this.spectra[offset + 2 * bin + 1];
+                real[bin] = 2 * (segmentReal * templateReal + segmentImaginary * templateImaginary);
+                imaginary[bin] = 2 * (segmentImaginary * templateReal - segmentReal * templateImaginary);
+            }
+            this.fft.inverse(real, imaginary);
+
+            // Find the loudest lag of the segment, only the lags where the whole template is in the segment are valid
+            final long start = (long) segment * hop;
+            final int lags = (int) Math.min(hop, lagCount - start);
+            for (int lag = 0; lag < lags; lag++) {
+                final double power = real[lag] * real[lag] + imaginary[lag] * imaginary[lag];
+                if (power > loudest) {
+                    loudest = power;
+                    loudestLag = start + lag;
+                }
+            }
+        }
+
+        // Return the match of the loudest lag
+        return new TemplateMatch(index, this.mass1[index], this.mass2[index], this.radius[index], Math.sqrt(loudest) / sigma, loudestLag);
+    }
+
+    // The estimateNoise method is used to estimate the deviation of the white noise of a signal, from the median absolute deviation of the differences of its samples
+    // A chirp of the simulation is much slower than a sample, so it barely changes the differences, while the noise is multiplied by sqrt(2)
+    // Calculated using the formula: sigma = 1.4826 * MAD(x[i + 1] - x[i]) / sqrt(2)
+    // https://en.wikipedia.org/wiki/Median_absolute_deviation
+    public static double estimateNoise(final double[] signal) {
+        // There is no noise to estimate without two samples
+        if (signal.length < 2) return 0;
+
+        // Get the differences and their median
+        final double[] differences = new double[signal.length - 1];
+        for (int i = 0; i < differences.length; i++) differences[i] = signal[i + 1] - signal[i];
+        final double median = getMedian(differences);
+
+        // Get the median of the absolute deviations and scale it to the deviation of the noise
+        for (int i = 0; i < differences.length; i++) differences[i] = Math.abs(differences[i] - median);
+        return 1.4826 * getMedian(differences) / Math.sqrt(2);
+    }
+
+    // The getMedian method is used to get the median of an array, it sorts it
+    private static double getMedian(final double[] values) {
+        // Sort the values and return the middle one, or the mean of the two middle ones
+        Arrays.sort(values);
+        final int middle = values.length / 2;
+        return values.length % 2 == 1 ? values[middle] : (values[middle - 1] + values[middle]) / 2;
+    }
+
+    // The save method is used to write the bank to the given file: a header, the parameters of every template then their spectra
+    public void save(final Path path) throws IOException {
+        try (final ChannelWriter writer = new ChannelWriter(path)) {
+            // Write the header, everything the templates depend on
+            this.writeHeader(writer);
+
+            // Write the parameters of every template
+            for (int index = 0; index < this.getCount(); index++) {
+                writer.putDouble(this.mass1[index]);
+                writer.putDouble(this.mass2[index]);
+                writer.putDouble(this.radius[index]);
+            }
+
+            // Write the spectra of every template
+            for (final float value : this.spectra) writer.putFloat(value);
+        }
+    }
+
+    // The writeHeader method is used to write the header of a file of the bank
+    private void writeHeader(final ChannelWriter writer) throws IOException {
+        // Write the format, the sizes of the templates, how they are simulated and the grid
+        writer.putInt(MAGIC);
+        writer.putInt(VERSION);
+        writer.putInt(FFT_SIZE);
+        writer.putInt(TEMPLATE_LENGTH);
+        writer.putInt(BIN_COUNT);
+        writer.putInt(this.getCount());
+        writer.putLong(MAX_TEMPLATE_STEPS);
+        writer.putDouble(SimulationDefaults.DEFAULT_TIME_STEP);
+        writer.putInt(this.massCount);
+        writer.putInt(this.radiusCount);
+    }
+
+    // The load method is used to read the templates of the given file, it returns false if the file is not a bank of the same grid
+    private boolean load(final Path path) throws IOException {
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // Check that the file has the size of the bank
+            final long size = HEADER_SIZE + (long) this.getCount() * 3 * Double.BYTES + (long) this.spectra.length * Float.BYTES;
+            if (channel.size() != size) return false;
+
+            // Map the file and check that its header is the one of the bank
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION || buffer.getInt() != FFT_SIZE || buffer.getInt() != TEMPLATE_LENGTH || buffer.getInt() != BIN_COUNT || buffer.getInt() != this.getCount()) return false;
+            if (buffer.getLong() != MAX_TEMPLATE_STEPS || buffer.getDouble() != SimulationDefaults.DEFAULT_TIME_STEP || buffer.getInt() != this.massCount || buffer.getInt() != this.radiusCount) return false;
+
+            // Check that the parameters of every template are the ones of the grid
+            for (int index = 0; index < this.getCount(); index++) {
+                if (buffer.getDouble() != this.mass1[index] || buffer.getDouble() != this.mass2[index] || buffer.getDouble() != this.radius[index]) return false;
+            }
+
+            // Read the spectra at once
+            buffer.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(this.spectra);
+            return true;
+        }
+    }
+
+    // The shutdown method is used to stop the threads of the bank, it can't make or match templates anymore
+    public void shutdown() {
+        // Stop the threads, they finish what they are doing
+        this.pool.shutdown();
+    }
+
+    // The getCount method is used to get the number of templates of the bank
+    public int getCount() {
+        // Return the number of templates
+        return this.radius.length;
+    }
+
+    // The getMassCount and getRadiusCount methods are used to get the number of masses and radii of the grid
+    public int getMassCount() {
+        // Return the number of masses
+        return this.massCount;
+    }
+
+    public int getRadiusCount() {
+        // Return the number of radii
+        return this.radiusCount;
+    }
+
+    // The getParallelism method is used to get the number of threads of the bank
+    public int getParallelism() {
+        // Return the number of threads of the pool
+        return this.pool.getParallelism();
+    }
+
+    // The GenerateAction class is used to make a range of templates in the pool, splitting the range in two until a chunk is left
+    private class GenerateAction extends RecursiveAction {
+        // The serialVersionUID constant is used to set the version of the serialized form of the action, it is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // The firstTemplate and lastTemplate variables are used to store the range of templates, the last one excluded
+        private final int firstTemplate;
+        private final int lastTemplate;
+
+        // The GenerateAction constructor is used to create a new action for a range of templates
+        private GenerateAction(final int firstTemplate, final int lastTemplate) {
+            // Assign the parameters to the global variables
+            this.firstTemplate = firstTemplate;
+            this.lastTemplate = lastTemplate;
+        }
+
+        // The compute method is used to make the range of templates
+        @Override
+        protected void compute() {
+            // Split the range in two until there is a chunk left, so the threads of the pool can steal the halves
+            if (this.lastTemplate - this.firstTemplate > CHUNK_SIZE) {
+                final int middleTemplate = (this.firstTemplate + this.lastTemplate) >>> 1;
+                invokeAll(new GenerateAction(this.firstTemplate, middleTemplate), new GenerateAction(middleTemplate, this.lastTemplate));
+                return;
+            }
+
+            // Make the templates of the chunk, sharing the arrays of the FFT
+            final double[] real = new double[FFT_SIZE], imaginary = new double[FFT_SIZE];
+            for (int index = this.firstTemplate; index < this.lastTemplate; index++) generateTemplate(index, real, imaginary);
+        }
+    }
+
+    // The SearchTask class is used to match a range of templates in the pool, splitting the range in two until a chunk is left, it returns the best match of the range
+    private class SearchTask extends RecursiveTask<TemplateMatch> {
+        // The serialVersionUID constant is used to set the version of the serialized form of the action, it is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // The firstTemplate and lastTemplate variables are used to store the range of templates, the last one excluded
+        private final int firstTemplate;
+        private final int lastTemplate;
+
+        // The segments, segmentCount, lagCount and sigma variables are used to store the transformed segments of the signal, their number, the number of lags and the deviation of the noise
+        private final double[] segments;
+        private final int segmentCount;
+        private final long lagCount;
+        private final double sigma;
+
+        // The SearchTask constructor is used to create a new task for a range of templates
+        private SearchTask(final int firstTemplate, final int lastTemplate, final double[] segments, final int segmentCount, final long lagCount, final double sigma) {
+            // Assign the parameters to the global variables
+            this.firstTemplate = firstTemplate;
+            this.lastTemplate = lastTemplate;
+            this.segments = segments;
+            this.segmentCount = segmentCount;
+            this.lagCount = lagCount;
+            this.sigma = sigma;
+        }
+
+        // The compute method is used to match the range of templates and return the best match
+        @Override
+        protected TemplateMatch compute() {
+            // Split the range in two until there is a chunk left, and keep the best match of both halves
+            if (this.lastTemplate - this.firstTemplate > CHUNK_SIZE) {
+                final int middleTemplate = (this.firstTemplate + this.lastTemplate) >>> 1;
+                final SearchTask first = new SearchTask(this.firstTemplate, middleTemplate, this.segments, this.segmentCount, this.lagCount, this.sigma);
+                final SearchTask second = new SearchTask(middleTemplate, this.lastTemplate, this.segments, this.segmentCount, this.lagCount, this.sigma);
+                invokeAll(first, second);
+                final TemplateMatch firstMatch = first.join(), secondMatch = second.join();
+                return secondMatch.isBetterThan(firstMatch) ? secondMatch : firstMatch;
+            }
+
+            // Match the templates of the chunk, sharing the arrays of the FFT
+            final double[] real = new double[FFT_SIZE], imaginary = new double[FFT_SIZE];
+            TemplateMatch best = null;
+            for (int index = this.firstTemplate; index < this.lastTemplate; index++) {
+                final TemplateMatch match = matchTemplate(index, this.segments, this.segmentCount, this.lagCount, this.sigma, real, imaginary);
+                if (match.isBetterThan(best)) best = match;
+            }
+            // Return the best match of the chunk
+            return best;
+        }
+    }
+}
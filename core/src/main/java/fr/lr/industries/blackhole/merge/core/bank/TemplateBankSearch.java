@@ -0,0 +1,114 @@
+package fr.lr.industries.blackhole.merge.core.bank;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+
+// The TemplateBankSearch class is used to find which binary made a signal with a template bank, without any display
+// The signal is the strain h+ of a CSV or binary file written by the ChirpExporter, or the chirp of the given binary injected into white noise at the given signal-to-noise ratio
+// Usage: TemplateBankSearch [bank file] [signal file|inject] [mass 1] [mass 2] [radius] [SNR] [mass count] [radius count] [threads], without any argument the default binary is injected and searched in the default bank
+public class TemplateBankSearch {
+    // The DEFAULT_BANK_FILE constant is used to set the file of the bank, it is made the first time
+    public static final String DEFAULT_BANK_FILE = "template-bank.bin";
+
+    // The DEFAULT_SNR constant is used to set the signal-to-noise ratio of an injected chirp
+    public static final double DEFAULT_SNR = 20.0;
+
+    // The INJECTION_OFFSET constant is used to set the number of samples of noise before an injected chirp
+    public static final int INJECTION_OFFSET = 3000;
+
+    // The BINARY_RECORD_SIZE and BINARY_PLUS_OFFSET constants are used to read the binary files of the ChirpExporter: the step, the time, the frequency, h+ and hx of every step
+    private static final int BINARY_RECORD_SIZE = Long.BYTES + 4 * Double.BYTES;
+    private static final int BINARY_PLUS_OFFSET = Long.BYTES + 2 * Double.BYTES;
+
+    // The main method is used to load or make the bank, search the signal and print the best match
+    public static void main(final String[] args) throws IOException {
+        // Get the file of the bank and the signal from the arguments
+        final Path bankPath = Paths.get(args.length > 0 ? args[0] : DEFAULT_BANK_FILE);
+        final String signalName = args.length > 1 ? args[1] : "inject";
+        // Get the binary and the signal-to-noise ratio of the injected chirp, the default binary by default
+        final double mass1 = args.length > 2 ? Double.parseDouble(args[2]) : SimulationDefaults.DEFAULT_BLACK_HOLE_MASS;
+        final double mass2 = args.length > 3 ? Double.parseDouble(args[3]) : SimulationDefaults.DEFAULT_BLACK_HOLE_MASS;
+        final double radius = args.length > 4 ? Double.parseDouble(args[4]) : SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS;
+        final double snr = args.length > 5 ? Double.parseDouble(args[5]) : DEFAULT_SNR;
+        // Get the grid of the bank and the number of threads
+        final int massCount = args.length > 6 ? Integer.parseInt(args[6]) : TemplateBank.DEFAULT_MASS_COUNT;
+        final int radiusCount = args.length > 7 ? Integer.parseInt(args[7]) : TemplateBank.DEFAULT_RADIUS_COUNT;
+        final int threads = args.length > 8 ? Integer.parseInt(args[8]) : Runtime.getRuntime().availableProcessors();
+
+        // Load the bank, or make it and save it if its file doesn't have the same grid
+        long start = System.nanoTime();
+        final TemplateBank bank = TemplateBank.loadOrGenerate(bankPath, massCount, radiusCount, threads);
+        System.out.println(bank.getCount() + " templates ready in " + String.format("%.3f", (System.nanoTime() - start) / 1.0e9) + "s (" + bankPath + ", " + bank.getParallelism() + " threads)");
+
+        // Read the signal, or inject the chirp into noise
+        final double[] signal;
+        if (signalName.equals("inject")) {
+            signal = inject(mass1, mass2, radius, snr);
+            System.out.println("Injected the chirp of " + String.format("%.3e", mass1) + " kg and " + String.format("%.3e", mass2) + " kg with a radius of " + String.format("%.1f", radius) + " at a SNR of " + snr + ", it starts at the sample " + INJECTION_OFFSET);
+        } else {
+            signal = readSignal(Paths.get(signalName));
+            System.out.println("Read " + signal.length + " samples from " + signalName);
+        }
+
+        // Search the signal, the noise is estimated from it
+        start = System.nanoTime();
+        final TemplateMatch match = bank.search(signal, 0);
+        final double seconds = (System.nanoTime() - start) / 1.0e9;
+        bank.shutdown();
+
+        // Print the best match and how fast the templates were matched
+        System.out.println("Best match: template " + match.getIndex() + ", masses " + String.format("%.3e", match.getMass1()) + " kg and " + String.format("%.3e", match.getMass2()) + " kg, radius " + String.format("%.1f", match.getRadius()) + ", SNR " + String.format("%.2f", match.getSnr()) + " at the sample " + match.getLag());
+        System.out.println(bank.getCount() + " templates matched against " + signal.length + " samples in " + String.format("%.3f", seconds) + "s (" + String.format("%.0f", bank.getCount() / seconds) + " templates/s)");
+    }
+
+    // The inject method is used to simulate the chirp of the given binary and add it to white noise, so the last steps of the chirp have the given signal-to-noise ratio
+    private static double[] inject(final double mass1, final double mass2, final double radius, final double snr) {
+        // Simulate the chirp
+        final double[] chirp = TemplateBank.simulateChirp(mass1, mass2, radius, TemplateBank.MAX_TEMPLATE_STEPS);
+
+        // Get the deviation of the noise from the energy of the last steps, the ones a template matches
+        double energy = 0;
+        for (int i = Math.max(0, chirp.length - TemplateBank.TEMPLATE_LENGTH); i < chirp.length; i++) energy += chirp[i] * chirp[i];
+        final double sigma = Math.sqrt(energy) / snr;
+
+        // Add the chirp after some noise, and some noise after it
+        final Random random = new Random(44L);
+        final double[] signal = new double[INJECTION_OFFSET + chirp.length + TemplateBank.TEMPLATE_LENGTH / 2];
+        for (int i = 0; i < signal.length; i++) {
+            final int step = i - INJECTION_OFFSET;
+            signal[i] = random.nextGaussian() * sigma + (step >= 0 && step < chirp.length ? chirp[step] : 0);
+        }
+        // Return the signal
+        return signal;
+    }
+
+    // The readSignal method is used to read the strain h+ of a file of the ChirpExporter, a binary file if it ends with .bin and a CSV file otherwise
+    private static double[] readSignal(final Path path) throws IOException {
+        // Read the h+ of every record of a binary file
+        if (path.toString().endsWith(".bin")) {
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ByteOrder.LITTLE_ENDIAN);
+                final double[] signal = new double[(int) (channel.size() / BINARY_RECORD_SIZE)];
+                for (int i = 0; i < signal.length; i++) signal[i] = buffer.getDouble(i * BINARY_RECORD_SIZE + BINARY_PLUS_OFFSET);
+                return signal;
+            }
+        }
+
+        // Read the h+ column of every line of a CSV file, after its header
+        final List<String> lines = Files.readAllLines(path);
+        final double[] signal = new double[Math.max(0, lines.size() - 1)];
+        for (int i = 0; i < signal.length; i++) signal[i] = Double.parseDouble(lines.get(i + 1).split(",")[3]);
+        return signal;
+    }
+}
@@ -0,0 +1,69 @@
+package fr.lr.industries.blackhole.merge.core.bank;
+
+// The TemplateMatch class is used to store the template of a bank that matches a signal best, with its parameters and how well it matches
+public class TemplateMatch {
+    // The index variable is used to store the index of the template in the bank
+    private final int index;
+
+    // The mass1, mass2 and radius variables are used to store the parameters of the binary of the template
+    private final double mass1;
+    private final double mass2;
+    private final double radius;
+
+    // The snr variable is used to store the signal-to-noise ratio of the match
+    private final double snr;
+
+    // The lag variable is used to store the index of the sample of the signal where the template starts
+    private final long lag;
+
+    // The TemplateMatch constructor is used to create a new match
+    public TemplateMatch(final int index, final double mass1, final double mass2, final double radius, final double snr, final long lag) {
+        // Assign the parameters to the global variables
+        this.index = index;
+        this.mass1 = mass1;
+        this.mass2 = mass2;
+        this.radius = radius;
+        this.snr = snr;
+        this.lag = lag;
+    }
+
+    // The isBetterThan method is used to check whether this match is better than the given one, any match is better than none
+    public boolean isBetterThan(final TemplateMatch match) {
+        // Compare the signal-to-noise ratios
+        return match == null || this.snr > match.snr;
+    }
+
+    // The getIndex method is used to get the index of the template in the bank
+    public int getIndex() {
+        // Return the index
+        return this.index;
+    }
+
+    // The getMass1, getMass2 and getRadius methods are used to get the parameters of the binary of the template
+    public double getMass1() {
+        // Return the mass of the first black hole
+        return this.mass1;
+    }
+
+    public double getMass2() {
+        // Return the mass of the second black hole
+        return this.mass2;
+    }
+
+    public double getRadius() {
+        // Return the radius of both black holes
+        return this.radius;
+    }
+
+    // The getSnr method is used to get the signal-to-noise ratio of the match
+    public double getSnr() {
+        // Return the signal-to-noise ratio
+        return this.snr;
+    }
+
+    // The getLag method is used to get the index of the sample of the signal where the template starts
+    public long getLag() {
+        // Return the lag
+        return this.lag;
+    }
+}
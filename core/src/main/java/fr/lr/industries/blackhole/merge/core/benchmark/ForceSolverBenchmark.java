@@ -0,0 +1,77 @@
+package fr.lr.industries.blackhole.merge.core.benchmark;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.solver.BarnesHutForceSolver;
+import fr.lr.industries.blackhole.merge.core.solver.DirectForceSolver;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+import java.util.Arrays;
+
+// The ForceSolverBenchmark class is used to compare the Barnes-Hut solver with the direct one, for the time taken and for the error on the accelerations
+// Usage: ForceSolverBenchmark [black hole counts separated by commas] [thetas separated by commas]
+public class ForceSolverBenchmark {
+    // The DEFAULT_COUNTS and DEFAULT_THETAS constants are used when no argument is given
+    private static final int[] DEFAULT_COUNTS = {1_000, 5_000, 10_000};
+    private static final double[] DEFAULT_THETAS = {0.3, 0.5, 0.7, 1.0};
+
+    // The WARMUP_RUNS and MEASURED_RUNS constants are used to let the JIT compile the solvers before they are measured
+    private static final int WARMUP_RUNS = 3;
+    private static final int MEASURED_RUNS = 5;
+
+    // The main method is used to print a line for every solver and every black hole count
+    public static void main(final String[] args) {
+        // Get the black hole counts and the opening angles from the arguments
+        final int[] counts = args.length > 0 ? Arrays.stream(args[0].split(",")).mapToInt(Integer::parseInt).toArray() : DEFAULT_COUNTS;
+        final double[] thetas = args.length > 1 ? Arrays.stream(args[1].split(",")).mapToDouble(Double::parseDouble).toArray() : DEFAULT_THETAS;
+
+        System.out.println("count, solver, theta, ms/step, rms relative error");
+        for (final int count : counts) {
+            // Create the same cluster for every solver
+            final BlackHoleStore blackHoles = SimulationState.createCluster(count, SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT, 44L).getBlackHoles();
+
+            // Get the exact accelerations with the direct solver, they are the reference of the error
+            final double direct = measure(new DirectForceSolver(), blackHoles);
+            final double[] exactAx = Arrays.copyOf(blackHoles.getAx(), count);
+            final double[] exactAy = Arrays.copyOf(blackHoles.getAy(), count);
+            System.out.println(count + ", " + DirectForceSolver.NAME + ", -, " + String.format("%.3f", direct) + ", 0");
+
+            // Measure the Barnes-Hut solver for every opening angle
+            for (final double theta : thetas) {
+                final double barnesHut = measure(new BarnesHutForceSolver(theta), blackHoles);
+                System.out.println(count + ", " + BarnesHutForceSolver.NAME + ", " + theta + ", " + String.format("%.3f", barnesHut) + ", " + String.format("%.3e", getRelativeError(blackHoles, exactAx, exactAy)));
+            }
+        }
+    }
+
+    // The measure method is used to get the average time taken by a solver to calculate the accelerations, in milliseconds
+    private static double measure(final ForceSolver forceSolver, final BlackHoleStore blackHoles) {
+        // Warm up the solver
+        for (int i = 0; i < WARMUP_RUNS; i++) forceSolver.computeAccelerations(blackHoles);
+
+        // Measure the solver
+        final long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_RUNS; i++) forceSolver.computeAccelerations(blackHoles);
+        // Return the average time of a run in milliseconds
+        return (System.nanoTime() - start) / 1.0e6 / MEASURED_RUNS;
+    }
+
+    // The getRelativeError method is used to get the root mean square of the relative error of the accelerations of the store
+    private static double getRelativeError(final BlackHoleStore blackHoles, final double[] exactAx, final double[] exactAy) {
+        // Get the live arrays of the store
+        final double[] ax = blackHoles.getAx(), ay = blackHoles.getAy();
+        final int count = blackHoles.getCount();
+
+        // Sum the squared relative errors
+        double sum = 0;
+        for (int i = 0; i < count; i++) {
+            final double exactSquared = exactAx[i] * exactAx[i] + exactAy[i] * exactAy[i];
+            if (exactSquared == 0) continue;
+            final double dx = ax[i] - exactAx[i], dy = ay[i] - exactAy[i];
+            sum += (dx * dx + dy * dy) / exactSquared;
+        }
+        // Return the root mean square
+        return Math.sqrt(sum / count);
+    }
+}
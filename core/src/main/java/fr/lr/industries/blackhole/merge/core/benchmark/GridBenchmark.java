@@ -0,0 +1,97 @@
+package fr.lr.industries.blackhole.merge.core.benchmark;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.grid.GridKernel;
+import fr.lr.industries.blackhole.merge.core.grid.GridRasterizer;
+import fr.lr.industries.blackhole.merge.core.grid.ScalarGridKernel;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationSnapshot;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import java.util.Arrays;
+
+// The GridBenchmark class is used to measure how long drawing the grid of the default binary takes, for a given size of the simulation
+// Usage: GridBenchmark [width] [height] [quality] [threads separated by commas], the default size is the simulation of a 4K screen
+// Every kernel available is measured (run with --add-modules jdk.incubator.vector to measure the vector one), and the pixels it draws are compared to the scalar kernel
+// A full frame draws every tile of the grid, an incremental frame only draws the tiles that changed since the previous frame, one step of the simulation before
+public class GridBenchmark {
+    // The DEFAULT_WIDTH and DEFAULT_HEIGHT constants are used to set the size of the simulation of a 3840x2160 screen (80% and 90% of it)
+    private static final int DEFAULT_WIDTH = 3072;
+    private static final int DEFAULT_HEIGHT = 1944;
+
+    // The WARMUP_RUNS and MEASURED_RUNS constants are used to let the JIT compile the rasterizer before it is measured
+    private static final int WARMUP_RUNS = 50;
+    private static final int MEASURED_RUNS = 200;
+
+    // The main method is used to print the average time taken to draw a frame of the grid
+    public static void main(final String[] args) {
+        // Get the size of the simulation and the quality of the grid from the arguments
+        final int width = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_WIDTH;
+        final int height = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_HEIGHT;
+        final double quality = args.length > 2 ? Double.parseDouble(args[2]) : 5.0;
+        final int[] threadCounts = args.length > 3 ? Arrays.stream(args[3].split(",")).mapToInt(Integer::parseInt).toArray() : new int[] {1, GridRasterizer.DEFAULT_PARALLELISM};
+
+        // Create the default binary and a rasterizer with the settings of the application
+        final SimulationState state = SimulationState.createDefault(width, height);
+        final SimulationSnapshot snapshot = state.snapshot();
+        final GridRasterizer gridRasterizer = new GridRasterizer(width, height, 12.5, quality, 1.5, 75.0, 0xFF000000, 1);
+
+        // Draw the grid with the scalar kernel once, every kernel must draw the same pixels
+        gridRasterizer.setKernel(new ScalarGridKernel());
+        gridRasterizer.invalidate();
+        final int[] scalarPixels = gridRasterizer.rasterize(snapshot).clone();
+
+        // Get the snapshots of the incremental frames, one step apart as in the application (as many steps per second as frames per second)
+        final SimulationStepper stepper = new SimulationStepper(state);
+        final SimulationSnapshot[] frames = new SimulationSnapshot[WARMUP_RUNS + MEASURED_RUNS];
+        for (int i = 0; i < frames.length; i++) {
+            stepper.step();
+            frames[i] = state.snapshot();
+        }
+
+        // Get the kernels to measure, the scalar one and the fastest one if it is not the scalar one
+        final GridKernel fastestKernel = GridKernel.create();
+        final GridKernel[] kernels = fastestKernel instanceof ScalarGridKernel ? new GridKernel[] {new ScalarGridKernel()} : new GridKernel[] {new ScalarGridKernel(), fastestKernel};
+
+        for (final GridKernel kernel : kernels) {
+            // Draw the grid with the kernel
+            gridRasterizer.setKernel(kernel);
+
+            for (final int threadCount : threadCounts) {
+                // Draw the grid with the number of threads
+                gridRasterizer.setParallelism(threadCount);
+
+                // Warm up the rasterizer with full frames
+                for (int i = 0; i < WARMUP_RUNS; i++) {
+                    gridRasterizer.invalidate();
+                    gridRasterizer.rasterize(snapshot);
+                }
+
+                // Measure the rasterizer with full frames
+                long start = System.nanoTime();
+                for (int i = 0; i < MEASURED_RUNS; i++) {
+                    gridRasterizer.invalidate();
+                    gridRasterizer.rasterize(snapshot);
+                }
+                final double fullFrameTime = (System.nanoTime() - start) / 1.0e6 / MEASURED_RUNS;
+
+                // Count the pixels that are not the same as with the scalar kernel
+                gridRasterizer.invalidate();
+                final int[] pixels = gridRasterizer.rasterize(snapshot);
+                int differentPixels = 0;
+                for (int i = 0; i < pixels.length; i++) if (pixels[i] != scalarPixels[i]) differentPixels++;
+
+                // Warm up the rasterizer with incremental frames, then measure it and count the tiles drawn
+                for (int i = 0; i < WARMUP_RUNS; i++) gridRasterizer.rasterize(frames[i]);
+                long dirtyTiles = 0;
+                start = System.nanoTime();
+                for (int i = WARMUP_RUNS; i < frames.length; i++) {
+                    gridRasterizer.rasterize(frames[i]);
+                    dirtyTiles += gridRasterizer.getDirtyTileCount();
+                }
+                final double incrementalFrameTime = (System.nanoTime() - start) / 1.0e6 / MEASURED_RUNS;
+
+                System.out.println(width + "x" + height + ", quality " + quality + ", " + kernel.getName() + " kernel, " + threadCount + " thread(s): " + String.format("%.3f", fullFrameTime) + " ms/full frame, " + String.format("%.3f", incrementalFrameTime) + " ms/incremental frame (" + String.format("%.1f", (double) dirtyTiles / MEASURED_RUNS) + "/" + gridRasterizer.getTileCount() + " tiles), " + differentPixels + " pixel(s) different from scalar");
+            }
+        }
+    }
+}
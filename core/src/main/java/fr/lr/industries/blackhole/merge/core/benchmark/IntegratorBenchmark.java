@@ -0,0 +1,65 @@
+package fr.lr.industries.blackhole.merge.core.benchmark;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.integrator.Integrator;
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The IntegratorBenchmark class is used to compare the integrators on the default binary: how much its energy drifts and when it merges, for several time steps
+// Usage: IntegratorBenchmark [time steps separated by commas, "adaptive" for the adaptive time step]
+public class IntegratorBenchmark {
+    // The DEFAULT_TIME_STEPS constant is used when no argument is given, from the default time step of the application to 10 times bigger
+    private static final String[] DEFAULT_TIME_STEPS = {"0.1", "0.25", "0.5", "1.0", "adaptive"};
+
+    // The MAX_TIME constant is used to stop a simulation that never merges, in simulated time
+    private static final double MAX_TIME = 1.0e5;
+
+    // The main method is used to print a line for every integrator and every time step
+    public static void main(final String[] args) {
+        // Get the time steps from the arguments
+        final String[] timeSteps = args.length > 0 ? args[0].split(",") : DEFAULT_TIME_STEPS;
+
+        System.out.println("integrator, time step, steps, merge time, max relative energy drift, ms");
+        for (final String name : Integrator.NAMES) {
+            for (final String timeStep : timeSteps) {
+                // Create the default binary with the integrator and the time step
+                final SimulationState state = SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT);
+                if (timeStep.equals("adaptive")) state.setAdaptiveTimeStep(true);
+                else state.setTimeStep(Double.parseDouble(timeStep));
+                final SimulationStepper stepper = new SimulationStepper(state);
+                stepper.setIntegrator(Integrator.create(name));
+
+                // Step the binary until it merges, and keep the biggest energy drift before the merge
+                final double initialEnergy = getEnergy(state.getBlackHoles());
+                double maxDrift = 0;
+                final long start = System.nanoTime();
+                while (!state.isFinished() && state.getTimeElapsed() < MAX_TIME) {
+                    stepper.step();
+                    if (!state.isFinished()) maxDrift = Math.max(maxDrift, Math.abs((getEnergy(state.getBlackHoles()) - initialEnergy) / initialEnergy));
+                }
+
+                System.out.println(name + ", " + timeStep + ", " + state.getSteps() + ", " + String.format("%.1f", state.getTimeElapsed()) + ", " + String.format("%.3e", maxDrift) + ", " + String.format("%.1f", (System.nanoTime() - start) / 1.0e6));
+            }
+        }
+    }
+
+    // The getEnergy method is used to get the total energy of the black holes: the kinetic energy of each of them plus the potential energy of each pair
+    private static double getEnergy(final BlackHoleStore blackHoles) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy(), mass = blackHoles.getMass();
+
+        double energy = 0;
+        for (int i = 0; i < count; i++) {
+            // Add the kinetic energy: 1/2 * m * v^2
+            energy += 0.5 * mass[i] * (vx[i] * vx[i] + vy[i] * vy[i]);
+            // Add the potential energy of every pair: -G * m1 * m2 / r
+            for (int j = i + 1; j < count; j++) energy -= G * mass[i] * mass[j] / Math.hypot(x[j] - x[i], y[j] - y[i]);
+        }
+        // Return the total energy
+        return energy;
+    }
+}
@@ -0,0 +1,140 @@
+package fr.lr.industries.blackhole.merge.core.cache;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import fr.lr.industries.blackhole.merge.core.solver.BarnesHutForceSolver;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+// The CacheKey class is used to identify a simulation by everything its result depends on, as a SHA-256 hash of a canonical encoding of its inputs
+// The inputs are the state of every black hole, the time step, the distance to be merged multiplier, the integrator, the force solver, the maximum number of steps and the version of the engine
+// Every double is encoded by its bits, with -0.0 as 0.0, so two equal simulations always have the same key, whatever machine or thread made it
+public class CacheKey {
+    // The ENGINE_VERSION constant is used to set the version of the way the simulations are stepped, it must change with anything that changes their results, so the old results are never used again
+    public static final int ENGINE_VERSION = 1;
+
+    // The HASH_SIZE constant is used to set the size of a key in bytes
+    public static final int HASH_SIZE = 32;
+
+    // The hash variable is used to store the hash of the inputs
+    private final byte[] hash;
+
+    // The hashCode variable is used to store the hash code of the key, taken from the first bytes of the hash
+    private final int hashCode;
+
+    // The CacheKey constructor is used to create a key from the hash of the inputs
+    CacheKey(final byte[] hash) {
+        // Check that the hash has the right size
+        if (hash.length != HASH_SIZE) throw new IllegalArgumentException("A key must have " + HASH_SIZE + " bytes, got " + hash.length);
+
+        // Assign the parameter to the global variable and take the hash code from it
+        this.hash = hash.clone();
+        this.hashCode = ByteBuffer.wrap(this.hash).getInt();
+    }
+
+    // The of method is used to get the key of the simulation of the given state with the given stepper, stopped after the given number of steps
+    public static CacheKey of(final SimulationState state, final SimulationStepper stepper, final long maxSteps) {
+        // Get the names of the integrator and of the force solver, and the opening angle of the Barnes-Hut solver
+        final byte[] integratorName = stepper.getIntegrator().getName().getBytes(StandardCharsets.UTF_8);
+        final byte[] forceSolverName = stepper.getForceSolver().getName().getBytes(StandardCharsets.UTF_8);
+        final double theta = stepper.getForceSolver() instanceof BarnesHutForceSolver ? ((BarnesHutForceSolver) stepper.getForceSolver()).getTheta() : 0;
+
+        // Encode the inputs in a fixed order
+        final BlackHoleStore blackHoles = state.getBlackHoles();
+        final ByteBuffer buffer = ByteBuffer.allocate(4 * Integer.BYTES + 6 * blackHoles.getCount() * Double.BYTES + 6 * Double.BYTES + Long.BYTES + integratorName.length + forceSolverName.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(ENGINE_VERSION);
+
+        // The state of every black hole
+        buffer.putInt(blackHoles.getCount());
+        for (int i = 0; i < blackHoles.getCount(); i++) {
+            putDouble(buffer, blackHoles.getX()[i]);
+            putDouble(buffer, blackHoles.getY()[i]);
+            putDouble(buffer, blackHoles.getVx()[i]);
+            putDouble(buffer, blackHoles.getVy()[i]);
+            putDouble(buffer, blackHoles.getMass()[i]);
+            putDouble(buffer, blackHoles.getRadius()[i]);
+        }
+
+        // The time step, fixed or adaptive, and the distance to be merged multiplier
+        putDouble(buffer, state.isAdaptiveTimeStep() ? -1 : state.getTimeStep());
+        putDouble(buffer, state.isAdaptiveTimeStep() ? state.getTimeStepAccuracy() : 0);
+        putDouble(buffer, state.isAdaptiveTimeStep() ? state.getMinTimeStep() : 0);
+        putDouble(buffer, state.isAdaptiveTimeStep() ? state.getMaxTimeStep() : 0);
+        putDouble(buffer, state.getDistanceToBeMergedMultiplier());
+
+        // The integrator, the force solver and the maximum number of steps
+        buffer.putInt(integratorName.length).put(integratorName);
+        buffer.putInt(forceSolverName.length).put(forceSolverName);
+        putDouble(buffer, theta);
+        buffer.putLong(maxSteps);
+
+        // Return the key of the hash of the encoding
+        return new CacheKey(getDigest().digest(buffer.array()));
+    }
+
+    // The putDouble method is used to encode a double by its bits, with a single 0
+    private static void putDouble(final ByteBuffer buffer, final double value) {
+        // Encode the bits of the value, -0.0 is 0.0
+        buffer.putLong(Double.doubleToLongBits(value == 0 ? 0.0 : value));
+    }
+
+    // The getDigest method is used to create the SHA-256 digest, a digest can't be shared by threads
+    private static MessageDigest getDigest() {
+        try {
+            // Return a new digest
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException exception) {
+            // Every Java platform has SHA-256
+            throw new IllegalStateException("SHA-256 is not available", exception);
+        }
+    }
+
+    // The getHash method is used to get a copy of the hash of the key
+    public byte[] getHash() {
+        // Return a copy of the hash
+        return this.hash.clone();
+    }
+
+    // The toHex method is used to get the hash of the key as hexadecimal digits, used as the name of its file
+    public String toHex() {
+        // Write every byte as two digits
+        final StringBuilder hex = new StringBuilder(2 * HASH_SIZE);
+        for (final byte value : this.hash) hex.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        return hex.toString();
+    }
+
+    // The fromHex method is used to get the key of the given hexadecimal digits, or null if they are not a key
+    static CacheKey fromHex(final String hex) {
+        // Check that the text has the size of a key
+        if (hex.length() != 2 * HASH_SIZE) return null;
+
+        // Read every byte from two digits
+        final byte[] hash = new byte[HASH_SIZE];
+        for (int i = 0; i < HASH_SIZE; i++) {
+            final int high = Character.digit(hex.charAt(2 * i), 16), low = Character.digit(hex.charAt(2 * i + 1), 16);
+            if (high < 0 || low < 0) return null;
+            hash[i] = (byte) (high << 4 | low);
+        }
+        return new CacheKey(hash);
+    }
+
+    // The equals method is used to check whether two keys have the same hash
+    @Override
+    public boolean equals(final Object object) {
+        // Compare the hashes
+        return object instanceof CacheKey && Arrays.equals(this.hash, ((CacheKey) object).hash);
+    }
+
+    // The hashCode method is used to get the hash code of the key
+    @Override
+    public int hashCode() {
+        // Return the hash code taken from the hash
+        return this.hashCode;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.lr.industries.blackhole.merge.core.cache;
+
+// The CachedResult class is used to store the outcome of a simulation in the cache, and optionally the trajectory of its black holes
+public class CachedResult {
+    // The merged variable is used to know whether the black holes merged before the maximum number of steps
+    private final boolean merged;
+
+    // The mergeTime and peakFrequency variables are used to store the simulated time of the merge, or of the last step, and the highest gravitational wave frequency
+    private final double mergeTime;
+    private final double peakFrequency;
+
+    // The steps and wallTime variables are used to store the number of steps done and how long the simulation took in nanoseconds
+    private final long steps;
+    private final long wallTime;
+
+    // The trajectory variable is used to store the positions of the black holes after every step, x then y of every black hole, or null if it wasn't recorded
+    private final float[] trajectory;
+
+    // The CachedResult constructor is used to create a new result
+    public CachedResult(final boolean merged, final double mergeTime, final double peakFrequency, final long steps, final long wallTime, final float[] trajectory) {
+        // Assign the parameters to the global variables
+        this.merged = merged;
+        this.mergeTime = mergeTime;
+        this.peakFrequency = peakFrequency;
+        this.steps = steps;
+        this.wallTime = wallTime;
+        this.trajectory = trajectory;
+    }
+
+    // The isMerged method is used to know whether the black holes merged before the maximum number of steps
+    public boolean isMerged() {
+        // Return whether they merged
+        return this.merged;
+    }
+
+    // The getMergeTime, getPeakFrequency, getSteps and getWallTime methods are used to get the outcome of the simulation
+    public double getMergeTime() {
+        // Return the simulated time of the merge
+        return this.mergeTime;
+    }
+
+    public double getPeakFrequency() {
+        // Return the highest gravitational wave frequency
+        return this.peakFrequency;
+    }
+
+    public long getSteps() {
+        // Return the number of steps
+        return this.steps;
+    }
+
+    public long getWallTime() {
+        // Return how long the simulation took in nanoseconds
+        return this.wallTime;
+    }
+
+    // The getTrajectory method is used to get the positions of the black holes after every step, x then y of every black hole, or null if it wasn't recorded
+    public float[] getTrajectory() {
+        // Return the trajectory
+        return this.trajectory;
+    }
+}
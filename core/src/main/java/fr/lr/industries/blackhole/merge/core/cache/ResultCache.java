@@ -0,0 +1,359 @@
+package fr.lr.industries.blackhole.merge.core.cache;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.waves.ChannelWriter;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// The ResultCache class is used to keep the results of simulations on the disk, so a simulation already done is never done again, even by another run of the program
+// Every result is a file of the directory named by its key, written to a temporary file then moved in place, so a result is never seen half written, by another thread or another program
+// The index file lists the keys from the least to the most recently used with the size of their file, it is loaded in a map, so a key is found without reading the directory
+// When the files get bigger than the maximum size, the least recently used ones are deleted, and a result written by another program is found even if it isn't in the index yet
+// Every method can be called by several threads at once, the files are read and written outside of the lock so the threads only wait for each other to update the map
+public class ResultCache implements AutoCloseable {
+    // The DEFAULT_MAX_SIZE constant is used to set the default maximum size of the files of the results in bytes
+    public static final long DEFAULT_MAX_SIZE = 256L << 20;
+
+    // The INDEX_FILE and ENTRY_EXTENSION constants are used to set the name of the index file and the extension of the files of the results
+    private static final String INDEX_FILE = "index.bin";
+    private static final String ENTRY_EXTENSION = ".result";
+
+    // The INDEX_MAGIC, ENTRY_MAGIC and VERSION constants are used to recognize the files of the cache, "BHRI" and "BHRE" and the version of their format
+    private static final int INDEX_MAGIC = 0x49524842;
+    private static final int ENTRY_MAGIC = 0x45524842;
+    private static final int VERSION = 1;
+
+    // The ENTRY_HEADER_SIZE constant is used to set the size of a file of a result without its trajectory
+    private static final int ENTRY_HEADER_SIZE = 2 * Integer.BYTES + CacheKey.HASH_SIZE + Integer.BYTES + 2 * Double.BYTES + 2 * Long.BYTES + Integer.BYTES;
+
+    // The directory and maxSize variables are used to store the directory of the files and their maximum size
+    private final Path directory;
+    private final long maxSize;
+
+    // The recordingTrajectories variable is used to know whether the simulations should record the trajectories of the black holes with their results
+    private final boolean recordingTrajectories;
+
+    // The entries variable is used to store the size of the file of every result, from the least to the most recently used
+    private final LinkedHashMap<CacheKey, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    // The size variable is used to store the size of every file of the results
+    private long size = 0;
+
+    // The hits, misses and evictions variables are used to count the results found, the ones not found and the ones deleted
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    // The ResultCache constructor is used to open the cache of the given directory with the default maximum size, without the trajectories
+    public ResultCache(final Path directory) throws IOException {
+        // Open the cache with the default maximum size
+        this(directory, DEFAULT_MAX_SIZE, false);
+    }
+
+    // The ResultCache constructor is used to open the cache of the given directory, it is created if it doesn't exist
+    public ResultCache(final Path directory, final long maxSize, final boolean recordingTrajectories) throws IOException {
+        // Check that the results have room
+        if (maxSize <= 0) throw new IllegalArgumentException("The maximum size of the cache must be positive, got " + maxSize);
+
+        // Assign the parameters to the global variables
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.recordingTrajectories = recordingTrajectories;
+
+        // Create the directory, and load the index, or list the files if there is no valid index
+        Files.createDirectories(directory);
+        if (!this.loadIndex()) this.scanDirectory();
+        synchronized (this) {
+            this.evict();
+        }
+    }
+
+    // The get method is used to get the result of the given key, or null if it isn't in the cache, or if it has no trajectory and the trajectories are recorded
+    public CachedResult get(final CacheKey key) {
+        // Mark the result as the most recently used if it is in the index
+        final boolean indexed;
+        synchronized (this) {
+            indexed = this.entries.get(key) != null;
+        }
+
+        // Read the file of the result, another program may have written it even if it isn't in the index
+        final Path path = this.getPath(key);
+        CachedResult result = null;
+        long fileSize = 0;
+        boolean missing = false;
+        try {
+            final byte[] bytes = Files.readAllBytes(path);
+            fileSize = bytes.length;
+            result = readEntry(key, bytes);
+        } catch (final NoSuchFileException exception) {
+            // The result was never written, or it was deleted
+            missing = true;
+        } catch (final IOException exception) {
+            System.err.println("Could not read the cached result " + path + ": " + exception.getMessage());
+        }
+        if (result != null && this.recordingTrajectories && result.getTrajectory() == null) result = null;
+
+        // Count the hit or the miss, and update the index with what was found
+        synchronized (this) {
+            if (result != null) {
+                this.hits++;
+                if (!indexed) this.add(key, fileSize);
+            } else {
+                this.misses++;
+                if (indexed && missing) this.remove(key);
+            }
+        }
+        // Return the result
+        return result;
+    }
+
+    // The put method is used to store the result of the given key, replacing the previous one, the least recently used results are deleted if the cache gets too big
+    // A result that can't be written is only reported, the simulation it comes from is still valid
+    public void put(final CacheKey key, final CachedResult result) {
+        // Write the result to a temporary file, then move it in place
+        final Path path = this.getPath(key);
+        try {
+            final Path temporaryPath = Files.createTempFile(this.directory, key.toHex(), ".tmp");
+            try {
+                try (final ChannelWriter writer = new ChannelWriter(temporaryPath)) {
+                    writeEntry(writer, key, result);
+                }
+                move(temporaryPath, path);
+            } finally {
+                Files.deleteIfExists(temporaryPath);
+            }
+
+            // Add the result to the index and delete the least recently used ones if the cache is too big
+            final long fileSize = ENTRY_HEADER_SIZE + (result.getTrajectory() == null ? 0L : (long) result.getTrajectory().length * Float.BYTES);
+            synchronized (this) {
+                this.add(key, fileSize);
+                this.evict();
+            }
+        } catch (final IOException exception) {
+            System.err.println("Could not write the cached result " + path + ": " + exception.getMessage());
+        }
+    }
+
+    // The add method is used to add a result to the index, or update its size, it is the most recently used
+    private void add(final CacheKey key, final long fileSize) {
+        // Replace the size of the result
+        final Long previousSize = this.entries.put(key, fileSize);
+        this.size += fileSize - (previousSize == null ? 0 : previousSize);
+    }
+
+    // The remove method is used to remove a result from the index
+    private void remove(final CacheKey key) {
+        // Forget the size of the result
+        final Long previousSize = this.entries.remove(key);
+        if (previousSize != null) this.size -= previousSize;
+    }
+
+    // The evict method is used to delete the least recently used results until the cache is small enough, the most recent one is always kept
+    private void evict() {
+        // Delete the results from the least recently used one
+        final Iterator<Map.Entry<CacheKey, Long>> iterator = this.entries.entrySet().iterator();
+        while (this.size > this.maxSize && this.entries.size() > 1) {
+            final Map.Entry<CacheKey, Long> entry = iterator.next();
+            try {
+                Files.deleteIfExists(this.getPath(entry.getKey()));
+            } catch (final IOException exception) {
+                System.err.println("Could not delete the cached result " + this.getPath(entry.getKey()) + ": " + exception.getMessage());
+            }
+            this.size -= entry.getValue();
+            iterator.remove();
+            this.evictions++;
+        }
+    }
+
+    // The writeEntry method is used to write the file of a result: its key, its outcome and its trajectory
+    private static void writeEntry(final ChannelWriter writer, final CacheKey key, final CachedResult result) throws IOException {
+        // Write the format and the key, so a file renamed by mistake is never read as another result
+        writer.putInt(ENTRY_MAGIC);
+        writer.putInt(VERSION);
+        final byte[] hash = key.getHash();
+        writer.putBytes(hash, 0, hash.length);
+
+        // Write the outcome
+        writer.putInt(result.isMerged() ? 1 : 0);
+        writer.putDouble(result.getMergeTime());
+        writer.putDouble(result.getPeakFrequency());
+        writer.putLong(result.getSteps());
+        writer.putLong(result.getWallTime());
+
+        // Write the trajectory, -1 if there is none
+        final float[] trajectory = result.getTrajectory();
+        writer.putInt(trajectory == null ? -1 : trajectory.length);
+        if (trajectory != null) for (final float value : trajectory) writer.putFloat(value);
+    }
+
+    // The readEntry method is used to read the file of a result, or return null if it isn't the result of the key
+    private static CachedResult readEntry(final CacheKey key, final byte[] bytes) {
+        // Check the size, the format and the key
+        if (bytes.length < ENTRY_HEADER_SIZE) return null;
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.getInt() != ENTRY_MAGIC || buffer.getInt() != VERSION) return null;
+        final byte[] hash = new byte[CacheKey.HASH_SIZE];
+        buffer.get(hash);
+        if (!Arrays.equals(hash, key.getHash())) return null;
+
+        // Read the outcome
+        final boolean merged = buffer.getInt() == 1;
+        final double mergeTime = buffer.getDouble(), peakFrequency = buffer.getDouble();
+        final long steps = buffer.getLong(), wallTime = buffer.getLong();
+
+        // Read the trajectory if there is one and it is complete
+        final int trajectoryLength = buffer.getInt();
+        if (trajectoryLength > buffer.remaining() / Float.BYTES) return null;
+        float[] trajectory = null;
+        if (trajectoryLength >= 0) {
+            trajectory = new float[trajectoryLength];
+            buffer.asFloatBuffer().get(trajectory);
+        }
+
+        // Return the result
+        return new CachedResult(merged, mergeTime, peakFrequency, steps, wallTime, trajectory);
+    }
+
+    // The loadIndex method is used to read the index file, it returns false if there is none or if it isn't valid
+    private boolean loadIndex() {
+        try {
+            // Check the format of the index and that it has every entry it says it has
+            final ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(this.directory.resolve(INDEX_FILE))).order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.remaining() < 3 * Integer.BYTES || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != VERSION) return false;
+            final int count = buffer.getInt();
+            if (count < 0 || buffer.remaining() != (long) count * (CacheKey.HASH_SIZE + Long.BYTES)) return false;
+
+            // Read every key and the size of its file, from the least to the most recently used
+            final byte[] hash = new byte[CacheKey.HASH_SIZE];
+            for (int i = 0; i < count; i++) {
+                buffer.get(hash);
+                this.add(new CacheKey(hash), buffer.getLong());
+            }
+            return true;
+        } catch (final IOException exception) {
+            // There is no index, or it can't be read
+            return false;
+        }
+    }
+
+    // The scanDirectory method is used to find every result of the directory when there is no index, the oldest files being the least recently used
+    private void scanDirectory() throws IOException {
+        // List the files of the results
+        final List<Path> paths = new ArrayList<>();
+        try (final DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, "*" + ENTRY_EXTENSION)) {
+            for (final Path path : stream) paths.add(path);
+        }
+
+        // Sort them from the oldest to the newest and add them to the index
+        paths.sort(Comparator.comparing(ResultCache::getLastModifiedTime));
+        for (final Path path : paths) {
+            final String name = path.getFileName().toString();
+            final CacheKey key = CacheKey.fromHex(name.substring(0, name.length() - ENTRY_EXTENSION.length()));
+            if (key != null) this.add(key, Files.size(path));
+        }
+    }
+
+    // The getLastModifiedTime method is used to get when a file was last written, the oldest time if it can't be read
+    private static FileTime getLastModifiedTime(final Path path) {
+        try {
+            // Return the time the file was last written
+            return Files.getLastModifiedTime(path);
+        } catch (final IOException exception) {
+            // The file is the oldest one
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    // The saveIndex method is used to write the index file, from the least to the most recently used result
+    public synchronized void saveIndex() throws IOException {
+        // Write the index to a temporary file, then move it in place
+        final Path temporaryPath = Files.createTempFile(this.directory, INDEX_FILE, ".tmp");
+        try {
+            try (final ChannelWriter writer = new ChannelWriter(temporaryPath)) {
+                writer.putInt(INDEX_MAGIC);
+                writer.putInt(VERSION);
+                writer.putInt(this.entries.size());
+                for (final Map.Entry<CacheKey, Long> entry : this.entries.entrySet()) {
+                    final byte[] hash = entry.getKey().getHash();
+                    writer.putBytes(hash, 0, hash.length);
+                    writer.putLong(entry.getValue());
+                }
+            }
+            move(temporaryPath, this.directory.resolve(INDEX_FILE));
+        } finally {
+            Files.deleteIfExists(temporaryPath);
+        }
+    }
+
+    // The move method is used to replace a file by another one at once, or as close to it as the file system allows
+    private static void move(final Path source, final Path target) throws IOException {
+        try {
+            // Move the file at once
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final AtomicMoveNotSupportedException exception) {
+            // Move the file the usual way
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // The getPath method is used to get the path of the file of the result of a key
+    private Path getPath(final CacheKey key) {
+        // Return the file named by the key
+        return this.directory.resolve(key.toHex() + ENTRY_EXTENSION);
+    }
+
+    // The isRecordingTrajectories method is used to know whether the simulations should record the trajectories of the black holes with their results
+    public boolean isRecordingTrajectories() {
+        // Return whether the trajectories are recorded
+        return this.recordingTrajectories;
+    }
+
+    // The getHits, getMisses and getEvictions methods are used to count the results found, the ones not found and the ones deleted
+    public synchronized long getHits() {
+        // Return the number of results found
+        return this.hits;
+    }
+
+    public synchronized long getMisses() {
+        // Return the number of results not found
+        return this.misses;
+    }
+
+    public synchronized long getEvictions() {
+        // Return the number of results deleted
+        return this.evictions;
+    }
+
+    // The getSize and getCount methods are used to get the size of the files of the results and their number
+    public synchronized long getSize() {
+        // Return the size of the files
+        return this.size;
+    }
+
+    public synchronized int getCount() {
+        // Return the number of results
+        return this.entries.size();
+    }
+
+    // The close method is used to save the index, the cache can still be used after it
+    @Override
+    public void close() throws IOException {
+        // Save the index
+        this.saveIndex();
+    }
+}
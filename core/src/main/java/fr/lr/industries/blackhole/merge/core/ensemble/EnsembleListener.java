@@ -0,0 +1,8 @@
+package fr.lr.industries.blackhole.merge.core.ensemble;
+
+// The EnsembleListener interface is used to be told how far an ensemble is while it runs
+@FunctionalInterface
+public interface EnsembleListener {
+    // The onProgress method is called by the thread that started the ensemble at a regular interval, and once more when every run is done
+    void onProgress(EnsembleRunner runner, long completedRuns, long totalRuns, double seconds);
+}
@@ -0,0 +1,156 @@
+package fr.lr.industries.blackhole.merge.core.ensemble;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// The EnsembleRunner class is used to run the default binary many times without any display, with its positions and velocities randomly perturbed, to see how much the merge depends on them
+// Every run is a task taken by one of a fixed number of threads, each thread reuses its own simulation state and stepper for all of its runs, so a run allocates almost nothing
+// The merge times and the peak gravitational wave frequencies go into histograms of a fixed size, so any number of runs is summarized with the same memory
+// The perturbation of a run only depends on the seed and on the index of the run, so an ensemble gives the same results with any number of threads
+public class EnsembleRunner {
+    // The DEFAULT_POSITION_DEVIATION and DEFAULT_VELOCITY_DEVIATION constants are used to set the default standard deviation of the perturbation of the positions and velocities, on each axis
+    public static final double DEFAULT_POSITION_DEVIATION = 5.0;
+    public static final double DEFAULT_VELOCITY_DEVIATION = 0.1;
+
+    // The DEFAULT_MAX_STEPS constant is used to stop the runs that never merge
+    public static final long DEFAULT_MAX_STEPS = 50_000L;
+
+    // The HISTOGRAM_MINIMUM, HISTOGRAM_MAXIMUM and HISTOGRAM_BINS_PER_DECADE constants are used to set the range and the resolution of the histograms, a quantile is known within about 1%
+    private static final double HISTOGRAM_MINIMUM = 1.0e-3;
+    private static final double HISTOGRAM_MAXIMUM = 1.0e9;
+    private static final int HISTOGRAM_BINS_PER_DECADE = 200;
+
+    // The SEED_STEP constant is used to spread the seeds of the runs, the golden ratio of 2^64
+    private static final long SEED_STEP = 0x9E3779B97F4A7C15L;
+
+    // The positionDeviation, velocityDeviation, maxSteps and seed variables are used to store how the runs are perturbed and stopped
+    private final double positionDeviation;
+    private final double velocityDeviation;
+    private final long maxSteps;
+    private final long seed;
+
+    // The mergeTimes and peakFrequencies variables are used to store the histograms of the simulated time of the merges and of the highest gravitational wave frequency of the runs that merged
+    private final StreamingHistogram mergeTimes = new StreamingHistogram(HISTOGRAM_MINIMUM, HISTOGRAM_MAXIMUM, HISTOGRAM_BINS_PER_DECADE);
+    private final StreamingHistogram peakFrequencies = new StreamingHistogram(HISTOGRAM_MINIMUM, HISTOGRAM_MAXIMUM, HISTOGRAM_BINS_PER_DECADE);
+
+    // The completedRuns, mergedRuns and steps variables are used to count the runs done, the ones that merged and the steps done
+    private final LongAdder completedRuns = new LongAdder();
+    private final LongAdder mergedRuns = new LongAdder();
+    private final LongAdder steps = new LongAdder();
+
+    // The nextRun variable is used to store the index of the next run to take
+    private final AtomicLong nextRun = new AtomicLong();
+
+    // The EnsembleRunner constructor is used to create a new ensemble with the given deviations of the perturbation, maximum number of steps of a run and seed
+    public EnsembleRunner(final double positionDeviation, final double velocityDeviation, final long maxSteps, final long seed) {
+        // Check that the runs can step
+        if (maxSteps < 1) throw new IllegalArgumentException("The maximum number of steps must be positive, got " + maxSteps);
+
+        // Assign the parameters to the global variables
+        this.positionDeviation = positionDeviation;
+        this.velocityDeviation = velocityDeviation;
+        this.maxSteps = maxSteps;
+        this.seed = seed;
+    }
+
+    // The run method is used to do the given number of runs with the given number of threads, the listener is told how far they are at the given interval from the calling thread
+    public void run(final long runs, final int threadCount, final long intervalMillis, final EnsembleListener listener) throws InterruptedException {
+        // Start the threads, each one takes runs until there are none left
+        final long start = System.nanoTime();
+        this.nextRun.set(0);
+        final Thread[] threads = new Thread[Math.max(1, threadCount)];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> this.work(runs), "ensemble-" + i);
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        // Tell the listener how far the runs are until every thread is done, then once more for the end
+        for (final Thread thread : threads) {
+            while (thread.isAlive()) {
+                thread.join(Math.max(1, intervalMillis));
+                if (thread.isAlive()) listener.onProgress(this, this.completedRuns.sum(), runs, (System.nanoTime() - start) / 1.0e9);
+            }
+        }
+        listener.onProgress(this, this.completedRuns.sum(), runs, (System.nanoTime() - start) / 1.0e9);
+    }
+
+    // The work method is used by a thread to take runs until there are none left, reusing the same simulation state and stepper
+    private void work(final long runs) {
+        // Create the state and the stepper of the thread
+        final SimulationState state = SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT);
+        final SimulationStepper stepper = new SimulationStepper(state);
+
+        // Take the next run until every run is taken
+        for (long index = this.nextRun.getAndIncrement(); index < runs; index = this.nextRun.getAndIncrement()) this.runSingle(index, state, stepper);
+    }
+
+    // The runSingle method is used to do the run of the given index with the given state and stepper, and add its result to the histograms
+    private void runSingle(final long index, final SimulationState state, final SimulationStepper stepper) {
+        // Put the default binary back and forget the strain of the previous run
+        state.resetToDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT, SimulationDefaults.DEFAULT_BLACK_HOLE_MASS, SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS, SimulationDefaults.DEFAULT_BLACK_HOLE_MASS, SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS);
+        stepper.getStrainGenerator().clear();
+
+        // Perturb the position and the velocity of both black holes, from a generator only seeded by the index of the run
+        final SplittableRandom random = new SplittableRandom(this.seed + index * SEED_STEP);
+        final BlackHoleStore blackHoles = state.getBlackHoles();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy();
+        for (int i = 0; i < blackHoles.getCount(); i++) {
+            x[i] += random.nextGaussian() * this.positionDeviation;
+            y[i] += random.nextGaussian() * this.positionDeviation;
+            vx[i] += random.nextGaussian() * this.velocityDeviation;
+            vy[i] += random.nextGaussian() * this.velocityDeviation;
+        }
+        blackHoles.setAccelerationsValid(false);
+
+        // Step the binary until it merges, keeping the highest gravitational wave frequency
+        double peakFrequency = 0;
+        long steps = 0;
+        while (steps < this.maxSteps && stepper.step()) {
+            peakFrequency = Math.max(peakFrequency, state.getGravitationalWaveFrequency());
+            steps++;
+        }
+
+        // Count the run, and add it to the histograms if it merged
+        if (state.isFinished()) {
+            this.mergeTimes.add(state.getTimeElapsed());
+            this.peakFrequencies.add(peakFrequency);
+            this.mergedRuns.increment();
+        }
+        this.steps.add(state.getSteps());
+        this.completedRuns.increment();
+    }
+
+    // The getMergeTimes and getPeakFrequencies methods are used to get the histograms of the simulated time of the merges and of the highest gravitational wave frequency of the runs that merged
+    public StreamingHistogram getMergeTimes() {
+        // Return the histogram of the merge times
+        return this.mergeTimes;
+    }
+
+    public StreamingHistogram getPeakFrequencies() {
+        // Return the histogram of the peak frequencies
+        return this.peakFrequencies;
+    }
+
+    // The getCompletedRuns, getMergedRuns and getSteps methods are used to count the runs done, the ones that merged and the steps done
+    public long getCompletedRuns() {
+        // Return the number of runs done
+        return this.completedRuns.sum();
+    }
+
+    public long getMergedRuns() {
+        // Return the number of runs that merged
+        return this.mergedRuns.sum();
+    }
+
+    public long getSteps() {
+        // Return the number of steps done
+        return this.steps.sum();
+    }
+}
@@ -0,0 +1,45 @@
+package fr.lr.industries.blackhole.merge.core.ensemble;
+
+// The HeadlessEnsemble class is used to run an ensemble of perturbed default binaries without any display, printing how far it is every second and the quantiles of its merges at the end
+// Usage: HeadlessEnsemble [runs] [position deviation] [velocity deviation] [maximum steps] [threads] [seed]
+public class HeadlessEnsemble {
+    // The DEFAULT_RUNS constant is used to set the default number of runs
+    public static final long DEFAULT_RUNS = 1_000L;
+
+    // The PROGRESS_INTERVAL constant is used to set how often the progress is printed in milliseconds
+    public static final long PROGRESS_INTERVAL = 1_000L;
+
+    // The QUANTILES constant is used to set the quantiles printed at the end
+    private static final double[] QUANTILES = {0.01, 0.05, 0.25, 0.5, 0.75, 0.95, 0.99};
+
+    // The main method is used to run the ensemble and print its progress and its summary
+    public static void main(final String[] args) throws InterruptedException {
+        // Get the number of runs and how they are perturbed from the arguments
+        final long runs = args.length > 0 ? (long) Double.parseDouble(args[0]) : DEFAULT_RUNS;
+        final double positionDeviation = args.length > 1 ? Double.parseDouble(args[1]) : EnsembleRunner.DEFAULT_POSITION_DEVIATION;
+        final double velocityDeviation = args.length > 2 ? Double.parseDouble(args[2]) : EnsembleRunner.DEFAULT_VELOCITY_DEVIATION;
+        // Get the maximum number of steps of a run, the number of threads and the seed from the arguments
+        final long maxSteps = args.length > 3 ? Long.parseLong(args[3]) : EnsembleRunner.DEFAULT_MAX_STEPS;
+        final int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        final long seed = args.length > 5 ? Long.parseLong(args[5]) : 44L;
+
+        // Run the ensemble, printing how far it is and how fast it goes
+        final EnsembleRunner runner = new EnsembleRunner(positionDeviation, velocityDeviation, maxSteps, seed);
+        runner.run(runs, threads, PROGRESS_INTERVAL, (ensemble, completedRuns, totalRuns, seconds) -> System.out.println(
+                completedRuns + "/" + totalRuns + " runs (" + String.format("%.1f", 100.0 * completedRuns / totalRuns) + "%) in " + String.format("%.1f", seconds) + "s, "
+                        + String.format("%.0f", completedRuns / seconds) + " runs/s, " + String.format("%.2e", ensemble.getSteps() / seconds) + " steps/s, median merge time " + String.format("%.2f", ensemble.getMergeTimes().getQuantile(0.5))));
+
+        // Print how many runs merged and the quantiles of their merge times and peak frequencies
+        System.out.println(runner.getMergedRuns() + " of " + runner.getCompletedRuns() + " runs merged within " + maxSteps + " steps, with " + threads + " threads");
+        printHistogram("Merge time", runner.getMergeTimes());
+        printHistogram("Peak frequency", runner.getPeakFrequencies());
+    }
+
+    // The printHistogram method is used to print the mean, the extremes and the quantiles of a histogram
+    private static void printHistogram(final String name, final StreamingHistogram histogram) {
+        // Print the mean and the extremes, then every quantile
+        final StringBuilder line = new StringBuilder(name + ": mean " + String.format("%.3f", histogram.getMean()) + ", min " + String.format("%.3f", histogram.getMinimum()) + ", max " + String.format("%.3f", histogram.getMaximum()));
+        for (final double quantile : QUANTILES) line.append(", p").append(String.format("%.0f", quantile * 100)).append(" ").append(String.format("%.3f", histogram.getQuantile(quantile)));
+        System.out.println(line);
+    }
+}
@@ -0,0 +1,111 @@
+package fr.lr.industries.blackhole.merge.core.ensemble;
+
+// Import the required classes and packages
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAccumulator;
+import java.util.concurrent.atomic.DoubleAdder;
+
+// The StreamingHistogram class is used to summarize any number of positive values with the same memory: their count, mean, extremes and quantiles
+// The values are counted in bins evenly spaced on a log scale, so a quantile is known within the relative width of a bin whatever the magnitude of the values
+// Every method can be called by several threads at once, and the summary can be read while values are still being added
+public class StreamingHistogram {
+    // The minimum and maximum variables are used to store the range of the bins, the values outside of it are counted in the first or the last bin
+    private final double minimum;
+    private final double maximum;
+
+    // The binsPerDecade variable is used to store the number of bins for every power of 10
+    private final int binsPerDecade;
+
+    // The counts variable is used to store the number of values of every bin
+    private final AtomicLongArray counts;
+
+    // The sum, smallest and largest variables are used to store the sum of the values and their extremes
+    private final DoubleAdder sum = new DoubleAdder();
+    private final DoubleAccumulator smallest = new DoubleAccumulator(Math::min, Double.POSITIVE_INFINITY);
+    private final DoubleAccumulator largest = new DoubleAccumulator(Math::max, Double.NEGATIVE_INFINITY);
+
+    // The StreamingHistogram constructor is used to create a new histogram of bins between a minimum and a maximum, with the given number of bins for every power of 10
+    public StreamingHistogram(final double minimum, final double maximum, final int binsPerDecade) {
+        // Check that the range makes sense on a log scale
+        if (!(minimum > 0 && maximum > minimum)) throw new IllegalArgumentException("The range of the histogram must be positive and not empty, got " + minimum + " to " + maximum);
+        if (binsPerDecade < 1) throw new IllegalArgumentException("The histogram must have at least a bin for every power of 10, got " + binsPerDecade);
+
+        // Assign the parameters to the global variables and create the bins
+        this.minimum = minimum;
+        this.maximum = maximum;
+        this.binsPerDecade = binsPerDecade;
+        this.counts = new AtomicLongArray((int) Math.ceil(Math.log10(maximum / minimum) * binsPerDecade));
+    }
+
+    // The add method is used to add a value to the histogram
+    public void add(final double value) {
+        // Count the value in its bin, and add it to the sum and the extremes
+        this.counts.incrementAndGet(this.getBin(value));
+        this.sum.add(value);
+        this.smallest.accumulate(value);
+        this.largest.accumulate(value);
+    }
+
+    // The getBin method is used to get the bin of a value, the values outside of the range are in the first or the last bin
+    private int getBin(final double value) {
+        // Return the bin of the value, clamped to the bins
+        if (!(value > this.minimum)) return 0;
+        return (int) Math.min(this.counts.length() - 1, Math.floor(Math.log10(value / this.minimum) * this.binsPerDecade));
+    }
+
+    // The getQuantile method is used to get the value below which the given fraction of the values are, for example 0.5 for the median, NaN if there is no value yet
+    public double getQuantile(final double quantile) {
+        // Get the number of values below the quantile
+        final long count = this.getCount();
+        if (count == 0) return Double.NaN;
+        final double rank = Math.min(Math.max(quantile, 0), 1) * count;
+
+        // Find the bin of the quantile, and the position of the quantile in it
+        long below = 0;
+        for (int bin = 0; bin < this.counts.length(); bin++) {
+            final long binCount = this.counts.get(bin);
+            if (binCount == 0 || below + binCount < rank) {
+                below += binCount;
+                continue;
+            }
+
+            // Interpolate inside the bin on the log scale, never outside of the values seen
+            final double position = (bin + (rank - below) / binCount) / this.binsPerDecade;
+            return Math.min(Math.max(this.minimum * Math.pow(10, position), this.getMinimum()), this.getMaximum());
+        }
+        // The counts changed while they were read, the largest value is the best answer
+        return this.getMaximum();
+    }
+
+    // The getCount method is used to get the number of values added
+    public long getCount() {
+        // Sum the counts of every bin
+        long count = 0;
+        for (int bin = 0; bin < this.counts.length(); bin++) count += this.counts.get(bin);
+        return count;
+    }
+
+    // The getMean method is used to get the mean of the values, NaN if there is no value yet
+    public double getMean() {
+        // Return the sum divided by the number of values
+        final long count = this.getCount();
+        return count == 0 ? Double.NaN : this.sum.sum() / count;
+    }
+
+    // The getMinimum and getMaximum methods are used to get the smallest and the largest value, infinite if there is no value yet
+    public double getMinimum() {
+        // Return the smallest value
+        return this.smallest.get();
+    }
+
+    public double getMaximum() {
+        // Return the largest value
+        return this.largest.get();
+    }
+
+    // The getBinCount method is used to get the number of bins of the histogram, its memory never changes
+    public int getBinCount() {
+        // Return the number of bins
+        return this.counts.length();
+    }
+}
@@ -0,0 +1,139 @@
+package fr.lr.industries.blackhole.merge.core.grid;
+
+// The FrameBudgetGovernor class is used to choose the quality of the grid from the time the grid takes to be drawn, so every frame stays inside a time budget
+// The qualities are sorted into levels, from the coarsest to the finest, and the governor moves one level at a time
+// It moves to a coarser level quickly when the frames are over the budget, and to a finer level slowly, only when the finer level is expected to fit the budget
+// After every change, it waits for a few frames, as the first frame of a level draws every tile of the grid
+// The grid only draws the tiles whose field changed, so the time of a frame is scaled to the time of a frame drawing every tile, the budget is kept by the frames that draw everything, like the first one after a resize
+// A frame drawing part of the grid moves the average as much as the part it draws, and a frame drawing nothing only counts as a frame
+public class FrameBudgetGovernor {
+    // The SMOOTHING constant is used to set the weight of the last frame in the average frame time
+    private static final double SMOOTHING = 0.1;
+
+    // The COARSER_FRAMES and FINER_FRAMES constants are used to set how many frames in a row must be over or well under the budget before the level changes
+    private static final int COARSER_FRAMES = 10;
+    private static final int FINER_FRAMES = 60;
+
+    // The FINER_HEADROOM constant is used to set the part of the budget the finer level must be expected to fit in, so the governor doesn't go back and forth between two levels
+    private static final double FINER_HEADROOM = 0.7;
+
+    // The COOLDOWN_FRAMES constant is used to set how many frames are ignored after a change of level
+    private static final int COOLDOWN_FRAMES = 30;
+
+    // The qualities variable is used to store the quality of every level, from the coarsest to the finest
+    private final double[] qualities;
+
+    // The budget variable is used to store the time in nanoseconds the grid can take to be drawn
+    private final long budget;
+
+    // The level variable is used to store the index of the current quality
+    private int level;
+
+    // The averageFrameTime variable is used to store the smoothed time in nanoseconds taken to draw every tile of the grid, it is negative until a frame drawing something is recorded
+    private double averageFrameTime = -1;
+
+    // The overBudgetFrames, underBudgetFrames and cooldownFrames variables are used to count the frames since the average frame time is over the budget, since the finer level fits the budget, and until the frames count again
+    private int overBudgetFrames = 0;
+    private int underBudgetFrames = 0;
+    private int cooldownFrames = 0;
+
+    // The FrameBudgetGovernor constructor is used to create a new governor from the qualities of the levels, sorted from the coarsest (largest step) to the finest, the time budget in nanoseconds and the first quality
+    public FrameBudgetGovernor(final double[] qualities, final long budget, final double quality) {
+        // Check that the governor has something to choose from
+        if (qualities.length == 0) throw new IllegalArgumentException("The governor needs at least one quality");
+        if (budget <= 0) throw new IllegalArgumentException("The time budget must be positive, got " + budget);
+
+        // Assign the parameters to the global variables
+        this.qualities = qualities.clone();
+        this.budget = budget;
+
+        // Start from the level of the closest quality to the first one
+        int level = 0;
+        for (int i = 1; i < this.qualities.length; i++) if (Math.abs(this.qualities[i] - quality) < Math.abs(this.qualities[level] - quality)) level = i;
+        this.level = level;
+    }
+
+    // The record method is used to record the time in nanoseconds taken to draw every tile of the grid for a frame, it returns true if the level changed, the new quality must then be used for the next frame
+    public boolean record(final long frameTime) {
+        // Record a frame drawing the whole grid
+        return this.record(frameTime, 1);
+    }
+
+    // The record method is used to record the time in nanoseconds taken to draw the grid for a frame and the part of the grid it drew, from 0 if nothing changed to 1 if every tile was drawn
+    // It returns true if the level changed, the new quality must then be used for the next frame
+    public boolean record(final long frameTime, final double drawnFraction) {
+        // Ignore the frames right after a change of level
+        if (this.cooldownFrames > 0) {
+            this.cooldownFrames--;
+            return false;
+        }
+
+        // Scale the frame time to the time of the whole grid, and smooth it by as much as the part of the grid drawn, so a frame drawing a few tiles neither hides nor fakes the cost of the whole grid
+        // A frame drawing nothing leaves the average as it is, but still counts for the frames in a row below
+        if (drawnFraction > 0) {
+            final double fraction = Math.min(drawnFraction, 1);
+            final double fullFrameTime = frameTime / fraction;
+            this.averageFrameTime = this.averageFrameTime < 0 ? fullFrameTime : this.averageFrameTime + SMOOTHING * fraction * (fullFrameTime - this.averageFrameTime);
+        }
+
+        // Nothing to compare to the budget until a frame drew something
+        if (this.averageFrameTime < 0) return false;
+
+        // Move to a coarser level if the frames stay over the budget
+        this.overBudgetFrames = this.averageFrameTime > this.budget ? this.overBudgetFrames + 1 : 0;
+        if (this.overBudgetFrames >= COARSER_FRAMES && this.level > 0) return this.setLevel(this.level - 1);
+
+        // Move to a finer level if it is expected to fit the budget with some room left, the time grows as the number of points, which is about the inverse of the quality
+        final boolean finerFits = this.level < this.qualities.length - 1 && this.averageFrameTime * this.qualities[this.level] / this.qualities[this.level + 1] < this.budget * FINER_HEADROOM;
+        this.underBudgetFrames = finerFits ? this.underBudgetFrames + 1 : 0;
+        if (this.underBudgetFrames >= FINER_FRAMES) return this.setLevel(this.level + 1);
+
+        // The level didn't change
+        return false;
+    }
+
+    // The setLevel method is used to change the level, the average frame time is scaled to the expected time of the new level, it returns true
+    private boolean setLevel(final int level) {
+        // Scale the average frame time to the number of points of the new level
+        this.averageFrameTime *= this.qualities[this.level] / this.qualities[level];
+        this.level = level;
+
+        // Start counting the frames again after the cooldown
+        this.overBudgetFrames = 0;
+        this.underBudgetFrames = 0;
+        this.cooldownFrames = COOLDOWN_FRAMES;
+
+        // The level changed
+        return true;
+    }
+
+    // The getLevel method is used to get the index of the current level, 0 being the coarsest
+    public int getLevel() {
+        // Return the level
+        return this.level;
+    }
+
+    // The getLevelCount method is used to get the number of levels
+    public int getLevelCount() {
+        // Return the number of qualities
+        return this.qualities.length;
+    }
+
+    // The getQuality method is used to get the quality of the current level
+    public double getQuality() {
+        // Return the quality of the level
+        return this.qualities[this.level];
+    }
+
+    // The getAverageFrameTime method is used to get the smoothed time in nanoseconds taken to draw every tile of the grid, 0 if no frame drawing something has been recorded
+    public double getAverageFrameTime() {
+        // Return the average frame time
+        return Math.max(0, this.averageFrameTime);
+    }
+
+    // The getBudget method is used to get the time in nanoseconds the grid can take to be drawn
+    public long getBudget() {
+        // Return the budget
+        return this.budget;
+    }
+}
@@ -0,0 +1,32 @@
+package fr.lr.industries.blackhole.merge.core.grid;
+
+// The GridKernel interface is used to calculate how far the black holes move a row of points of the grid, each implementation is a different way to do the same math
+// For every point, the kernel sums the pull of every black hole: G * M / r^2 along the vector to the black hole, multiplied by the force multiplier of the grid
+// A point is not drawn if it is inside an event horizon, if a black hole pulls it harder than the maximum force, or if it is moved inside an event horizon
+public interface GridKernel {
+    // The VECTOR_MODULE constant is used to store the name of the module needed by the vector kernel
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    // The displace method is used to calculate the displacement of the points (x[i], y) of a row, for i from 0 to count excluded
+    // The displacements are written to gx and gy, gx is NaN for the points that must not be drawn
+    // The black holes are given by their position, G times their mass, and their squared event horizon radius
+    void displace(double[] x, int count, double y, double[] blackHoleX, double[] blackHoleY, double[] blackHoleGravity, double[] eventHorizonRadiusSquared, int blackHoleCount, double maxForce, double forceMultiplier, double[] gx, double[] gy);
+
+    // The getName method is used to get a short name of the kernel
+    String getName();
+
+    // The create method is used to create the fastest kernel available, the vector one if the jdk.incubator.vector module is there, the scalar one otherwise
+    // The scalar kernel can be forced with -Dgrid.kernel=scalar
+    static GridKernel create() {
+        // Use the scalar kernel if it is asked for or if the module of the vector kernel is missing (the JVM needs --add-modules jdk.incubator.vector)
+        if (ScalarGridKernel.NAME.equals(System.getProperty("grid.kernel")) || ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) return new ScalarGridKernel();
+
+        // The vector kernel is loaded by its name, so this interface still loads when the module is missing
+        try {
+            return (GridKernel) Class.forName("fr.lr.industries.blackhole.merge.core.grid.VectorGridKernel").getDeclaredConstructor().newInstance();
+        } catch (final ReflectiveOperationException | LinkageError exception) {
+            // The vector kernel can't be loaded on this JVM, so the scalar one is used
+            return new ScalarGridKernel();
+        }
+    }
+}
@@ -0,0 +1,734 @@
+package fr.lr.industries.blackhole.merge.core.grid;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.physics.Physics;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationSnapshot;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The GridRasterizer class is used to draw the spacetime grid bent by the black holes into an ARGB pixel buffer
+// The buffer and the palette are created once and reused for every frame, so drawing a frame doesn't create any object
+// The buffer can be pushed to the screen in a single call, instead of one call per point of the grid
+// Every point of the grid is independent, so the work of a frame is split into bands drawn in parallel by a pool of threads owned by the rasterizer
+// The buffer is split into tiles, and only the tiles whose field changed since they were last drawn are drawn again, the black holes usually only move in a small part of the buffer
+// A tile is drawn again when the field at its corners or at its center moved by more than DIRTY_THRESHOLD pixels, or when a black hole got in or out of the points that can land in it
+// Only the tiles near a black hole that moved are checked: further than its reach, the pull of a black hole moves a point by so little that the field of the tile can't move by more than the threshold
+// When the points of most tiles must be calculated anyway, every tile is drawn, as sorting out the few clean ones isn't worth it
+public class GridRasterizer {
+    // The PALETTE_SIZE constant is used to set the number of brightness levels of the grid
+    public static final int PALETTE_SIZE = 256;
+
+    // The DEFAULT_PARALLELISM constant is used to set the default number of threads drawing the grid, every core but the one of the simulation worker
+    public static final int DEFAULT_PARALLELISM = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+
+    // The TILE_SIZE constant is used to set the size of the tiles in pixels
+    public static final int TILE_SIZE = 128;
+
+    // The DIRTY_THRESHOLD constant is used to set how far in pixels the field of a tile can move before the tile is drawn again
+    public static final double DIRTY_THRESHOLD = 0.25;
+
+    // The FULL_REDRAW_FRACTION constant is used to set the part of the tiles whose points must be calculated for every tile to be drawn
+    private static final double FULL_REDRAW_FRACTION = 0.9;
+
+    // The SAMPLES_PER_TILE constant is used to set the number of points where the field of a tile is checked: its four corners and its center
+    private static final int SAMPLES_PER_TILE = 5;
+
+    // The BANDS_PER_THREAD constant is used to split the grid into more bands than threads, so a thread that finishes early can take another band
+    private static final int BANDS_PER_THREAD = 4;
+
+    // The width and height variables are used to store the size of the buffer in pixels
+    private final int width;
+    private final int height;
+
+    // The scale variable is used to store the number of pixels of the buffer for a pixel of the simulation, the buffer is smaller than the simulation below 1
+    private final double scale;
+
+    // The sideSpacing variable is used to store the space in pixels of the buffer between two sides of the grid cells
+    private final double sideSpacing;
+
+    // The cellSize, quality, forceMultiplier and maxForce variables are used to store the settings of the grid, see the GRID_ constants of the simulator
+    // The quality is the step in pixels of the buffer between the points of a side of a grid cell, it can be changed between frames
+    // The maximum force is scaled to the buffer, as every distance and every displacement is
+    private final double cellSize;
+    private double quality;
+    private final double forceMultiplier;
+    private final double maxForce;
+
+    // The backgroundColor variable is used to store the ARGB color of the pixels that are not part of the grid
+    private final int backgroundColor;
+
+    // The pixels array is used to store the ARGB color of every pixel, row by row
+    private final int[] pixels;
+
+    // The palette array is used to store the ARGB gray of every brightness level, so no color has to be created for each point
+    private final int[] palette = new int[PALETTE_SIZE];
+
+    // The rowY and sideRow arrays are used to store the y of every row of points of the grid, and whether it is a side of a grid cell
+    private int[] rowY;
+    private boolean[] sideRow;
+
+    // Those arrays are used to store the black holes of the snapshot being drawn (their gravity is G times their mass), they only grow when there are more black holes
+    private double[] blackHoleX = new double[2], blackHoleY = new double[2], blackHoleGravity = new double[2], eventHorizonRadiusSquared = new double[2];
+
+    // The kernel variable is used to store the kernel calculating the displacement of the points
+    private GridKernel kernel = GridKernel.create();
+
+    // The bandGx and bandGy arrays are used to store the displacement of the points of the row of a tile being drawn by each band, so the bands don't share them
+    private double[][] bandGx, bandGy;
+
+    // The maxColumnCount variable is used to store the highest number of columns of points of a tile, the size of the displacement arrays
+    private int maxColumnCount;
+
+    // The blackHoleCount variable is used to store the number of black holes of the snapshot being drawn
+    private int blackHoleCount = 0;
+
+    // The hiddenRadius array is used to store the radius around every black hole where the points of the grid are hidden, by its event horizon or by a force above the maximum force
+    private double[] hiddenRadius = new double[2];
+
+    // The previous arrays are used to store the black holes of the last frame drawn, a tile is drawn again when a black hole leaves it
+    private double[] previousBlackHoleX = new double[2], previousBlackHoleY = new double[2], previousHiddenRadius = new double[2], previousBlackHoleGravity = new double[2];
+    private int previousBlackHoleCount = 0;
+
+    // The movedBlackHole array is used to store whether every black hole moved since the last frame drawn, only those can make a tile dirty
+    private boolean[] movedBlackHole = new boolean[2];
+
+    // The maxDisplacement variable is used to store the furthest a point can move in the current frame, in pixels
+    private double maxDisplacement = 0;
+
+    // The tileColumns and tileRows variables are used to store the number of tiles across the buffer
+    private final int tileColumns;
+    private final int tileRows;
+
+    // The tileFirstRow and tileLastRow arrays are used to store the rows of points of every row of tiles, the last one excluded
+    private int[] tileFirstRow;
+    private int[] tileLastRow;
+
+    // The tileColumnX and tileSideColumnX arrays are used to store the columns of points and the side columns of every column of tiles
+    private double[][] tileColumnX;
+    private double[][] tileSideColumnX;
+
+    // The tileSignature array is used to store the field at the samples of every tile when it was last drawn, x and y one after the other, and the tileField array the field of the current frame
+    private final double[] tileSignature;
+    private final double[] tileField;
+
+    // The tileMoved array is used to store whether the field of every tile moved
+    private final boolean[] tileMoved;
+
+    // The dirtyTile array is used to store whether a tile is drawn by the current frame, and the sourceTile array whether its points can land in a tile being drawn
+    private final boolean[] dirtyTile;
+    private final boolean[] sourceTile;
+
+    // The dirtyTiles and sourceTiles arrays are used to store the indexes of the dirty and source tiles of the current frame, so they can be split into bands
+    private final int[] dirtyTiles;
+    private final int[] sourceTiles;
+    private int dirtyTileCount = 0, sourceTileCount = 0;
+
+    // The sampleX and sampleY arrays are used to store the samples of the tile being checked
+    private final double[] sampleX = new double[SAMPLES_PER_TILE], sampleY = new double[SAMPLES_PER_TILE];
+
+    // The fullRedraw variable is used to know whether every tile must be drawn by the next frame
+    private boolean fullRedraw = true;
+
+    // The dirty variables are used to store the rectangle of pixels changed by the last frame, it is empty if nothing changed
+    private int dirtyX = 0, dirtyY = 0, dirtyWidth = 0, dirtyHeight = 0;
+
+    // The pool variable is used to store the threads drawing the bands, it is null when the grid is drawn by the calling thread only
+    private ForkJoinPool pool = null;
+
+    // The bandCount variable is used to store the number of bands the rows of the grid are split into
+    private int bandCount = 1;
+
+    // The GridRasterizer constructor is used to create a new rasterizer for a buffer of the given size
+    public GridRasterizer(final int width, final int height, final double cellSize, final double quality, final double forceMultiplier, final double maxForce, final int backgroundColor) {
+        // Create the rasterizer with the default number of threads
+        this(width, height, cellSize, quality, forceMultiplier, maxForce, backgroundColor, DEFAULT_PARALLELISM);
+    }
+
+    // The GridRasterizer constructor is used to create a new rasterizer for a buffer of the given size, drawn by the given number of threads (1 to draw it on the calling thread only)
+    public GridRasterizer(final int width, final int height, final double cellSize, final double quality, final double forceMultiplier, final double maxForce, final int backgroundColor, final int parallelism) {
+        // Create the rasterizer with a buffer the size of the simulation
+        this(width, height, 1.0, cellSize, quality, forceMultiplier, maxForce, backgroundColor, parallelism);
+    }
+
+    // The GridRasterizer constructor is used to create a new rasterizer for a simulation of the given size, drawn into a buffer scaled by the given factor, by the given number of threads
+    // The grid looks the same at every scale, with fewer pixels: the black holes, the cells and the displacements are scaled to the buffer
+    public GridRasterizer(final int width, final int height, final double scale, final double cellSize, final double quality, final double forceMultiplier, final double maxForce, final int backgroundColor, final int parallelism) {
+        // Check that the scale makes sense
+        if (!(scale > 0)) throw new IllegalArgumentException("The scale of the grid must be positive, got " + scale);
+
+        // Assign the parameters to the global variables, the buffer is at least a pixel wide
+        this.width = Math.max(1, (int) Math.round(width * scale));
+        this.height = Math.max(1, (int) Math.round(height * scale));
+        this.scale = scale;
+        this.cellSize = cellSize;
+        this.forceMultiplier = forceMultiplier;
+        this.maxForce = maxForce * scale;
+        this.backgroundColor = backgroundColor;
+        this.pixels = new int[this.width * this.height];
+
+        // Get the space between two sides of the grid cells: the sides are on the whole pixels that are a multiple of the cell size, so every second one for a cell size of 12.5
+        int sideCells = 1;
+        while (sideCells < 1000 && (sideCells * cellSize) % 1 != 0) sideCells++;
+        this.sideSpacing = sideCells * cellSize * scale;
+
+        // Split the buffer into tiles, the last ones may be smaller
+        this.tileColumns = (this.width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tileRows = (this.height + TILE_SIZE - 1) / TILE_SIZE;
+
+        // Create the arrays of the state of every tile
+        final int tileCount = this.tileColumns * this.tileRows;
+        this.tileSignature = new double[tileCount * SAMPLES_PER_TILE * 2];
+        this.tileField = new double[tileCount * SAMPLES_PER_TILE * 2];
+        this.tileMoved = new boolean[tileCount];
+        this.dirtyTile = new boolean[tileCount];
+        this.sourceTile = new boolean[tileCount];
+        this.dirtyTiles = new int[tileCount];
+        this.sourceTiles = new int[tileCount];
+
+        // Fill the palette with every gray from black to white, fully opaque
+        for (int level = 0; level < PALETTE_SIZE; level++) {
+            final int gray = level * 255 / (PALETTE_SIZE - 1);
+            this.palette[level] = 0xFF000000 | gray << 16 | gray << 8 | gray;
+        }
+
+        // Get the points of the grid, and create the threads drawing it
+        this.setQuality(quality);
+        this.setParallelism(parallelism);
+    }
+
+    // The setQuality method is used to set the step in pixels between the points of a side of a grid cell, the sides of the grid cells stay at the same place whatever the quality
+    // It must not be called while a frame is being drawn, the next frame draws every tile
+    public void setQuality(final double quality) {
+        // Check that the quality makes sense
+        if (!(quality > 0)) throw new IllegalArgumentException("The quality of the grid must be positive, got " + quality);
+        this.quality = quality;
+
+        // Get the y of every row of points of the grid: every step of the quality, and every side of a grid cell
+        int rowCount = 0;
+        for (int y = 0; y < this.height; y++) if (y % quality == 0 || this.isSide(y)) rowCount++;
+        this.rowY = new int[rowCount];
+        this.sideRow = new boolean[rowCount];
+        int row = 0;
+        for (int y = 0; y < this.height; y++) {
+            if (y % quality != 0 && !this.isSide(y)) continue;
+            this.rowY[row] = y;
+            this.sideRow[row++] = this.isSide(y);
+        }
+
+        // Get the rows of points of every row of tiles, the rows are sorted so each row of tiles is a range of rows
+        this.tileFirstRow = new int[this.tileRows];
+        this.tileLastRow = new int[this.tileRows];
+        for (row = 0; row < rowCount; row++) this.tileLastRow[this.rowY[row] / TILE_SIZE] = row + 1;
+        for (int tileRow = 1; tileRow < this.tileRows; tileRow++) {
+            this.tileFirstRow[tileRow] = this.tileLastRow[tileRow - 1];
+            // A row of tiles without any row of points starts and ends where the previous one ends
+            if (this.tileLastRow[tileRow] < this.tileFirstRow[tileRow]) this.tileLastRow[tileRow] = this.tileFirstRow[tileRow];
+        }
+
+        // Get the x of every column of points of every column of tiles, with the same steps as the rows, and of the side columns
+        // A row that is a side of a grid cell draws every column, any other row only draws the side columns, so the points of a row of a tile are always contiguous for the kernel
+        // They don't change between frames, so the modulo is not calculated for every point
+        this.tileColumnX = new double[this.tileColumns][];
+        this.tileSideColumnX = new double[this.tileColumns][];
+        int maxColumnCount = 0;
+        for (int tileColumn = 0; tileColumn < this.tileColumns; tileColumn++) {
+            final int left = tileColumn * TILE_SIZE, right = Math.min(left + TILE_SIZE, this.width);
+            int columnCount = 0, sideColumnCount = 0;
+            for (int x = left; x < right; x++) {
+                if (x % quality == 0 || this.isSide(x)) columnCount++;
+                if (this.isSide(x)) sideColumnCount++;
+            }
+            this.tileColumnX[tileColumn] = new double[columnCount];
+            this.tileSideColumnX[tileColumn] = new double[sideColumnCount];
+            int column = 0, sideColumn = 0;
+            for (int x = left; x < right; x++) {
+                if (x % quality == 0 || this.isSide(x)) this.tileColumnX[tileColumn][column++] = x;
+                if (this.isSide(x)) this.tileSideColumnX[tileColumn][sideColumn++] = x;
+            }
+            maxColumnCount = Math.max(maxColumnCount, columnCount);
+        }
+        this.maxColumnCount = maxColumnCount;
+
+        // Grow the displacement arrays of the bands if a tile has more columns than before
+        if (this.bandGx != null && this.bandGx[0].length < maxColumnCount) {
+            this.bandGx = new double[this.bandCount][maxColumnCount];
+            this.bandGy = new double[this.bandCount][maxColumnCount];
+        }
+
+        // The points moved, so every tile must be drawn again
+        this.invalidate();
+    }
+
+    // The isSide method is used to check whether a row or a column of pixels of the buffer is the closest one to a side of the grid cells
+    private boolean isSide(final int position) {
+        // Round the position to the closest side, and check that the side is on this pixel
+        return position == Math.round(Math.round(position / this.sideSpacing) * this.sideSpacing);
+    }
+
+    // The getQuality method is used to get the step in pixels between the points of a side of a grid cell
+    public double getQuality() {
+        // Return the quality
+        return this.quality;
+    }
+
+    // The setParallelism method is used to set the number of threads drawing the grid, 1 draws it on the calling thread only
+    // It must not be called while a frame is being drawn
+    public void setParallelism(final int parallelism) {
+        // Check that the number of threads makes sense
+        if (parallelism < 1) throw new IllegalArgumentException("At least one thread must draw the grid, got " + parallelism);
+
+        // Stop the threads of the previous pool, they finish what they are doing
+        if (this.pool != null) this.pool.shutdown();
+
+        // Create a new pool if more than one thread is asked for, and split the rows of the grid into bands
+        this.pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        this.bandCount = parallelism == 1 ? 1 : parallelism * BANDS_PER_THREAD;
+
+        // Create the displacement arrays of every band
+        this.bandGx = new double[this.bandCount][this.maxColumnCount];
+        this.bandGy = new double[this.bandCount][this.maxColumnCount];
+    }
+
+    // The getKernel method is used to get the kernel calculating the displacement of the points
+    public GridKernel getKernel() {
+        // Return the kernel
+        return this.kernel;
+    }
+
+    // The setKernel method is used to set the kernel calculating the displacement of the points, it must not be called while a frame is being drawn
+    public void setKernel(final GridKernel kernel) {
+        // Assign the parameter to the global variable
+        this.kernel = kernel;
+    }
+
+    // The getParallelism method is used to get the number of threads drawing the grid
+    public int getParallelism() {
+        // Return the number of threads of the pool, or 1 if there is no pool
+        return this.pool == null ? 1 : this.pool.getParallelism();
+    }
+
+    // The invalidate method is used to draw every tile with the next frame, even the ones whose field didn't change
+    public void invalidate() {
+        // Draw every tile with the next frame
+        this.fullRedraw = true;
+    }
+
+    // The rasterize method is used to draw the grid of a snapshot into the buffer, only the tiles whose field changed are drawn again, it returns the buffer
+    public int[] rasterize(final SimulationSnapshot snapshot) {
+        // Copy the black holes of the snapshot into the arrays of the rasterizer
+        this.blackHoleCount = this.loadBlackHoles(snapshot);
+
+        // Find the tiles to draw, and the tiles whose points can land in them
+        this.findDirtyTiles();
+
+        if (this.pool == null) {
+            // Without a pool, clear and draw every tile on this thread
+            this.clearBand(0);
+            this.drawBand(0);
+        } else if (this.dirtyTileCount > 0) {
+            // Clear every dirty tile before drawing any of them, as a point can be moved into another tile
+            this.pool.invoke(new BandAction(true, 0, this.bandCount));
+            this.pool.invoke(new BandAction(false, 0, this.bandCount));
+        }
+
+        // Remember the black holes of this frame, to know which tiles they leave with the next one
+        this.savePreviousBlackHoles();
+
+        // Return the buffer
+        return this.pixels;
+    }
+
+    // The findDirtyTiles method is used to find the tiles drawn by the current frame and the tiles whose points must be calculated to draw them
+    // A tile is drawn if the field moved in a tile its points can come from, not only in the tile itself, so the points a moved tile pushes into it are drawn too
+    private void findDirtyTiles() {
+        // Every tile is drawn if it is asked for, or if a black hole was absorbed since the last frame
+        final boolean allDirty = this.fullRedraw || this.blackHoleCount != this.previousBlackHoleCount;
+        this.fullRedraw = false;
+
+        // Get the furthest a point can move, the points that land in a tile never come from further
+        this.maxDisplacement = Math.min(this.forceMultiplier * this.maxForce * this.blackHoleCount, Math.max(this.width, this.height));
+
+        // Get the rectangle of tiles where the field can have moved, around the black holes that moved
+        int firstColumn = 0, lastColumn = this.tileColumns - 1, firstRow = 0, lastRow = this.tileRows - 1;
+        if (!allDirty) {
+            // The rectangle of pixels around the black holes that moved, empty if none moved
+            double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY, maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < this.blackHoleCount; i++) {
+                // A black hole moved if its position, its hidden circle or its pull changed
+                this.movedBlackHole[i] = this.blackHoleX[i] != this.previousBlackHoleX[i] || this.blackHoleY[i] != this.previousBlackHoleY[i] || this.hiddenRadius[i] != this.previousHiddenRadius[i] || this.blackHoleGravity[i] != this.previousBlackHoleGravity[i];
+                if (!this.movedBlackHole[i]) continue;
+
+                // Get the reach of the black hole, where it moves a point by less than the threshold split between every black hole, before and after it moved
+                // Calculated using the formula: forceMultiplier * G * M / r^2 < DIRTY_THRESHOLD / (2 * count)
+                final double reach = Math.max(Math.max(this.hiddenRadius[i], this.previousHiddenRadius[i]), Math.sqrt(2 * this.blackHoleCount * this.forceMultiplier * Math.max(this.blackHoleGravity[i], this.previousBlackHoleGravity[i]) / DIRTY_THRESHOLD));
+                minX = Math.min(minX, Math.min(this.blackHoleX[i], this.previousBlackHoleX[i]) - reach);
+                minY = Math.min(minY, Math.min(this.blackHoleY[i], this.previousBlackHoleY[i]) - reach);
+                maxX = Math.max(maxX, Math.max(this.blackHoleX[i], this.previousBlackHoleX[i]) + reach);
+                maxY = Math.max(maxY, Math.max(this.blackHoleY[i], this.previousBlackHoleY[i]) + reach);
+            }
+
+            // Turn the rectangle of pixels into a rectangle of tiles, empty if it is outside the buffer
+            firstColumn = (int) Math.max(0, Math.floor(minX / TILE_SIZE));
+            lastColumn = (int) Math.min(this.tileColumns - 1, Math.floor(maxX / TILE_SIZE));
+            firstRow = (int) Math.max(0, Math.floor(minY / TILE_SIZE));
+            lastRow = (int) Math.min(this.tileRows - 1, Math.floor(maxY / TILE_SIZE));
+        }
+
+        // Check whether the field of every tile of the rectangle moved, the field of the other tiles didn't
+        Arrays.fill(this.tileMoved, false);
+        for (int tileRow = firstRow; tileRow <= lastRow; tileRow++) {
+            for (int tileColumn = firstColumn; tileColumn <= lastColumn; tileColumn++) {
+                final int tile = tileRow * this.tileColumns + tileColumn;
+                final int left = tileColumn * TILE_SIZE, top = tileRow * TILE_SIZE;
+                this.tileMoved[tile] = this.sampleTileField(tile, left, top, Math.min(left + TILE_SIZE, this.width), Math.min(top + TILE_SIZE, this.height));
+            }
+        }
+
+        // Reset the tiles of the previous frame and the rectangle of changed pixels
+        Arrays.fill(this.dirtyTile, false);
+        Arrays.fill(this.sourceTile, false);
+        this.dirtyTileCount = 0;
+        this.sourceTileCount = 0;
+        int minX = this.width, minY = this.height, maxX = 0, maxY = 0;
+
+        // Only the tiles the points of the rectangle can land in can be dirty, the black holes that moved are in the rectangle too
+        if (firstColumn <= lastColumn && firstRow <= lastRow) {
+            final int reachTiles = (int) Math.ceil((this.maxDisplacement + 1) / TILE_SIZE);
+            firstColumn = Math.max(0, firstColumn - reachTiles);
+            lastColumn = Math.min(this.tileColumns - 1, lastColumn + reachTiles);
+            firstRow = Math.max(0, firstRow - reachTiles);
+            lastRow = Math.min(this.tileRows - 1, lastRow + reachTiles);
+        }
+
+        // Iterate through those tiles, row by row so the dirty tiles are sorted
+        for (int tileRow = firstRow; tileRow <= lastRow; tileRow++) {
+            for (int tileColumn = firstColumn; tileColumn <= lastColumn; tileColumn++) {
+                // Get the rectangle of the tile, and the tiles whose points can land in it
+                final int tile = tileRow * this.tileColumns + tileColumn;
+                final int left = tileColumn * TILE_SIZE, top = tileRow * TILE_SIZE;
+                final int right = Math.min(left + TILE_SIZE, this.width), bottom = Math.min(top + TILE_SIZE, this.height);
+                final double margin = this.getTileMargin(left, top, right, bottom);
+                final int firstSourceColumn = Math.max(0, (int) Math.floor((left - margin) / TILE_SIZE)), lastSourceColumn = Math.min(this.tileColumns - 1, (int) Math.floor((right + margin) / TILE_SIZE));
+                final int firstSourceRow = Math.max(0, (int) Math.floor((top - margin) / TILE_SIZE)), lastSourceRow = Math.min(this.tileRows - 1, (int) Math.floor((bottom + margin) / TILE_SIZE));
+
+                // Draw the tile if a black hole got in or out of the points that can land in it, or if the field moved in a tile they can come from
+                boolean dirty = allDirty || this.isBlackHoleNear(left - margin, top - margin, right + margin, bottom + margin);
+                for (int sourceRow = firstSourceRow; sourceRow <= lastSourceRow && !dirty; sourceRow++) {
+                    for (int sourceColumn = firstSourceColumn; sourceColumn <= lastSourceColumn && !dirty; sourceColumn++) dirty = this.tileMoved[sourceRow * this.tileColumns + sourceColumn];
+                }
+                this.dirtyTile[tile] = dirty;
+                if (!dirty) continue;
+                this.dirtyTiles[this.dirtyTileCount++] = tile;
+
+                // Save the field the tile is drawn with, a tile that is not drawn keeps the field it was drawn with, so slow changes add up until it is drawn again
+                System.arraycopy(this.tileField, tile * SAMPLES_PER_TILE * 2, this.tileSignature, tile * SAMPLES_PER_TILE * 2, SAMPLES_PER_TILE * 2);
+
+                // Grow the rectangle of changed pixels
+                minX = Math.min(minX, left);
+                minY = Math.min(minY, top);
+                maxX = Math.max(maxX, right);
+                maxY = Math.max(maxY, bottom);
+
+                // Mark the tiles whose points can land in the tile
+                for (int sourceRow = firstSourceRow; sourceRow <= lastSourceRow; sourceRow++) {
+                    for (int sourceColumn = firstSourceColumn; sourceColumn <= lastSourceColumn; sourceColumn++) this.sourceTile[sourceRow * this.tileColumns + sourceColumn] = true;
+                }
+            }
+        }
+
+        // List the source tiles, so they can be split into bands
+        for (int tile = 0; tile < this.sourceTile.length; tile++) if (this.sourceTile[tile]) this.sourceTiles[this.sourceTileCount++] = tile;
+
+        // Draw every tile if the points of most of them must be calculated anyway, drawing the few other tiles costs less than checking where every point lands
+        // The field of every tile is then checked, so every tile is saved with the field it is drawn with
+        if (!allDirty && this.sourceTileCount > FULL_REDRAW_FRACTION * this.sourceTile.length) {
+            this.fullRedraw = true;
+            this.findDirtyTiles();
+            return;
+        }
+
+        // Save the rectangle of changed pixels
+        this.dirtyX = minX;
+        this.dirtyY = minY;
+        this.dirtyWidth = Math.max(0, maxX - minX);
+        this.dirtyHeight = Math.max(0, maxY - minY);
+    }
+
+    // The getTileMargin method is used to get how far from a tile the points that land in it can come from, in pixels
+    // A drawn point is never pulled by a black hole harder than the maximum force, so it can't move further than the force multiplier times the maximum force per black hole
+    // Within that distance, the pull of every black hole is at most its pull on the closest point of the area, which is very small for the tiles far from the black holes
+    private double getTileMargin(final int left, final int top, final int right, final int bottom) {
+        // Get the furthest a point can move, calculated once for the frame
+        final double maxDisplacement = this.maxDisplacement;
+
+        // Sum the strongest pull of every black hole on the area the points can come from
+        double margin = 0;
+        for (int i = 0; i < this.blackHoleCount; i++) {
+            final double dx = Math.max(0, Math.max(left - maxDisplacement - this.blackHoleX[i], this.blackHoleX[i] - right - maxDisplacement));
+            final double dy = Math.max(0, Math.max(top - maxDisplacement - this.blackHoleY[i], this.blackHoleY[i] - bottom - maxDisplacement));
+            margin += Math.min(this.maxForce, this.blackHoleGravity[i] / (dx * dx + dy * dy));
+        }
+
+        // Return the furthest a point of the area can move, with a pixel more as the points are drawn on the pixel below them
+        return Math.min(maxDisplacement, margin * this.forceMultiplier) + 1;
+    }
+
+    // The sampleTileField method is used to get the field at the samples of a tile, and to check whether it moved by more than the threshold since the tile was last drawn
+    private boolean sampleTileField(final int tile, final int left, final int top, final int right, final int bottom) {
+        // Get the samples of the tile: its four corners and its center
+        final int offset = tile * SAMPLES_PER_TILE * 2;
+        final double[] sampleX = this.sampleX, sampleY = this.sampleY;
+        sampleX[0] = sampleX[2] = left;
+        sampleX[1] = sampleX[3] = right;
+        sampleY[0] = sampleY[1] = top;
+        sampleY[2] = sampleY[3] = bottom;
+        sampleX[4] = (left + right) / 2.0;
+        sampleY[4] = (top + bottom) / 2.0;
+
+        boolean moved = false;
+        for (int sample = 0; sample < SAMPLES_PER_TILE; sample++) {
+            // Sum the pull of every black hole on the sample, as the kernels do
+            double gx = 0, gy = 0;
+            for (int i = 0; i < this.blackHoleCount; i++) {
+                final double dx = this.blackHoleX[i] - sampleX[sample];
+                final double dy = this.blackHoleY[i] - sampleY[sample];
+                final double distanceSquared = dx * dx + dy * dy;
+                final double forceOverDistance = this.blackHoleGravity[i] / distanceSquared / Math.sqrt(distanceSquared);
+                gx += dx * forceOverDistance;
+                gy += dy * forceOverDistance;
+            }
+            this.tileField[offset + sample * 2] = gx * this.forceMultiplier;
+            this.tileField[offset + sample * 2 + 1] = gy * this.forceMultiplier;
+
+            // The field moved if it moved by more than the threshold, a field that is not a number (a black hole on the sample) always moved
+            moved |= !(Math.abs(this.tileField[offset + sample * 2] - this.tileSignature[offset + sample * 2]) <= DIRTY_THRESHOLD && Math.abs(this.tileField[offset + sample * 2 + 1] - this.tileSignature[offset + sample * 2 + 1]) <= DIRTY_THRESHOLD);
+        }
+
+        // Return whether the field of the tile moved
+        return moved;
+    }
+
+    // The isBlackHoleNear method is used to check whether the hidden circle of a black hole that moved, in this frame or in the last frame, overlaps an area
+    // It is only called when the black holes are the same as in the last frame, a black hole that didn't move hides the same pixels
+    private boolean isBlackHoleNear(final double left, final double top, final double right, final double bottom) {
+        // Check the black holes that moved, where they are and where they were
+        for (int i = 0; i < this.blackHoleCount; i++) {
+            if (!this.movedBlackHole[i]) continue;
+            if (isCircleInRectangle(this.blackHoleX[i], this.blackHoleY[i], this.hiddenRadius[i], left, top, right, bottom)) return true;
+            if (isCircleInRectangle(this.previousBlackHoleX[i], this.previousBlackHoleY[i], this.previousHiddenRadius[i], left, top, right, bottom)) return true;
+        }
+        // No black hole is near the area
+        return false;
+    }
+
+    // The isCircleInRectangle method is used to check whether a circle overlaps a rectangle
+    private static boolean isCircleInRectangle(final double x, final double y, final double radius, final double left, final double top, final double right, final double bottom) {
+        // Get the distance from the center of the circle to the closest point of the rectangle, and compare it to the radius
+        final double dx = Math.max(0, Math.max(left - x, x - right));
+        final double dy = Math.max(0, Math.max(top - y, y - bottom));
+        return dx * dx + dy * dy <= radius * radius;
+    }
+
+    // The savePreviousBlackHoles method is used to remember the black holes of the frame that has been drawn
+    private void savePreviousBlackHoles() {
+        // Grow the arrays if there are more black holes than before
+        if (this.previousBlackHoleX.length < this.blackHoleCount) {
+            this.previousBlackHoleX = new double[this.blackHoleCount];
+            this.previousBlackHoleY = new double[this.blackHoleCount];
+            this.previousHiddenRadius = new double[this.blackHoleCount];
+            this.previousBlackHoleGravity = new double[this.blackHoleCount];
+            this.movedBlackHole = new boolean[this.blackHoleCount];
+        }
+
+        // Copy the black holes of this frame
+        System.arraycopy(this.blackHoleX, 0, this.previousBlackHoleX, 0, this.blackHoleCount);
+        System.arraycopy(this.blackHoleY, 0, this.previousBlackHoleY, 0, this.blackHoleCount);
+        System.arraycopy(this.hiddenRadius, 0, this.previousHiddenRadius, 0, this.blackHoleCount);
+        System.arraycopy(this.blackHoleGravity, 0, this.previousBlackHoleGravity, 0, this.blackHoleCount);
+        this.previousBlackHoleCount = this.blackHoleCount;
+    }
+
+    // The clearBand method is used to fill the pixels of the dirty tiles of a band with the background color
+    private void clearBand(final int band) {
+        // Iterate through the dirty tiles of the band, the dirty tiles next to each other on a row of tiles are cleared together
+        final int lastTile = (band + 1) * this.dirtyTileCount / this.bandCount;
+        for (int i = band * this.dirtyTileCount / this.bandCount; i < lastTile; i++) {
+            // Get the first tile of the run and extend the run while the next dirty tile is the next tile on the same row of tiles
+            final int firstTile = this.dirtyTiles[i];
+            while (i + 1 < lastTile && this.dirtyTiles[i + 1] == this.dirtyTiles[i] + 1 && this.dirtyTiles[i + 1] % this.tileColumns != 0) i++;
+
+            // Get the rectangle of the run
+            final int left = firstTile % this.tileColumns * TILE_SIZE, top = firstTile / this.tileColumns * TILE_SIZE;
+            final int right = Math.min((this.dirtyTiles[i] % this.tileColumns + 1) * TILE_SIZE, this.width), bottom = Math.min(top + TILE_SIZE, this.height);
+
+            // Clear the whole rectangle at once if it is as wide as the buffer, otherwise clear it row by row
+            if (left == 0 && right == this.width) Arrays.fill(this.pixels, top * this.width, bottom * this.width, this.backgroundColor);
+            else for (int y = top; y < bottom; y++) Arrays.fill(this.pixels, y * this.width + left, y * this.width + right, this.backgroundColor);
+        }
+    }
+
+    // The drawBand method is used to draw the points of the source tiles of a band that land in a dirty tile
+    private void drawBand(final int band) {
+        // Iterate through the source tiles of the band
+        for (int i = band * this.sourceTileCount / this.bandCount; i < (band + 1) * this.sourceTileCount / this.bandCount; i++) {
+            // Draw the points of the tile
+            this.drawTile(this.sourceTiles[i], band);
+        }
+    }
+
+    // The drawTile method is used to draw the points of a tile, with the displacement arrays of a band
+    private void drawTile(final int tile, final int band) {
+        // Get the displacement arrays of the band, and the rows and columns of the tile
+        final double[] gx = this.bandGx[band], gy = this.bandGy[band];
+        final int tileRow = tile / this.tileColumns, tileColumn = tile % this.tileColumns;
+
+        // Iterate through the rows of the tile
+        for (int row = this.tileFirstRow[tileRow]; row < this.tileLastRow[tileRow]; row++) {
+            // If the row is a side of a grid cell, every point of the row is drawn, otherwise only the points of the side columns are drawn
+            final double[] x = this.sideRow[row] ? this.tileColumnX[tileColumn] : this.tileSideColumnX[tileColumn];
+            final double y = this.rowY[row];
+
+            // Calculate the displacement of every point of the row
+            this.kernel.displace(x, x.length, y, this.blackHoleX, this.blackHoleY, this.blackHoleGravity, this.eventHorizonRadiusSquared, this.blackHoleCount, this.maxForce, this.forceMultiplier, gx, gy);
+
+            // Draw every point of the row that is not hidden
+            for (int point = 0; point < x.length; point++) if (!Double.isNaN(gx[point])) this.drawPoint(x[point] + gx[point], y + gy[point], gx[point] + gy[point]);
+        }
+    }
+
+    // The loadBlackHoles method is used to copy the black holes of a snapshot into the arrays of the rasterizer, it returns the number of black holes
+    private int loadBlackHoles(final SimulationSnapshot snapshot) {
+        // Grow the arrays if there are more black holes than before
+        final int blackHoleCount = snapshot.getBlackHoleCount();
+        if (this.blackHoleX.length < blackHoleCount) {
+            this.blackHoleX = new double[blackHoleCount];
+            this.blackHoleY = new double[blackHoleCount];
+            this.blackHoleGravity = new double[blackHoleCount];
+            this.eventHorizonRadiusSquared = new double[blackHoleCount];
+            this.hiddenRadius = new double[blackHoleCount];
+        }
+
+        // Copy the values of every black hole
+        for (int i = 0; i < blackHoleCount; i++) {
+            // The positions and the radii are scaled to the buffer, and the gravity by the cube of the scale so the displacement of a point is scaled too: G * M * s^3 / (s * r)^2 = s * G * M / r^2
+            this.blackHoleX[i] = snapshot.getX(i) * this.scale;
+            this.blackHoleY[i] = snapshot.getY(i) * this.scale;
+            this.blackHoleGravity[i] = G * snapshot.getMass(i) * this.scale * this.scale * this.scale;
+            this.eventHorizonRadiusSquared[i] = Physics.getEventHorizonRadius(snapshot.getRadius(i)) * Physics.getEventHorizonRadius(snapshot.getRadius(i)) * this.scale * this.scale;
+            // The points are hidden in the event horizon, and where the force is above the maximum force: G * M / r^2 > maxForce
+            this.hiddenRadius[i] = Math.max(Math.sqrt(this.eventHorizonRadiusSquared[i]), Math.sqrt(this.blackHoleGravity[i] / this.maxForce));
+        }
+
+        // Return the number of black holes
+        return blackHoleCount;
+    }
+
+    // The drawPoint method is used to draw a moved point of the grid, with a brightness depending on the sum of its displacement
+    private void drawPoint(final double movedX, final double movedY, final double displacement) {
+        // Get the pixel of the new position, and don't draw the points that left the buffer
+        final int pixelX = (int) Math.floor(movedX);
+        final int pixelY = (int) Math.floor(movedY);
+        if (pixelX < 0 || pixelY < 0 || pixelX >= this.width || pixelY >= this.height) return;
+        // Don't draw the points that land in a tile that is not drawn by this frame, its pixels are already right
+        if (!this.dirtyTile[pixelY / TILE_SIZE * this.tileColumns + pixelX / TILE_SIZE]) return;
+
+        // Set the brightness of the point in function of the force that is endured, and draw it with the matching gray of the palette
+        final double brightness = Math.min(1, Math.abs(1 - Math.abs(displacement / this.maxForce)));
+        this.pixels[pixelY * this.width + pixelX] = this.palette[(int) (brightness * (PALETTE_SIZE - 1) + 0.5)];
+    }
+
+    // The BandAction class is used to clear or draw a range of bands in the pool, splitting the range in two until a single band is left
+    private class BandAction extends RecursiveAction {
+        // The serialVersionUID constant is used to set the version of the serialized form of the action, it is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // The clear variable is used to know whether the bands are cleared or drawn
+        private final boolean clear;
+
+        // The firstBand and lastBand variables are used to store the range of bands, the last one excluded
+        private final int firstBand;
+        private final int lastBand;
+
+        // The BandAction constructor is used to create a new action for a range of bands
+        private BandAction(final boolean clear, final int firstBand, final int lastBand) {
+            // Assign the parameters to the global variables
+            this.clear = clear;
+            this.firstBand = firstBand;
+            this.lastBand = lastBand;
+        }
+
+        // The compute method is used to clear or draw the range of bands
+        @Override
+        protected void compute() {
+            // Split the range in two until there is a single band left, so the threads of the pool can steal the halves
+            if (this.lastBand - this.firstBand > 1) {
+                final int middleBand = (this.firstBand + this.lastBand) >>> 1;
+                invokeAll(new BandAction(this.clear, this.firstBand, middleBand), new BandAction(this.clear, middleBand, this.lastBand));
+                return;
+            }
+
+            // Clear or draw the single band
+            if (this.clear) clearBand(this.firstBand);
+            else drawBand(this.firstBand);
+        }
+    }
+
+    // The getWidth method is used to get the width of the buffer in pixels
+    public int getWidth() {
+        // Return the width of the buffer
+        return this.width;
+    }
+
+    // The getHeight method is used to get the height of the buffer in pixels
+    public int getHeight() {
+        // Return the height of the buffer
+        return this.height;
+    }
+
+    // The getScale method is used to get the number of pixels of the buffer for a pixel of the simulation
+    public double getScale() {
+        // Return the scale
+        return this.scale;
+    }
+
+    // The shutdown method is used to stop the threads drawing the grid, the rasterizer must not be used anymore
+    public void shutdown() {
+        // Stop the threads of the pool, they finish what they are doing
+        if (this.pool != null) this.pool.shutdown();
+        this.pool = null;
+    }
+
+    // The getDirtyX, getDirtyY, getDirtyWidth and getDirtyHeight methods are used to get the rectangle of pixels changed by the last frame, so only that part of the buffer has to be copied to the screen
+    public int getDirtyX() {
+        // Return the left of the rectangle
+        return this.dirtyX;
+    }
+
+    public int getDirtyY() {
+        // Return the top of the rectangle
+        return this.dirtyY;
+    }
+
+    public int getDirtyWidth() {
+        // Return the width of the rectangle, 0 if nothing changed
+        return this.dirtyWidth;
+    }
+
+    public int getDirtyHeight() {
+        // Return the height of the rectangle, 0 if nothing changed
+        return this.dirtyHeight;
+    }
+
+    // The getDirtyTileCount and getTileCount methods are used to get the number of tiles drawn by the last frame and the total number of tiles
+    public int getDirtyTileCount() {
+        // Return the number of dirty tiles
+        return this.dirtyTileCount;
+    }
+
+    public int getTileCount() {
+        // Return the number of tiles
+        return this.dirtyTile.length;
+    }
+}
@@ -0,0 +1,70 @@
+package fr.lr.industries.blackhole.merge.core.grid;
+
+// The ScalarGridKernel class is used to calculate the displacement of the points of the grid one point at a time, it works on every JVM
+public class ScalarGridKernel implements GridKernel {
+    // The NAME constant is used to identify this kernel
+    public static final String NAME = "scalar";
+
+    // The displace method is used to calculate the displacement of every point of the row, one after the other
+    @Override
+    public void displace(final double[] x, final int count, final double y, final double[] blackHoleX, final double[] blackHoleY, final double[] blackHoleGravity, final double[] eventHorizonRadiusSquared, final int blackHoleCount, final double maxForce, final double forceMultiplier, final double[] gx, final double[] gy) {
+        // Calculate the displacement of every point of the row
+        displace(x, 0, count, y, blackHoleX, blackHoleY, blackHoleGravity, eventHorizonRadiusSquared, blackHoleCount, maxForce, forceMultiplier, gx, gy);
+    }
+
+    // The displace method is used to calculate the displacement of the points of the row from a point to another, the last one excluded, it is also used by the vector kernel for the points that don't fill a vector
+    static void displace(final double[] x, final int firstPoint, final int lastPoint, final double y, final double[] blackHoleX, final double[] blackHoleY, final double[] blackHoleGravity, final double[] eventHorizonRadiusSquared, final int blackHoleCount, final double maxForce, final double forceMultiplier, final double[] gx, final double[] gy) {
+        points:
+        for (int point = firstPoint; point < lastPoint; point++) {
+            // The pointGx and pointGy variables are used to store the total gravitational forces between the black holes and the current point
+            double pointGx = 0, pointGy = 0;
+
+            // Iterate through every black hole
+            for (int i = 0; i < blackHoleCount; i++) {
+                // Get the vector from the point to the black hole and its squared length
+                final double dx = blackHoleX[i] - x[point];
+                final double dy = blackHoleY[i] - y;
+                final double distanceSquared = dx * dx + dy * dy;
+
+                // Calculate the force of the black hole on the current point: G * M / r^2
+                final double force = blackHoleGravity[i] / distanceSquared;
+
+                // Don't draw the point if it is in the event horizon of the black hole, or if the force is going to make it goes brrrr
+                if (distanceSquared <= eventHorizonRadiusSquared[i] || force > maxForce) {
+                    gx[point] = Double.NaN;
+                    continue points;
+                }
+
+                // Calculate the gravitational forces between the black hole and the current point
+                final double forceOverDistance = force / Math.sqrt(distanceSquared);
+                pointGx += dx * forceOverDistance;
+                pointGy += dy * forceOverDistance;
+            }
+
+            // Multiply the total gravitational forces by the grid force multiplier
+            pointGx *= forceMultiplier;
+            pointGy *= forceMultiplier;
+
+            // Don't draw the point if its new position is in the event horizon of a black hole
+            for (int i = 0; i < blackHoleCount; i++) {
+                final double dx = blackHoleX[i] - (x[point] + pointGx);
+                final double dy = blackHoleY[i] - (y + pointGy);
+                if (dx * dx + dy * dy <= eventHorizonRadiusSquared[i]) {
+                    gx[point] = Double.NaN;
+                    continue points;
+                }
+            }
+
+            // Write the displacement of the point
+            gx[point] = pointGx;
+            gy[point] = pointGy;
+        }
+    }
+
+    // The getName method is used to get the name of this kernel
+    @Override
+    public String getName() {
+        // Return the name of this kernel
+        return NAME;
+    }
+}
@@ -0,0 +1,86 @@
+package fr.lr.industries.blackhole.merge.core.grid;
+
+// Import the required classes and packages
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+// The VectorGridKernel class is used to calculate the displacement of the points of the grid several points at a time, with the SIMD instructions of the processor (4 doubles with AVX2, 8 with AVX-512)
+// Every lane holds a point, the points that must not be drawn are tracked with a mask instead of leaving the loop
+// It needs the jdk.incubator.vector module, so it is only loaded by GridKernel.create when the module is there
+// https://openjdk.org/jeps/414
+public class VectorGridKernel implements GridKernel {
+    // The NAME constant is used to identify this kernel
+    public static final String NAME = "vector";
+
+    // The SPECIES constant is used to get the widest vector of doubles the processor supports
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    // The displace method is used to calculate the displacement of the points of the row, a vector of points at a time
+    @Override
+    public void displace(final double[] x, final int count, final double y, final double[] blackHoleX, final double[] blackHoleY, final double[] blackHoleGravity, final double[] eventHorizonRadiusSquared, final int blackHoleCount, final double maxForce, final double forceMultiplier, final double[] gx, final double[] gy) {
+        // Calculate the full vectors of points
+        final int fullCount = SPECIES.loopBound(count);
+        for (int point = 0; point < fullCount; point += SPECIES.length()) {
+            this.displace(DoubleVector.fromArray(SPECIES, x, point), y, blackHoleX, blackHoleY, blackHoleGravity, eventHorizonRadiusSquared, blackHoleCount, maxForce, forceMultiplier, gx, gy, point);
+        }
+
+        // Calculate the last points of the row, that don't fill a vector, one at a time, masked loads and stores are much slower than the scalar math for a few points
+        ScalarGridKernel.displace(x, fullCount, count, y, blackHoleX, blackHoleY, blackHoleGravity, eventHorizonRadiusSquared, blackHoleCount, maxForce, forceMultiplier, gx, gy);
+    }
+
+    // The displace method is used to calculate the displacement of a full vector of points of the row
+    private void displace(final DoubleVector pointX, final double y, final double[] blackHoleX, final double[] blackHoleY, final double[] blackHoleGravity, final double[] eventHorizonRadiusSquared, final int blackHoleCount, final double maxForce, final double forceMultiplier, final double[] gx, final double[] gy, final int point) {
+        // Get the y of the points, they are all on the same row
+        final DoubleVector pointY = DoubleVector.broadcast(SPECIES, y);
+
+        // The pointGx and pointGy vectors are used to store the total gravitational forces between the black holes and the points
+        DoubleVector pointGx = DoubleVector.zero(SPECIES), pointGy = DoubleVector.zero(SPECIES);
+        // The hidden mask is used to store the points that must not be drawn
+        VectorMask<Double> hidden = SPECIES.maskAll(false);
+
+        // Iterate through every black hole
+        for (int i = 0; i < blackHoleCount; i++) {
+            // Get the vectors from the points to the black hole and their squared length
+            final DoubleVector dx = pointX.neg().add(blackHoleX[i]);
+            final DoubleVector dy = pointY.neg().add(blackHoleY[i]);
+            final DoubleVector distanceSquared = dx.mul(dx).add(dy.mul(dy));
+
+            // Calculate the force of the black hole on the points: G * M / r^2
+            final DoubleVector force = DoubleVector.broadcast(SPECIES, blackHoleGravity[i]).div(distanceSquared);
+
+            // Hide the points in the event horizon of the black hole, and the ones the force is going to make go brrrr
+            hidden = hidden.or(distanceSquared.compare(VectorOperators.LE, eventHorizonRadiusSquared[i])).or(force.compare(VectorOperators.GT, maxForce));
+
+            // Calculate the gravitational forces between the black hole and the points, the hidden points don't matter anymore
+            final DoubleVector forceOverDistance = force.div(distanceSquared.sqrt());
+            pointGx = dx.mul(forceOverDistance).add(pointGx);
+            pointGy = dy.mul(forceOverDistance).add(pointGy);
+        }
+
+        // Multiply the total gravitational forces by the grid force multiplier
+        pointGx = pointGx.mul(forceMultiplier);
+        pointGy = pointGy.mul(forceMultiplier);
+
+        // Hide the points whose new position is in the event horizon of a black hole
+        final DoubleVector movedX = pointX.add(pointGx);
+        final DoubleVector movedY = pointY.add(pointGy);
+        for (int i = 0; i < blackHoleCount; i++) {
+            final DoubleVector dx = movedX.neg().add(blackHoleX[i]);
+            final DoubleVector dy = movedY.neg().add(blackHoleY[i]);
+            hidden = hidden.or(dx.mul(dx).add(dy.mul(dy)).compare(VectorOperators.LE, eventHorizonRadiusSquared[i]));
+        }
+
+        // Write the displacement of the points, with NaN for the hidden ones
+        pointGx.blend(Double.NaN, hidden).intoArray(gx, point);
+        pointGy.intoArray(gy, point);
+    }
+
+    // The getName method is used to get the name of this kernel
+    @Override
+    public String getName() {
+        // Return the name of this kernel
+        return NAME;
+    }
+}
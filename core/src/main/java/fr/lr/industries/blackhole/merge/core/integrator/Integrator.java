@@ -0,0 +1,32 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+import java.util.List;
+
+// The Integrator interface is used to move every black hole forward in time from the accelerations given by a force solver
+// The symplectic ones (leapfrog, velocity Verlet and Yoshida) keep the energy of an orbit bounded, so they can run with much bigger time steps
+// https://en.wikipedia.org/wiki/Symplectic_integrator
+public interface Integrator {
+    // The NAMES constant is used to list the names of every integrator, in the order shown in the settings
+    List<String> NAMES = List.of(SemiImplicitEulerIntegrator.NAME, LeapfrogIntegrator.NAME, VelocityVerletIntegrator.NAME, YoshidaIntegrator.NAME);
+
+    // The step method is used to update the velocity and the position of every black hole of the store by one time step
+    void step(BlackHoleStore blackHoles, ForceSolver forceSolver, double timeStep);
+
+    // The getName method is used to get a short name of the integrator, used in the settings and in the command lines
+    String getName();
+
+    // The create method is used to create an integrator from its name
+    static Integrator create(final String name) {
+        // Create the integrator matching the name
+        return switch (name) {
+            case SemiImplicitEulerIntegrator.NAME -> new SemiImplicitEulerIntegrator();
+            case LeapfrogIntegrator.NAME -> new LeapfrogIntegrator();
+            case VelocityVerletIntegrator.NAME -> new VelocityVerletIntegrator();
+            case YoshidaIntegrator.NAME -> new YoshidaIntegrator();
+            default -> throw new IllegalArgumentException("Unknown integrator: " + name + ", expected one of " + NAMES);
+        };
+    }
+}
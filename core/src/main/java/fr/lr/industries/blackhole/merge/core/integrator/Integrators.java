@@ -0,0 +1,55 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The Integrators class is used to store the steps shared by every integrator: computing the accelerations, kicking the velocities and drifting the positions
+final class Integrators {
+    // The Integrators constructor is private because this class only contains static methods
+    private Integrators() {
+    }
+
+    // The computeAccelerations method is used to calculate the accelerations of the black holes at their current positions
+    static void computeAccelerations(final BlackHoleStore blackHoles, final ForceSolver forceSolver) {
+        // Calculate the accelerations with the solver, they now match the positions
+        forceSolver.computeAccelerations(blackHoles);
+        blackHoles.setAccelerationsValid(true);
+    }
+
+    // The ensureAccelerations method is used to calculate the accelerations only if the ones of the store are not valid anymore
+    // It saves a whole force calculation per step to the integrators that end a step with the accelerations of the new positions
+    static void ensureAccelerations(final BlackHoleStore blackHoles, final ForceSolver forceSolver) {
+        // Calculate the accelerations if they don't match the positions
+        if (!blackHoles.areAccelerationsValid()) computeAccelerations(blackHoles, forceSolver);
+    }
+
+    // The kick method is used to update the velocity of every black hole from its acceleration
+    static void kick(final BlackHoleStore blackHoles, final double timeStep) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] vx = blackHoles.getVx(), vy = blackHoles.getVy(), ax = blackHoles.getAx(), ay = blackHoles.getAy();
+
+        // Update the velocity of every black hole
+        // Calculated using the formula: v = v0 + a * t
+        for (int i = 0; i < count; i++) {
+            vx[i] += ax[i] * timeStep;
+            vy[i] += ay[i] * timeStep;
+        }
+    }
+
+    // The drift method is used to update the position of every black hole from its velocity, the accelerations don't match the positions anymore
+    static void drift(final BlackHoleStore blackHoles, final double timeStep) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy();
+
+        // Update the position of every black hole
+        // Calculated using the formula: x = x0 + v * t (work also for the y's)
+        for (int i = 0; i < count; i++) {
+            x[i] += vx[i] * timeStep;
+            y[i] += vy[i] * timeStep;
+        }
+        blackHoles.setAccelerationsValid(false);
+    }
+}
@@ -0,0 +1,32 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The LeapfrogIntegrator class is used to move the black holes with the drift-kick-drift leapfrog, a second order symplectic integrator
+// It calculates the accelerations once per step, in the middle of the step
+// https://en.wikipedia.org/wiki/Leapfrog_integration
+public class LeapfrogIntegrator implements Integrator {
+    // The NAME constant is used to identify this integrator
+    public static final String NAME = "leapfrog";
+
+    // The step method is used to drift the black holes by half a step, kick them by a whole step and drift them by the other half
+    @Override
+    public void step(final BlackHoleStore blackHoles, final ForceSolver forceSolver, final double timeStep) {
+        // Move the black holes to the middle of the step
+        Integrators.drift(blackHoles, timeStep / 2);
+        // Update the velocities with the accelerations of the middle of the step
+        Integrators.computeAccelerations(blackHoles, forceSolver);
+        Integrators.kick(blackHoles, timeStep);
+        // Move the black holes to the end of the step
+        Integrators.drift(blackHoles, timeStep / 2);
+    }
+
+    // The getName method is used to get the name of this integrator
+    @Override
+    public String getName() {
+        // Return the name of this integrator
+        return NAME;
+    }
+}
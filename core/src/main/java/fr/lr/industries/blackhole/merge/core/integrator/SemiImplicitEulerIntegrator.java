@@ -0,0 +1,47 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The SemiImplicitEulerIntegrator class is used to move the black holes the way the simulator always did: the velocity first, then the position with the acceleration term
+// It is the default integrator so a simulation gives the same result as before, but its energy drifts when the time step gets bigger
+// https://en.wikipedia.org/wiki/Semi-implicit_Euler_method
+public class SemiImplicitEulerIntegrator implements Integrator {
+    // The NAME constant is used to identify this integrator
+    public static final String NAME = "euler";
+
+    // The step method is used to update the velocity and the position of every black hole from its acceleration
+    @Override
+    public void step(final BlackHoleStore blackHoles, final ForceSolver forceSolver, final double timeStep) {
+        // Calculate the accelerations at the current positions
+        Integrators.ensureAccelerations(blackHoles, forceSolver);
+
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy(), ax = blackHoles.getAx(), ay = blackHoles.getAy();
+        final double halfTimeStepSquared = 0.5 * timeStep * timeStep;
+
+        // Iterate through every black hole
+        for (int i = 0; i < count; i++) {
+            // Update the velocity of the black hole using its acceleration
+            // Calculated using the formula: v = v0 + a * t
+            vx[i] += ax[i] * timeStep;
+            vy[i] += ay[i] * timeStep;
+            // Update the position of the black hole using its velocity
+            // Calculated using the formula: x = x0 + v * t + 0.5 * a * t^2 (work also for the y's)
+            x[i] += vx[i] * timeStep + ax[i] * halfTimeStepSquared;
+            y[i] += vy[i] * timeStep + ay[i] * halfTimeStepSquared;
+        }
+
+        // The black holes moved, so the accelerations are not valid anymore
+        blackHoles.setAccelerationsValid(false);
+    }
+
+    // The getName method is used to get the name of this integrator
+    @Override
+    public String getName() {
+        // Return the name of this integrator
+        return NAME;
+    }
+}
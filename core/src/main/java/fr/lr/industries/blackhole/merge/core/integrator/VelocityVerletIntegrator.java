@@ -0,0 +1,34 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The VelocityVerletIntegrator class is used to move the black holes with the velocity Verlet (kick-drift-kick), a second order symplectic integrator
+// The accelerations of the end of a step are the ones of the beginning of the next step, so it only calculates them once per step
+// https://en.wikipedia.org/wiki/Verlet_integration#Velocity_Verlet
+public class VelocityVerletIntegrator implements Integrator {
+    // The NAME constant is used to identify this integrator
+    public static final String NAME = "velocity-verlet";
+
+    // The step method is used to kick the black holes by half a step, drift them by a whole step and kick them by the other half with the new accelerations
+    @Override
+    public void step(final BlackHoleStore blackHoles, final ForceSolver forceSolver, final double timeStep) {
+        // Get the accelerations of the beginning of the step, they are usually still there from the previous step
+        Integrators.ensureAccelerations(blackHoles, forceSolver);
+        // Update the velocities to the middle of the step
+        Integrators.kick(blackHoles, timeStep / 2);
+        // Move the black holes to the end of the step
+        Integrators.drift(blackHoles, timeStep);
+        // Update the velocities to the end of the step with the accelerations of the new positions
+        Integrators.computeAccelerations(blackHoles, forceSolver);
+        Integrators.kick(blackHoles, timeStep / 2);
+    }
+
+    // The getName method is used to get the name of this integrator
+    @Override
+    public String getName() {
+        // Return the name of this integrator
+        return NAME;
+    }
+}
@@ -0,0 +1,46 @@
+package fr.lr.industries.blackhole.merge.core.integrator;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+
+// The YoshidaIntegrator class is used to move the black holes with the 4th order Yoshida integrator, which chains three velocity Verlet sub-steps
+// The middle sub-step goes backward in time, which cancels the 3rd order error of the two others
+// It calculates the accelerations three times per step, but its error shrinks with the 4th power of the time step instead of the 2nd
+// https://en.wikipedia.org/wiki/Leapfrog_integration#Yoshida_algorithms
+public class YoshidaIntegrator implements Integrator {
+    // The NAME constant is used to identify this integrator
+    public static final String NAME = "yoshida-4";
+
+    // The W1 and W0 constants are used to set the length of the sub-steps, as fractions of the time step
+    // Calculated using the formulas: w1 = 1 / (2 - 2^(1/3)) and w0 = -2^(1/3) / (2 - 2^(1/3))
+    private static final double W1 = 1.0 / (2.0 - Math.cbrt(2.0));
+    private static final double W0 = -Math.cbrt(2.0) / (2.0 - Math.cbrt(2.0));
+
+    // The step method is used to do the three sub-steps: w1, w0 and w1 times the time step
+    @Override
+    public void step(final BlackHoleStore blackHoles, final ForceSolver forceSolver, final double timeStep) {
+        // Do every sub-step as a velocity Verlet step
+        this.subStep(blackHoles, forceSolver, W1 * timeStep);
+        this.subStep(blackHoles, forceSolver, W0 * timeStep);
+        this.subStep(blackHoles, forceSolver, W1 * timeStep);
+    }
+
+    // The subStep method is used to do a velocity Verlet step of the given length, the accelerations of its end are kept for the next one
+    private void subStep(final BlackHoleStore blackHoles, final ForceSolver forceSolver, final double timeStep) {
+        // Get the accelerations of the beginning of the sub-step
+        Integrators.ensureAccelerations(blackHoles, forceSolver);
+        // Kick, drift, and kick again with the new accelerations
+        Integrators.kick(blackHoles, timeStep / 2);
+        Integrators.drift(blackHoles, timeStep);
+        Integrators.computeAccelerations(blackHoles, forceSolver);
+        Integrators.kick(blackHoles, timeStep / 2);
+    }
+
+    // The getName method is used to get the name of this integrator
+    @Override
+    public String getName() {
+        // Return the name of this integrator
+        return NAME;
+    }
+}
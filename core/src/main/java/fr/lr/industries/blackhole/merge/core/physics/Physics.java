@@ -0,0 +1,76 @@
+package fr.lr.industries.blackhole.merge.core.physics;
+
+// The Physics class is used to store the physical constants and the formulas shared by the whole simulation
+public final class Physics {
+    // The G constant is used to set the gravitational constant which I know by heart thanks to my so-called "physics" teacher named Mr. Eneman
+    public static final double G = 6.674010551359e-11;
+
+    // The C constant is used to set the speed of light in a vacuum which I also know by heart thanks to my so-called "physics" teacher named Mr. Eneman
+    public static final double C = 299792458.0;
+
+    // The EVENT_HORIZON_MULTIPLIER constant is used to get the event horizon radius from the radius of a black hole
+    public static final double EVENT_HORIZON_MULTIPLIER = 1.02;
+
+    // The Physics constructor is private because this class only contains static methods
+    private Physics() {
+    }
+
+    // The getDistance method is used to get the distance between two points using the Pythagorean theorem
+    public static double getDistance(final double x1, final double y1, final double x2, final double y2) {
+        // Return the distance between the two points using the Pythagorean theorem
+        // Calculated using the formula: sqrt((x2 - x1)^2 + (y2 - y1)^2)
+        // https://en.wikipedia.org/wiki/Pythagorean_theorem
+        return Math.sqrt(Math.pow(x2 - x1, 2) + Math.pow(y2 - y1, 2));
+    }
+
+    // The getEventHorizonRadius method is used to get the event horizon radius of a black hole from its radius
+    public static double getEventHorizonRadius(final double radius) {
+        // Return the event horizon radius of the black hole
+        return radius * EVENT_HORIZON_MULTIPLIER;
+    }
+
+    // The getSchwarzschildRadius method is used to get the Schwarzschild radius of a black hole from its mass
+    public static double getSchwarzschildRadius(final double mass) {
+        // Return the Schwarzschild radius of the black hole
+        // Calculated using the formula: 2 * G * M / c^2
+        // Where G is the gravitational constant, M is the mass of the black hole and c is the speed of light
+        // https://en.wikipedia.org/wiki/Schwarzschild_radius
+        return 2 * G * mass / Math.pow(C, 2);
+    }
+
+    // The getForce method is used to get the force between a black hole and a point in space at a certain distance
+    public static double getForce(final double mass, final double distance) {
+        // Return the force between the black hole and a point in space at a certain distance
+        // Calculated using the formula: G * M / r^2
+        // Where G is the gravitational constant, M is the mass of the black hole and r is the distance between the black hole and the point in space
+        // https://en.wikipedia.org/wiki/Newton%27s_law_of_universal_gravitation
+        return G * mass / Math.pow(distance, 2);
+    }
+
+    // The getMergedRadius method is used to get the radius of the black hole resulting from a merge
+    public static double getMergedRadius(final double radius, final double otherRadius, final double mergedMass, final double otherMass) {
+        // Return the radius of the merged black hole
+        // Calculated using the formula: r1 + r2 * (M / (M - m2))^(1/3)
+        // Where r1 and r2 are the radii of the black holes, M is the merged mass and m2 is the mass of the absorbed black hole
+        return radius + otherRadius * Math.pow(mergedMass / (mergedMass - otherMass), 1.0 / 3.0);
+    }
+
+    // The getGravitationalWavesFrequency method is used to generate gravitational waves frequency from two colliding black holes using the Schwarzschild metric
+    public static double getGravitationalWavesFrequency(final double mass, final double otherMass, final double distance) {
+        // Calculate the total mass of the two black holes
+        // Calculated using the formula: m1 + m2
+        // Where m1 is the mass of the black hole and m2 is the mass of the other black hole
+        final double totalMass = mass + otherMass;
+
+        // Calculate the reduced mass of the two black holes
+        // Calculated using the formula: m1 * m2 / (m1 + m2)
+        // Where m1 is the mass of the black hole and m2 is the mass of the other black hole
+        final double reducedMass = mass * otherMass / totalMass;
+
+        // Return the frequency of the gravitational waves using the Schwarzschild metric
+        // Calculated using the formula: 1 / (2 * pi) * sqrt(G * m / r^3) * (1 - 6 * G * mu / (c^2 * r) + 8 * pi * G * mu * R / (3 * c^2 * r))
+        // Where G is the gravitational constant, m is the total mass of the two black holes, r is the distance between the two black holes, mu is the reduced mass of the two black holes, c is the speed of light and R is the Schwarzschild radius of the first black hole
+        // https://en.wikipedia.org/wiki/Schwarzschild_metric
+        return (1.0 / (2.0 * Math.PI)) * Math.sqrt(G * totalMass / Math.pow(distance, 3)) * (1.0 - 6.0 * G * reducedMass / (Math.pow(C, 2) * distance) + 8.0 * Math.PI * G * reducedMass * getSchwarzschildRadius(mass) / (3.0 * Math.pow(C, 2) * distance));
+    }
+}
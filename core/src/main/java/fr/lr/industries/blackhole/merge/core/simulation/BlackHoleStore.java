@@ -0,0 +1,220 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import java.util.Arrays;
+
+// The BlackHoleStore class is used to store every black hole of a simulation as a structure of arrays
+// Each value of a black hole is stored in its own contiguous primitive array, and all the arrays share the same index
+// The arrays returned by the getters are the live arrays, they are replaced when the store grows, so they must be fetched again after an add
+public class BlackHoleStore {
+    // The DEFAULT_CAPACITY constant is used to set the capacity of a store when none is given
+    public static final int DEFAULT_CAPACITY = 16;
+
+    // The x and y arrays are used to store the positions of the black holes
+    // The vx and vy arrays are used to store the velocities of the black holes
+    // The ax and ay arrays are used to store the accelerations of the black holes
+    // The mass and radius arrays are used to store the masses and the radii of the black holes
+    private double[] x, y, vx, vy, ax, ay, mass, radius;
+
+    // The ids array is used to store the identifier of each black hole, it does not change when the arrays are compacted
+    private int[] ids;
+
+    // The count variable is used to store the number of black holes in the store
+    private int count = 0;
+
+    // The nextId variable is used to store the identifier given to the next added black hole
+    private int nextId = 0;
+
+    // The accelerationsValid variable is used to know whether the accelerations match the current positions and masses, so an integrator can reuse them
+    private boolean accelerationsValid = false;
+
+    // The BlackHoleStore constructor is used to create a new store with the default capacity
+    public BlackHoleStore() {
+        // Create the store with the default capacity
+        this(DEFAULT_CAPACITY);
+    }
+
+    // The BlackHoleStore constructor is used to create a new store able to hold the given number of black holes without growing
+    public BlackHoleStore(final int capacity) {
+        // Allocate every array with the given capacity
+        this.allocate(Math.max(1, capacity));
+    }
+
+    // The allocate method is used to (re)allocate every array to the given capacity while keeping the current black holes
+    private void allocate(final int capacity) {
+        // Copy each array into a new one of the given capacity, or create it if it does not exist yet
+        this.x = this.x == null ? new double[capacity] : Arrays.copyOf(this.x, capacity);
+        this.y = this.y == null ? new double[capacity] : Arrays.copyOf(this.y, capacity);
+        this.vx = this.vx == null ? new double[capacity] : Arrays.copyOf(this.vx, capacity);
+        this.vy = this.vy == null ? new double[capacity] : Arrays.copyOf(this.vy, capacity);
+        this.ax = this.ax == null ? new double[capacity] : Arrays.copyOf(this.ax, capacity);
+        this.ay = this.ay == null ? new double[capacity] : Arrays.copyOf(this.ay, capacity);
+        this.mass = this.mass == null ? new double[capacity] : Arrays.copyOf(this.mass, capacity);
+        this.radius = this.radius == null ? new double[capacity] : Arrays.copyOf(this.radius, capacity);
+        this.ids = this.ids == null ? new int[capacity] : Arrays.copyOf(this.ids, capacity);
+    }
+
+    // The add method is used to add a black hole to the store, it returns the identifier of the black hole
+    public int add(final double x, final double y, final double vx, final double vy, final double mass, final double radius) {
+        // Double the capacity of the store if it is full
+        if (this.count == this.x.length) this.allocate(this.x.length * 2);
+
+        // Write the values of the black hole at the end of the arrays
+        this.x[this.count] = x;
+        this.y[this.count] = y;
+        this.vx[this.count] = vx;
+        this.vy[this.count] = vy;
+        this.ax[this.count] = 0;
+        this.ay[this.count] = 0;
+        this.mass[this.count] = mass;
+        this.radius[this.count] = radius;
+        this.ids[this.count] = this.nextId;
+
+        // Count the black hole, the accelerations of the other ones don't include it
+        this.count++;
+        this.accelerationsValid = false;
+
+        // Return the identifier of the black hole and prepare the next one
+        return this.nextId++;
+    }
+
+    // The clear method is used to remove every black hole from the store, the identifiers start again from 0
+    public void clear() {
+        // Forget every black hole, the arrays are kept to be reused
+        this.count = 0;
+        this.nextId = 0;
+        this.accelerationsValid = false;
+    }
+
+    // The markRemoved method is used to mark a black hole to be removed by the next compaction, its identifier becomes -1
+    public void markRemoved(final int index) {
+        // Mark the black hole as removed
+        this.ids[index] = -1;
+    }
+
+    // The isRemoved method is used to check whether a black hole has been marked to be removed
+    public boolean isRemoved(final int index) {
+        // Return whether the black hole has been marked as removed
+        return this.ids[index] < 0;
+    }
+
+    // The compact method is used to remove every black hole marked as removed, keeping the order of the others, it returns the number of removed black holes
+    public int compact() {
+        // The write variable is used to store where the next kept black hole is written
+        int write = 0;
+        // Iterate through every black hole
+        for (int read = 0; read < this.count; read++) {
+            // Skip the black holes that have been marked as removed
+            if (this.ids[read] < 0) continue;
+            // Move the black hole to its new index if it has changed
+            if (write != read) {
+                this.x[write] = this.x[read];
+                this.y[write] = this.y[read];
+                this.vx[write] = this.vx[read];
+                this.vy[write] = this.vy[read];
+                this.ax[write] = this.ax[read];
+                this.ay[write] = this.ay[read];
+                this.mass[write] = this.mass[read];
+                this.radius[write] = this.radius[read];
+                this.ids[write] = this.ids[read];
+            }
+            // Count the kept black hole
+            write++;
+        }
+        // Get the number of removed black holes and update the count
+        final int removed = this.count - write;
+        this.count = write;
+        // The removed black holes don't pull the other ones anymore
+        if (removed > 0) this.accelerationsValid = false;
+        // Return the number of removed black holes
+        return removed;
+    }
+
+    // The clearAccelerations method is used to set the acceleration of every black hole to 0
+    public void clearAccelerations() {
+        // Fill the acceleration arrays with 0 up to the number of black holes
+        Arrays.fill(this.ax, 0, this.count, 0.0);
+        Arrays.fill(this.ay, 0, this.count, 0.0);
+    }
+
+    // The areAccelerationsValid method is used to check whether the accelerations match the current positions and masses
+    public boolean areAccelerationsValid() {
+        // Return whether the accelerations are valid
+        return this.accelerationsValid;
+    }
+
+    // The setAccelerationsValid method is used to tell the store whether the accelerations match the current positions and masses
+    // It must be set to false by anything that moves a black hole or changes its mass
+    public void setAccelerationsValid(final boolean accelerationsValid) {
+        // Assign the parameter to the global variable
+        this.accelerationsValid = accelerationsValid;
+    }
+
+    // The indexOf method is used to get the current index of a black hole from its identifier, or -1 if it is not in the store anymore
+    public int indexOf(final int id) {
+        // Iterate through every black hole to find the identifier
+        for (int i = 0; i < this.count; i++) if (this.ids[i] == id) return i;
+        // The black hole is not in the store anymore
+        return -1;
+    }
+
+    // The getCount method is used to get the number of black holes in the store
+    public int getCount() {
+        // Return the number of black holes
+        return this.count;
+    }
+
+    // The getX method is used to get the live array of the x positions
+    public double[] getX() {
+        // Return the live array of the x positions
+        return this.x;
+    }
+
+    // The getY method is used to get the live array of the y positions
+    public double[] getY() {
+        // Return the live array of the y positions
+        return this.y;
+    }
+
+    // The getVx method is used to get the live array of the x velocities
+    public double[] getVx() {
+        // Return the live array of the x velocities
+        return this.vx;
+    }
+
+    // The getVy method is used to get the live array of the y velocities
+    public double[] getVy() {
+        // Return the live array of the y velocities
+        return this.vy;
+    }
+
+    // The getAx method is used to get the live array of the x accelerations
+    public double[] getAx() {
+        // Return the live array of the x accelerations
+        return this.ax;
+    }
+
+    // The getAy method is used to get the live array of the y accelerations
+    public double[] getAy() {
+        // Return the live array of the y accelerations
+        return this.ay;
+    }
+
+    // The getMass method is used to get the live array of the masses
+    public double[] getMass() {
+        // Return the live array of the masses
+        return this.mass;
+    }
+
+    // The getRadius method is used to get the live array of the radii
+    public double[] getRadius() {
+        // Return the live array of the radii
+        return this.radius;
+    }
+
+    // The getIds method is used to get the live array of the identifiers
+    public int[] getIds() {
+        // Return the live array of the identifiers
+        return this.ids;
+    }
+}
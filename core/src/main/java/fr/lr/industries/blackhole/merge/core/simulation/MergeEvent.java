@@ -0,0 +1,62 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// The MergeEvent class is used to describe a merge between two black holes
+public class MergeEvent {
+    // The survivorId variable is used to store the identifier of the black hole that absorbed the other one
+    private final int survivorId;
+    // The absorbedId variable is used to store the identifier of the black hole that has been absorbed
+    private final int absorbedId;
+    // The mergedMass and mergedRadius variables are used to store the mass and the radius of the black hole resulting from the merge
+    private final double mergedMass, mergedRadius;
+    // The timeElapsed variable is used to store the simulated time at which the merge happened
+    private final double timeElapsed;
+    // The steps variable is used to store the number of steps that have been done before the merge
+    private final long steps;
+
+    // The MergeEvent constructor is used to create a new merge event
+    public MergeEvent(final int survivorId, final int absorbedId, final double mergedMass, final double mergedRadius, final double timeElapsed, final long steps) {
+        // Assign the parameters to the global variables
+        this.survivorId = survivorId;
+        this.absorbedId = absorbedId;
+        this.mergedMass = mergedMass;
+        this.mergedRadius = mergedRadius;
+        this.timeElapsed = timeElapsed;
+        this.steps = steps;
+    }
+
+    // The getSurvivorId method is used to get the identifier of the black hole that absorbed the other one
+    public int getSurvivorId() {
+        // Return the identifier of the black hole that absorbed the other one
+        return this.survivorId;
+    }
+
+    // The getAbsorbedId method is used to get the identifier of the black hole that has been absorbed
+    public int getAbsorbedId() {
+        // Return the identifier of the black hole that has been absorbed
+        return this.absorbedId;
+    }
+
+    // The getMergedMass method is used to get the mass of the black hole resulting from the merge
+    public double getMergedMass() {
+        // Return the mass of the merged black hole
+        return this.mergedMass;
+    }
+
+    // The getMergedRadius method is used to get the radius of the black hole resulting from the merge
+    public double getMergedRadius() {
+        // Return the radius of the merged black hole
+        return this.mergedRadius;
+    }
+
+    // The getTimeElapsed method is used to get the simulated time at which the merge happened
+    public double getTimeElapsed() {
+        // Return the simulated time at which the merge happened
+        return this.timeElapsed;
+    }
+
+    // The getSteps method is used to get the number of steps that have been done before the merge
+    public long getSteps() {
+        // Return the number of steps that have been done before the merge
+        return this.steps;
+    }
+}
@@ -0,0 +1,8 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// The MergeListener interface is used to be notified when two black holes are merged
+@FunctionalInterface
+public interface MergeListener {
+    // The onMerge method is called by the stepper right after two black holes have been merged
+    void onMerge(MergeEvent event);
+}
@@ -0,0 +1,151 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.physics.Physics;
+import java.util.List;
+
+// The MergeResolver class is used to find and merge every pair of black holes that are close enough, without checking every pair
+// It uses a sweep and prune along the x axis: each black hole covers the interval of x's where another black hole could merge with it,
+// the intervals are sorted by their start, and only the black holes whose intervals overlap are checked
+// https://en.wikipedia.org/wiki/Sweep_and_prune
+// The arrays used for the sort are kept between steps, so resolving the merges does not allocate anything once they are big enough
+class MergeResolver {
+    // The INSERTION_SORT_THRESHOLD constant is used to sort the small ranges with an insertion sort, which is faster for them
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+
+    // The order array is used to store the indices of the black holes sorted by the start of their interval
+    private int[] order = new int[16];
+
+    // The starts array is used to store the start of the interval of each black hole of the order array
+    private double[] starts = new double[16];
+
+    // The resolve method is used to merge every pair of black holes that are close enough, the absorbed black holes are removed by compacting the store
+    // The merges are added to the given list, with the given time and step
+    void resolve(final BlackHoleStore blackHoles, final double distanceToBeMergedMultiplier, final double timeElapsed, final long steps, final List<MergeEvent> mergeEvents) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy();
+        final double[] mass = blackHoles.getMass(), radius = blackHoles.getRadius();
+        final int[] ids = blackHoles.getIds();
+        final double distanceToBeMergedMultiplierSquared = distanceToBeMergedMultiplier * distanceToBeMergedMultiplier;
+
+        // Grow the arrays of the sort if they are too small
+        if (this.order.length < count) {
+            this.order = new int[count];
+            this.starts = new double[count];
+        }
+
+        // Fill the arrays of the sort with the start of the interval of every black hole
+        // Two black holes merge when: d * multiplier <= r1 / 2 + r2 / 2, so a black hole can only merge with the ones closer than r / (2 * multiplier) + r2 / (2 * multiplier) on the x axis
+        for (int i = 0; i < count; i++) {
+            this.order[i] = i;
+            this.starts[i] = x[i] - this.getReach(radius[i], distanceToBeMergedMultiplier);
+        }
+
+        // Sort the black holes by the start of their interval
+        this.sort(0, count - 1);
+
+        // Sweep through the sorted black holes
+        boolean merged = false;
+        for (int a = 0; a < count; a++) {
+            // Get the end of the interval of the current black hole
+            final int first = this.order[a];
+            if (blackHoles.isRemoved(first)) continue;
+            final double end = x[first] + this.getReach(radius[first], distanceToBeMergedMultiplier);
+
+            // Check every black hole whose interval starts before the end of the current one
+            for (int b = a + 1; b < count && this.starts[b] <= end; b++) {
+                final int second = this.order[b];
+                if (blackHoles.isRemoved(second) || blackHoles.isRemoved(first)) continue;
+
+                // The black hole that comes first in the store absorbs the other one, like the first black hole of the binary absorbs the second one
+                final int i = Math.min(first, second);
+                final int j = Math.max(first, second);
+
+                // Get the squared distance between the black holes
+                final double dx = x[j] - x[i];
+                final double dy = y[j] - y[i];
+                final double distanceSquared = dx * dx + dy * dy;
+
+                // If the distance between the black holes is less or equal to the sum of the radii of the black holes, then the black holes are colliding
+                // Both sides are squared, so no square root is needed
+                final double mergeDistance = radius[i] * 1/2 + radius[j] * 1/2;
+                if (distanceSquared * distanceToBeMergedMultiplierSquared > mergeDistance * mergeDistance) continue;
+
+                // Calculate the new mass of the black hole
+                final double mergedMass = mass[i] + mass[j];
+                // Keep the momentum of both black holes in the merged one
+                if (mergedMass > 0) {
+                    vx[i] = (mass[i] * vx[i] + mass[j] * vx[j]) / mergedMass;
+                    vy[i] = (mass[i] * vy[i] + mass[j] * vy[j]) / mergedMass;
+                }
+                // Calculate the new radius of the black hole
+                radius[i] = Physics.getMergedRadius(radius[i], radius[j], mergedMass, mass[j]);
+                mass[i] = mergedMass;
+
+                // Remember the merge to notify the listeners
+                mergeEvents.add(new MergeEvent(ids[i], ids[j], mergedMass, radius[i], timeElapsed, steps));
+
+                // Mark the absorbed black hole to be removed
+                blackHoles.markRemoved(j);
+                merged = true;
+            }
+        }
+
+        // Remove the absorbed black holes from the store if there are any
+        if (merged) blackHoles.compact();
+    }
+
+    // The getReach method is used to get how far on the x axis a black hole can merge with another one, not counting the radius of the other one
+    private double getReach(final double radius, final double distanceToBeMergedMultiplier) {
+        // With a multiplier of 0 (or less), every black hole merges with every other one
+        if (distanceToBeMergedMultiplier <= 0) return Double.POSITIVE_INFINITY;
+        // Return half the radius divided by the multiplier
+        return radius * 1/2 / distanceToBeMergedMultiplier;
+    }
+
+    // The sort method is used to sort a range of the order array by the starts, with a quicksort that moves both arrays together
+    // https://en.wikipedia.org/wiki/Quicksort#Hoare_partition_scheme
+    private void sort(int low, int high) {
+        // Sort the biggest half with a loop and the smallest one with a recursion, so the recursion never goes deeper than log(n)
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            // Take the start in the middle of the range as the pivot
+            final double pivot = this.starts[(low + high) >>> 1];
+            int i = low - 1, j = high + 1;
+
+            // Move every start lower than the pivot to the left and every start higher than the pivot to the right
+            while (true) {
+                do i++; while (this.starts[i] < pivot);
+                do j--; while (this.starts[j] > pivot);
+                if (i >= j) break;
+                this.swap(i, j);
+            }
+
+            // Sort the smallest half recursively and continue with the biggest one
+            if (j - low < high - j) {
+                this.sort(low, j);
+                low = j + 1;
+            } else {
+                this.sort(j + 1, high);
+                high = j;
+            }
+        }
+
+        // Finish the small range with an insertion sort
+        for (int i = low + 1; i <= high; i++) {
+            for (int j = i; j > low && this.starts[j - 1] > this.starts[j]; j--) this.swap(j, j - 1);
+        }
+    }
+
+    // The swap method is used to swap two entries of both arrays of the sort
+    private void swap(final int i, final int j) {
+        // Swap the starts
+        final double start = this.starts[i];
+        this.starts[i] = this.starts[j];
+        this.starts[j] = start;
+        // Swap the indices
+        final int index = this.order[i];
+        this.order[i] = this.order[j];
+        this.order[j] = index;
+    }
+}
@@ -0,0 +1,121 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// The SimulationClock class is used to decide how many steps of the simulation are done for each rendered frame, so the speed of the physics doesn't depend on the speed of the rendering
+// In the FIXED_RATE mode, the time between two frames is added to an accumulator, and a fixed step is done for every 1 / stepsPerSecond of it, so a slow frame is caught up by the next one
+// In the AS_FAST_AS_POSSIBLE mode, stepsPerRender steps are done for every frame, whatever the time between the frames
+// https://gafferongames.com/post/fix_your_timestep/
+public class SimulationClock {
+    // The Mode enum is used to choose how the number of steps of a frame is decided
+    public enum Mode {
+        FIXED_RATE,
+        AS_FAST_AS_POSSIBLE
+    }
+
+    // The DEFAULT_STEPS_PER_RENDER constant is used to set how many steps are done for each frame in the AS_FAST_AS_POSSIBLE mode
+    public static final int DEFAULT_STEPS_PER_RENDER = 100;
+
+    // The MAX_FRAME_TIME constant is used to stop catching up after a very long frame (a breakpoint, a window being dragged...), in nanoseconds
+    // Without it, a long frame would need so many steps that the next frame would be even longer, and the simulation would never catch up
+    public static final long MAX_FRAME_TIME = 250_000_000L;
+
+    // The stepper variable is used to store the stepper that does the steps
+    private final SimulationStepper stepper;
+
+    // The mode variable is used to store how the number of steps of a frame is decided
+    private volatile Mode mode = Mode.FIXED_RATE;
+
+    // The stepsPerSecond variable is used to store the number of steps done per second of real time in the FIXED_RATE mode
+    private volatile double stepsPerSecond;
+
+    // The stepsPerRender variable is used to store the number of steps done for each frame in the AS_FAST_AS_POSSIBLE mode
+    private volatile int stepsPerRender = DEFAULT_STEPS_PER_RENDER;
+
+    // The accumulator variable is used to store the real time that has not been simulated yet, in nanoseconds
+    private long accumulator = 0L;
+
+    // The SimulationClock constructor is used to create a new clock doing the given number of steps per second of real time
+    public SimulationClock(final SimulationStepper stepper, final double stepsPerSecond) {
+        // Assign the parameters to the global variables
+        this.stepper = stepper;
+        this.setStepsPerSecond(stepsPerSecond);
+    }
+
+    // The advance method is used to do the steps matching the real time elapsed since the previous frame, it returns the number of steps done
+    public int advance(final long elapsedTime) {
+        // Get the number of steps of this frame
+        final int steps;
+        if (this.mode == Mode.AS_FAST_AS_POSSIBLE) {
+            // Do the same number of steps for every frame, nothing is left to catch up
+            steps = this.stepsPerRender;
+            this.accumulator = 0L;
+        } else {
+            // Add the elapsed time to the time left to simulate, without going over the maximum frame time
+            this.accumulator += Math.min(elapsedTime, MAX_FRAME_TIME);
+            // Do a step for every whole step duration in the accumulator, and keep the rest for the next frame
+            final double stepDuration = 1.0e9 / this.stepsPerSecond;
+            steps = (int) (this.accumulator / stepDuration);
+            this.accumulator -= (long) (steps * stepDuration);
+            // Never keep more than the maximum frame time to catch up
+            this.accumulator = Math.min(this.accumulator, MAX_FRAME_TIME);
+        }
+
+        // Do the steps, and stop as soon as the simulation is over
+        for (int i = 0; i < steps; i++) {
+            if (!this.stepper.step()) return i + 1;
+        }
+        // Return the number of steps done
+        return steps;
+    }
+
+    // The getStepper method is used to get the stepper that does the steps
+    public SimulationStepper getStepper() {
+        // Return the stepper
+        return this.stepper;
+    }
+
+    // The reset method is used to forget the time left to simulate, for example when the simulation is started again after a pause
+    public void reset() {
+        // Forget the time left to simulate
+        this.accumulator = 0L;
+    }
+
+    // The getMode method is used to get how the number of steps of a frame is decided
+    public Mode getMode() {
+        // Return the mode
+        return this.mode;
+    }
+
+    // The setMode method is used to set how the number of steps of a frame is decided
+    public void setMode(final Mode mode) {
+        // Assign the parameter to the global variable
+        this.mode = mode;
+    }
+
+    // The getStepsPerSecond method is used to get the number of steps done per second of real time in the FIXED_RATE mode
+    public double getStepsPerSecond() {
+        // Return the number of steps per second
+        return this.stepsPerSecond;
+    }
+
+    // The setStepsPerSecond method is used to set the number of steps done per second of real time in the FIXED_RATE mode
+    public void setStepsPerSecond(final double stepsPerSecond) {
+        // Check that the number of steps per second makes sense
+        if (stepsPerSecond <= 0) throw new IllegalArgumentException("The number of steps per second must be positive, got " + stepsPerSecond);
+        // Assign the parameter to the global variable
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    // The getStepsPerRender method is used to get the number of steps done for each frame in the AS_FAST_AS_POSSIBLE mode
+    public int getStepsPerRender() {
+        // Return the number of steps per render
+        return this.stepsPerRender;
+    }
+
+    // The setStepsPerRender method is used to set the number of steps done for each frame in the AS_FAST_AS_POSSIBLE mode
+    public void setStepsPerRender(final int stepsPerRender) {
+        // Check that the number of steps per render makes sense
+        if (stepsPerRender < 1) throw new IllegalArgumentException("At least one step must be done per render, got " + stepsPerRender);
+        // Assign the parameter to the global variable
+        this.stepsPerRender = stepsPerRender;
+    }
+}
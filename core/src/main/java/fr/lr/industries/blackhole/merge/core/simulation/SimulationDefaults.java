@@ -0,0 +1,33 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// The SimulationDefaults class is used to store the default settings of a simulation, so a headless run gets the same setup as the application
+public final class SimulationDefaults {
+    // Those constants are used to set the default settings of the black holes and their names are self-explanatory
+    public static final double DEFAULT_BLACK_HOLE_MASS = 5.0e15;
+    public static final double DEFAULT_BLACK_HOLE_RADIUS = 44.0; // 44 = LEWIS HAMILTON
+    public static final double DEFAULT_BLACK_HOLE_VELOCITY = 7.5;
+
+    // The DEFAULT_POSITION_DIFFERENCE_DIVIDER constant is used to get the distance of each black hole to the center of the simulation from its width
+    public static final double DEFAULT_POSITION_DIFFERENCE_DIVIDER = 2.5;
+
+    // The DEFAULT_TIME_STEP constant is used to set the default time step of the simulation
+    public static final double DEFAULT_TIME_STEP = 0.1;
+
+    // The DEFAULT_TIME_STEP_ACCURACY constant is used to set the fraction of the shortest time scale of the black holes used as the adaptive time step
+    public static final double DEFAULT_TIME_STEP_ACCURACY = 0.01;
+
+    // The DEFAULT_MIN_TIME_STEP and DEFAULT_MAX_TIME_STEP constants are used to bound the adaptive time step
+    public static final double DEFAULT_MIN_TIME_STEP = 1.0e-4;
+    public static final double DEFAULT_MAX_TIME_STEP = 10.0;
+
+    // The DEFAULT_DISTANCE_TO_BE_MERGED_MULTIPLIER constant is used to set the default distance to be merged multiplier
+    public static final double DEFAULT_DISTANCE_TO_BE_MERGED_MULTIPLIER = 0.9;
+
+    // The DEFAULT_SIMULATION_WIDTH and DEFAULT_SIMULATION_HEIGHT constants are used when there is no screen to get the size of the simulation from (80% and 90% of a 1920x1080 screen)
+    public static final double DEFAULT_SIMULATION_WIDTH = 1536.0;
+    public static final double DEFAULT_SIMULATION_HEIGHT = 972.0;
+
+    // The SimulationDefaults constructor is private because this class only contains constants
+    private SimulationDefaults() {
+    }
+}
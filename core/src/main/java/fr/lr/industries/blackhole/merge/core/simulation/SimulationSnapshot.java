@@ -0,0 +1,156 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.physics.Physics;
+
+// The SimulationSnapshot class is used to store an immutable copy of a simulation state, it is what the user interface renders
+public class SimulationSnapshot {
+    // The ids array is used to store the identifier of each black hole of the snapshot
+    private final int[] ids;
+
+    // Those arrays are used to store the values of each black hole, indexed the same way as the identifiers
+    private final double[] x, y, mass, radius, scaleFactor;
+
+    // The timeElapsed, steps, gravitationalWaveFrequency, strainPlus and strainCross variables are copied from the simulation state
+    private final double timeElapsed;
+    private final long steps;
+    private final double gravitationalWaveFrequency;
+    private final double strainPlus;
+    private final double strainCross;
+
+    // The SimulationSnapshot constructor is used to create a new snapshot, the arrays are owned by the snapshot
+    SimulationSnapshot(final int[] ids, final double[] x, final double[] y, final double[] mass, final double[] radius, final double[] scaleFactor, final double timeElapsed, final long steps, final double gravitationalWaveFrequency, final double strainPlus, final double strainCross) {
+        // Assign the parameters to the global variables
+        this.ids = ids;
+        this.x = x;
+        this.y = y;
+        this.mass = mass;
+        this.radius = radius;
+        this.scaleFactor = scaleFactor;
+        this.timeElapsed = timeElapsed;
+        this.steps = steps;
+        this.gravitationalWaveFrequency = gravitationalWaveFrequency;
+        this.strainPlus = strainPlus;
+        this.strainCross = strainCross;
+    }
+
+    // The getScaleFactor method is used to get the scale factor of a black hole caused by another black hole
+    static double getScaleFactor(final double x, final double y, final double mass, final double radius, final double otherX, final double otherY, final double otherRadius) {
+        // Get the distance between the black hole and the other black hole
+        final double distanceTo = Physics.getDistance(x, y, otherX, otherY);
+
+        // Check if the distance between the two black holes is 0 or if one of the black holes is inside the other one
+        if (distanceTo == 0 || distanceTo < Physics.getEventHorizonRadius(radius) || distanceTo < Physics.getEventHorizonRadius(otherRadius)) {
+            // If so, the scale factor is not changed
+            return 1.0;
+        }
+
+        // Calculate the scale factor between the black hole and the other black hole
+        // Calculated using the formula: 1 + F / d
+        // Where F is the gravitational force and d is the distance between the two black holes
+        return 1.0 + Physics.getForce(mass, distanceTo) / distanceTo;
+    }
+
+    // The getBlackHoleCount method is used to get the number of black holes in the snapshot
+    public int getBlackHoleCount() {
+        // Return the number of black holes
+        return this.x.length;
+    }
+
+    // The indexOf method is used to get the index of a black hole in the snapshot from its identifier, or -1 if it was not there anymore
+    public int indexOf(final int id) {
+        // Iterate through every black hole to find the identifier
+        for (int i = 0; i < this.ids.length; i++) if (this.ids[i] == id) return i;
+        // The black hole was not there anymore
+        return -1;
+    }
+
+    // The getX method is used to get the x position of a black hole
+    public double getX(final int index) {
+        // Return the x position of the black hole
+        return this.x[index];
+    }
+
+    // The getY method is used to get the y position of a black hole
+    public double getY(final int index) {
+        // Return the y position of the black hole
+        return this.y[index];
+    }
+
+    // The getMass method is used to get the mass of a black hole
+    public double getMass(final int index) {
+        // Return the mass of the black hole
+        return this.mass[index];
+    }
+
+    // The getRadius method is used to get the radius of a black hole
+    public double getRadius(final int index) {
+        // Return the radius of the black hole
+        return this.radius[index];
+    }
+
+    // The getEventHorizonRadius method is used to get the event horizon radius of a black hole
+    public double getEventHorizonRadius(final int index) {
+        // Return the event horizon radius of the black hole
+        return Physics.getEventHorizonRadius(this.radius[index]);
+    }
+
+    // The getScaleFactor method is used to get the scale factor of a black hole caused by the other black hole
+    public double getScaleFactor(final int index) {
+        // Return the scale factor of the black hole
+        return this.scaleFactor[index];
+    }
+
+    // The getDistance method is used to get the distance between a black hole and a point
+    public double getDistance(final int index, final double x, final double y) {
+        // Return the distance between the black hole and the point
+        return Physics.getDistance(this.x[index], this.y[index], x, y);
+    }
+
+    // The getForce method is used to get the force of a black hole on a point in space at a certain distance
+    public double getForce(final int index, final double distance) {
+        // Return the force of the black hole on the point
+        return Physics.getForce(this.mass[index], distance);
+    }
+
+    // The isInEventHorizon method is used to check whether a point in space is in the event horizon of a black hole
+    public boolean isInEventHorizon(final int index, final double x, final double y) {
+        // Return whether the point in space is in the event horizon of the black hole
+        return Math.pow(x - this.x[index], 2) + Math.pow(y - this.y[index], 2) <= Math.pow(this.getEventHorizonRadius(index), 2);
+    }
+
+    // The isFinished method is used to check whether the simulation was over when the snapshot was taken
+    public boolean isFinished() {
+        // The simulation is over when less than two black holes are left
+        return this.ids.length < 2;
+    }
+
+    // The getTimeElapsed method is used to get the simulated time of the snapshot
+    public double getTimeElapsed() {
+        // Return the simulated time of the snapshot
+        return this.timeElapsed;
+    }
+
+    // The getSteps method is used to get the number of steps done when the snapshot was taken
+    public long getSteps() {
+        // Return the number of steps
+        return this.steps;
+    }
+
+    // The getGravitationalWaveFrequency method is used to get the gravitational wave frequency of the snapshot
+    public double getGravitationalWaveFrequency() {
+        // Return the gravitational wave frequency
+        return this.gravitationalWaveFrequency;
+    }
+
+    // The getStrainPlus and getStrainCross methods are used to get the strain of the gravitational waves of the snapshot, h+ and hx
+    public double getStrainPlus() {
+        // Return h+
+        return this.strainPlus;
+    }
+
+    public double getStrainCross() {
+        // Return hx
+        return this.strainCross;
+    }
+}
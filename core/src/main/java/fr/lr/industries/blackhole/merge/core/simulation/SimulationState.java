@@ -0,0 +1,296 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import java.util.Arrays;
+import java.util.Random;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+import static fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults.*;
+
+// The SimulationState class is used to store everything that describes a simulation at a given time, it is updated by the SimulationStepper
+public class SimulationState {
+    // The blackHoles variable is used to store every black hole of the simulation as a structure of arrays
+    private final BlackHoleStore blackHoles;
+
+    // The timeStep variable is used to store the time step of the simulation
+    private double timeStep = DEFAULT_TIME_STEP;
+
+    // The adaptiveTimeStep variable is used to know whether the time step is chosen at every step from the black holes instead of using the fixed one
+    private boolean adaptiveTimeStep = false;
+
+    // The timeStepAccuracy, minTimeStep and maxTimeStep variables are used to choose the adaptive time step, see SimulationStepper.getAdaptiveTimeStep
+    private double timeStepAccuracy = DEFAULT_TIME_STEP_ACCURACY;
+    private double minTimeStep = DEFAULT_MIN_TIME_STEP;
+    private double maxTimeStep = DEFAULT_MAX_TIME_STEP;
+
+    // The lastTimeStep variable is used to store the duration of the last step, which changes at every step with an adaptive time step
+    private double lastTimeStep = 0.0;
+
+    // The distanceToBeMergedMultiplier variable is used to store the distance to be merged multiplier
+    private double distanceToBeMergedMultiplier = DEFAULT_DISTANCE_TO_BE_MERGED_MULTIPLIER;
+
+    // The timeElapsed variable is used to store the simulated time since the start of the simulation
+    private double timeElapsed = 0.0;
+
+    // The steps variable is used to store the number of steps done since the start of the simulation
+    private long steps = 0L;
+
+    // The gravitationalWaveFrequency variable is used to store the latest gravitational wave frequency
+    private double gravitationalWaveFrequency = 0.0;
+
+    // The strainPlus and strainCross variables are used to store the latest strain of the gravitational waves, h+ and hx
+    private double strainPlus = 0.0;
+    private double strainCross = 0.0;
+
+    // The SimulationState constructor is used to create a new simulation state from a store of black holes
+    public SimulationState(final BlackHoleStore blackHoles) {
+        // Assign the parameter to the global variable
+        this.blackHoles = blackHoles;
+    }
+
+    // The createDefault method is used to create a simulation state with the default black holes placed in a simulation of the given size
+    public static SimulationState createDefault(final double simulationWidth, final double simulationHeight) {
+        // Create the simulation state with room for two black holes
+        final SimulationState state = new SimulationState(new BlackHoleStore(2));
+        // Add the two default black holes
+        state.resetToDefault(simulationWidth, simulationHeight, DEFAULT_BLACK_HOLE_MASS, DEFAULT_BLACK_HOLE_RADIUS, DEFAULT_BLACK_HOLE_MASS, DEFAULT_BLACK_HOLE_RADIUS);
+        // Return the simulation state
+        return state;
+    }
+
+    // The createCluster method is used to create a simulation state with a cluster of black holes slowly rotating around the center of a simulation of the given size
+    public static SimulationState createCluster(final int blackHoleCount, final double simulationWidth, final double simulationHeight, final long seed) {
+        // Create the simulation state with room for every black hole
+        final SimulationState state = new SimulationState(new BlackHoleStore(blackHoleCount));
+        // Create a random generator from the seed, so the same seed always gives the same cluster
+        final Random random = new Random(seed);
+        // The cluster is a disc that fits in the simulation
+        final double clusterRadius = Math.min(simulationWidth, simulationHeight) / 2;
+        // The mass and the radius of the two default black holes are spread over the whole cluster, merges make the radii grow fast enough
+        final double mass = 2 * DEFAULT_BLACK_HOLE_MASS / blackHoleCount;
+        final double radius = 2 * DEFAULT_BLACK_HOLE_RADIUS / blackHoleCount;
+        // The angular velocity that keeps a uniform disc of that mass in rotation
+        // Calculated using the formula: sqrt(G * M / R^3), since the mass inside a radius r of a uniform disc is M * r^2 / R^2
+        final double angularVelocity = Math.sqrt(G * 2 * DEFAULT_BLACK_HOLE_MASS / Math.pow(clusterRadius, 3));
+
+        // Add every black hole of the cluster
+        for (int i = 0; i < blackHoleCount; i++) {
+            // Pick a random position in the disc, using the square root to get a uniform density
+            final double distance = clusterRadius * Math.sqrt(random.nextDouble());
+            final double angle = 2 * Math.PI * random.nextDouble();
+            // Give the black hole a velocity perpendicular to its position so the cluster rotates around its center
+            final double speed = angularVelocity * distance;
+            // Add the black hole to the store
+            state.blackHoles.add(
+                    simulationWidth / 2 + distance * Math.cos(angle),
+                    simulationHeight / 2 + distance * Math.sin(angle),
+                    -speed * Math.sin(angle),
+                    speed * Math.cos(angle),
+                    mass,
+                    radius
+            );
+        }
+
+        // Return the simulation state
+        return state;
+    }
+
+    // The resetToDefault method is used to replace every black hole by the two default black holes with the given masses and radii, and reset the time
+    public void resetToDefault(final double simulationWidth, final double simulationHeight, final double mass1, final double radius1, final double mass2, final double radius2) {
+        // Reset the black holes with the default velocity
+        this.resetToDefault(simulationWidth, simulationHeight, mass1, radius1, mass2, radius2, DEFAULT_BLACK_HOLE_VELOCITY);
+    }
+
+    // The resetToDefault method is used to replace every black hole by the two default black holes with the given masses, radii and velocity on each axis, and reset the time
+    public void resetToDefault(final double simulationWidth, final double simulationHeight, final double mass1, final double radius1, final double mass2, final double radius2, final double velocity) {
+        // Calculate the distance of each black hole to the center of the simulation
+        final double positionDifference = simulationWidth / DEFAULT_POSITION_DIFFERENCE_DIVIDER;
+
+        // Remove every black hole, so the two new ones get the identifiers 0 and 1
+        this.blackHoles.clear();
+        // Add the first black hole on the left, going down and to the right
+        this.blackHoles.add(simulationWidth / 2 - positionDifference, simulationHeight / 2, velocity, velocity, mass1, radius1);
+        // Add the second black hole on the right, going up and to the left
+        this.blackHoles.add(simulationWidth / 2 + positionDifference, simulationHeight / 2, -velocity, -velocity, mass2, radius2);
+
+        // Reset the time elapsed, the steps and the gravitational wave frequency
+        this.resetTime();
+    }
+
+    // The getBlackHoles method is used to get the store of every black hole of the simulation
+    public BlackHoleStore getBlackHoles() {
+        // Return the store of the black holes
+        return this.blackHoles;
+    }
+
+    // The getTimeStep method is used to get the time step of the simulation
+    public double getTimeStep() {
+        // Return the time step of the simulation
+        return this.timeStep;
+    }
+
+    // The setTimeStep method is used to set the time step of the simulation
+    public void setTimeStep(final double timeStep) {
+        // Assign the parameter to the time step of the simulation
+        this.timeStep = timeStep;
+    }
+
+    // The isAdaptiveTimeStep method is used to check whether the time step is chosen at every step from the black holes
+    public boolean isAdaptiveTimeStep() {
+        // Return whether the time step is adaptive
+        return this.adaptiveTimeStep;
+    }
+
+    // The setAdaptiveTimeStep method is used to choose between the adaptive time step and the fixed one
+    public void setAdaptiveTimeStep(final boolean adaptiveTimeStep) {
+        // Assign the parameter to the global variable
+        this.adaptiveTimeStep = adaptiveTimeStep;
+    }
+
+    // The getTimeStepAccuracy method is used to get the fraction of the shortest time scale of the black holes used as the adaptive time step
+    public double getTimeStepAccuracy() {
+        // Return the accuracy of the adaptive time step
+        return this.timeStepAccuracy;
+    }
+
+    // The setTimeStepAccuracy method is used to set the fraction of the shortest time scale of the black holes used as the adaptive time step, the smaller the more accurate
+    public void setTimeStepAccuracy(final double timeStepAccuracy) {
+        // Assign the parameter to the global variable
+        this.timeStepAccuracy = timeStepAccuracy;
+    }
+
+    // The getMinTimeStep method is used to get the smallest adaptive time step
+    public double getMinTimeStep() {
+        // Return the smallest adaptive time step
+        return this.minTimeStep;
+    }
+
+    // The getMaxTimeStep method is used to get the biggest adaptive time step
+    public double getMaxTimeStep() {
+        // Return the biggest adaptive time step
+        return this.maxTimeStep;
+    }
+
+    // The setTimeStepBounds method is used to set the smallest and the biggest adaptive time steps
+    public void setTimeStepBounds(final double minTimeStep, final double maxTimeStep) {
+        // Check that the bounds make sense
+        if (minTimeStep <= 0 || maxTimeStep < minTimeStep) throw new IllegalArgumentException("Invalid time step bounds: " + minTimeStep + " to " + maxTimeStep);
+        // Assign the parameters to the global variables
+        this.minTimeStep = minTimeStep;
+        this.maxTimeStep = maxTimeStep;
+    }
+
+    // The getLastTimeStep method is used to get the duration of the last step
+    public double getLastTimeStep() {
+        // Return the duration of the last step
+        return this.lastTimeStep;
+    }
+
+    // The getDistanceToBeMergedMultiplier method is used to get the distance to be merged multiplier
+    public double getDistanceToBeMergedMultiplier() {
+        // Return the distance to be merged multiplier
+        return this.distanceToBeMergedMultiplier;
+    }
+
+    // The setDistanceToBeMergedMultiplier method is used to set the distance to be merged multiplier
+    public void setDistanceToBeMergedMultiplier(final double distanceToBeMergedMultiplier) {
+        // Assign the parameter to the distance to be merged multiplier
+        this.distanceToBeMergedMultiplier = distanceToBeMergedMultiplier;
+    }
+
+    // The getTimeElapsed method is used to get the simulated time since the start of the simulation
+    public double getTimeElapsed() {
+        // Return the simulated time since the start of the simulation
+        return this.timeElapsed;
+    }
+
+    // The getSteps method is used to get the number of steps done since the start of the simulation
+    public long getSteps() {
+        // Return the number of steps done since the start of the simulation
+        return this.steps;
+    }
+
+    // The getGravitationalWaveFrequency method is used to get the latest gravitational wave frequency
+    public double getGravitationalWaveFrequency() {
+        // Return the latest gravitational wave frequency
+        return this.gravitationalWaveFrequency;
+    }
+
+    // The setGravitationalWaveFrequency method is used to set the latest gravitational wave frequency
+    public void setGravitationalWaveFrequency(final double gravitationalWaveFrequency) {
+        // Assign the parameter to the latest gravitational wave frequency
+        this.gravitationalWaveFrequency = gravitationalWaveFrequency;
+    }
+
+    // The getStrainPlus and getStrainCross methods are used to get the latest strain of the gravitational waves, h+ and hx
+    public double getStrainPlus() {
+        // Return the latest h+
+        return this.strainPlus;
+    }
+
+    public double getStrainCross() {
+        // Return the latest hx
+        return this.strainCross;
+    }
+
+    // The setStrain method is used to set the latest strain of the gravitational waves
+    public void setStrain(final double strainPlus, final double strainCross) {
+        // Assign the parameters to the latest strain
+        this.strainPlus = strainPlus;
+        this.strainCross = strainCross;
+    }
+
+    // The isFinished method is used to check whether the simulation is over, which is the case when less than two black holes are left
+    public boolean isFinished() {
+        // The simulation is over as soon as there is nothing left to merge with
+        return this.blackHoles.getCount() < 2;
+    }
+
+    // The advanceTime method is used by the stepper to count a step of the given duration
+    void advanceTime(final double timeStep) {
+        // Add the time step to the time elapsed and count the step
+        this.timeElapsed += timeStep;
+        this.lastTimeStep = timeStep;
+        this.steps++;
+    }
+
+    // The resetTime method is used to reset the time elapsed, the steps, the gravitational wave frequency and the strain
+    public void resetTime() {
+        // Reset everything that has been computed since the start of the simulation
+        this.timeElapsed = 0.0;
+        this.steps = 0L;
+        this.lastTimeStep = 0.0;
+        this.gravitationalWaveFrequency = 0.0;
+        this.strainPlus = 0.0;
+        this.strainCross = 0.0;
+    }
+
+    // The snapshot method is used to get an immutable copy of the state that can be rendered
+    public SimulationSnapshot snapshot() {
+        // Get the number of black holes and the live arrays of the store
+        final int count = this.blackHoles.getCount();
+        final double[] x = this.blackHoles.getX(), y = this.blackHoles.getY(), mass = this.blackHoles.getMass(), radius = this.blackHoles.getRadius();
+
+        // The scale factor of every black hole is 1 except for the two black holes of the primary binary that deform each other
+        final double[] scaleFactor = new double[count];
+        Arrays.fill(scaleFactor, 1.0);
+        if (count >= 2) {
+            scaleFactor[0] = SimulationSnapshot.getScaleFactor(x[0], y[0], mass[0], radius[0], x[1], y[1], radius[1]);
+            scaleFactor[1] = SimulationSnapshot.getScaleFactor(x[1], y[1], mass[1], radius[1], x[0], y[0], radius[0]);
+        }
+
+        // Create the snapshot from copies of the live arrays
+        return new SimulationSnapshot(
+                Arrays.copyOf(this.blackHoles.getIds(), count),
+                Arrays.copyOf(x, count),
+                Arrays.copyOf(y, count),
+                Arrays.copyOf(mass, count),
+                Arrays.copyOf(radius, count),
+                scaleFactor,
+                this.timeElapsed,
+                this.steps,
+                this.gravitationalWaveFrequency,
+                this.strainPlus,
+                this.strainCross
+        );
+    }
+}
@@ -0,0 +1,186 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.integrator.Integrator;
+import fr.lr.industries.blackhole.merge.core.integrator.SemiImplicitEulerIntegrator;
+import fr.lr.industries.blackhole.merge.core.physics.Physics;
+import fr.lr.industries.blackhole.merge.core.solver.DirectForceSolver;
+import fr.lr.industries.blackhole.merge.core.solver.ForceSolver;
+import fr.lr.industries.blackhole.merge.core.waves.StrainGenerator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The SimulationStepper class is used to advance a simulation state step by step, it works with or without a display and with any number of black holes
+public class SimulationStepper {
+    // The GRAVITATIONAL_WAVE_FREQUENCY_MULTIPLIER constant is used to get a better frequency to listen to
+    public static final double GRAVITATIONAL_WAVE_FREQUENCY_MULTIPLIER = 1.0e4;
+
+    // The state variable is used to store the simulation state updated by this stepper
+    private final SimulationState state;
+
+    // The mergeResolver variable is used to find and merge the black holes that are close enough
+    private final MergeResolver mergeResolver = new MergeResolver();
+
+    // The forceSolver variable is used to calculate the accelerations of the black holes, it can be changed while the simulation is running
+    private volatile ForceSolver forceSolver = new DirectForceSolver();
+
+    // The integrator variable is used to move the black holes from their accelerations, it can be changed while the simulation is running
+    private volatile Integrator integrator = new SemiImplicitEulerIntegrator();
+
+    // The strainGenerator variable is used to calculate the strain of the gravitational waves after every step, and to keep its last values
+    private final StrainGenerator strainGenerator = new StrainGenerator();
+
+    // The mergeListeners variable is used to store the listeners notified when two black holes are merged
+    private final List<MergeListener> mergeListeners = new CopyOnWriteArrayList<>();
+
+    // The pendingMergeEvents variable is used to store the merges of the current step until the step is over, it is reused between steps
+    private final List<MergeEvent> pendingMergeEvents = new ArrayList<>();
+
+    // The SimulationStepper constructor is used to create a new stepper for a simulation state
+    public SimulationStepper(final SimulationState state) {
+        // Assign the parameter to the global variable
+        this.state = state;
+    }
+
+    // The getStrainGenerator method is used to get the generator of the strain of the gravitational waves, with the history of its last values
+    public StrainGenerator getStrainGenerator() {
+        // Return the strain generator
+        return this.strainGenerator;
+    }
+
+    // The getState method is used to get the simulation state updated by this stepper
+    public SimulationState getState() {
+        // Return the simulation state
+        return this.state;
+    }
+
+    // The getForceSolver method is used to get the solver used to calculate the accelerations
+    public ForceSolver getForceSolver() {
+        // Return the force solver
+        return this.forceSolver;
+    }
+
+    // The setForceSolver method is used to change the solver used to calculate the accelerations, the next step uses the new one
+    public void setForceSolver(final ForceSolver forceSolver) {
+        // Assign the parameter to the global variable, a step can't be done without a solver
+        this.forceSolver = Objects.requireNonNull(forceSolver, "forceSolver");
+    }
+
+    // The getIntegrator method is used to get the integrator used to move the black holes
+    public Integrator getIntegrator() {
+        // Return the integrator
+        return this.integrator;
+    }
+
+    // The setIntegrator method is used to change the integrator used to move the black holes, the next step uses the new one
+    public void setIntegrator(final Integrator integrator) {
+        // Assign the parameter to the global variable, a step can't be done without an integrator
+        this.integrator = Objects.requireNonNull(integrator, "integrator");
+    }
+
+    // The addMergeListener method is used to add a listener notified when two black holes are merged
+    public void addMergeListener(final MergeListener mergeListener) {
+        // Add the listener to the list of listeners
+        this.mergeListeners.add(mergeListener);
+    }
+
+    // The removeMergeListener method is used to remove a listener notified when two black holes are merged
+    public void removeMergeListener(final MergeListener mergeListener) {
+        // Remove the listener from the list of listeners
+        this.mergeListeners.remove(mergeListener);
+    }
+
+    // The step method is used to advance the simulation by one time step, it returns false once there is only one black hole left
+    public boolean step() {
+        // If there is nothing left to merge with, there is nothing left to do
+        if (this.state.isFinished()) return false;
+
+        // Get the time step of the simulation, chosen from the black holes if it is adaptive
+        final double timeStep = this.state.isAdaptiveTimeStep() ? this.getAdaptiveTimeStep() : this.state.getTimeStep();
+
+        // Merge the black holes that are close enough, the merged ones are removed from the store
+        this.mergeResolver.resolve(this.state.getBlackHoles(), this.state.getDistanceToBeMergedMultiplier(), this.state.getTimeElapsed() + timeStep, this.state.getSteps() + 1, this.pendingMergeEvents);
+
+        // Only move the black holes if there are still at least two of them, a merge ends the binary simulation right away
+        if (!this.state.isFinished()) {
+            // Update the velocity and the position of every black hole, the integrator asks the solver for the gravitational forces between the black holes
+            this.integrator.step(this.state.getBlackHoles(), this.forceSolver, timeStep);
+            // Calculate the gravitational wave frequency of the primary binary
+            this.updateGravitationalWaveFrequency();
+            // Calculate the strain of the gravitational waves of the black holes
+            this.strainGenerator.record(this.state.getBlackHoles(), timeStep);
+            this.state.setStrain(this.strainGenerator.getPlus(), this.strainGenerator.getCross());
+        }
+
+        // Count the step
+        this.state.advanceTime(timeStep);
+
+        // Notify every listener of the merges of this step, now that the store is compacted and the step is counted
+        for (final MergeEvent event : this.pendingMergeEvents) {
+            for (final MergeListener mergeListener : this.mergeListeners) mergeListener.onMerge(event);
+        }
+        this.pendingMergeEvents.clear();
+
+        // The simulation is running as long as there are at least two black holes
+        return !this.state.isFinished();
+    }
+
+    // The run method is used to step the simulation until there is only one black hole left or until the maximum number of steps is reached, it returns the number of steps done
+    public long run(final long maxSteps) {
+        // Count the steps done by this call
+        long steps = 0L;
+        // Step the simulation as long as it is running and the maximum number of steps is not reached
+        while (steps < maxSteps && !this.state.isFinished()) {
+            // Do a single step and count it
+            this.step();
+            steps++;
+        }
+        // Return the number of steps done
+        return steps;
+    }
+
+    // The getAdaptiveTimeStep method is used to choose a time step from the shortest time scale of the black holes
+    // The time scale of a black hole is the time its velocity takes to change by its own size: |v| / |a|, which is about a sixth of an orbit
+    // It is never shorter than the time it takes to fall its own radius from rest: sqrt(r / |a|), so a black hole that is not moving yet doesn't make the step 0
+    // It shrinks the step when the black holes get close (their acceleration grows with 1 / d^2) and grows it when they are far apart
+    // https://en.wikipedia.org/wiki/Adaptive_step_size
+    private double getAdaptiveTimeStep() {
+        // Get the store and make sure its accelerations match the current positions, the integrators reuse them if they can
+        final BlackHoleStore blackHoles = this.state.getBlackHoles();
+        if (!blackHoles.areAccelerationsValid()) {
+            this.forceSolver.computeAccelerations(blackHoles);
+            blackHoles.setAccelerationsValid(true);
+        }
+
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] vx = blackHoles.getVx(), vy = blackHoles.getVy(), ax = blackHoles.getAx(), ay = blackHoles.getAy(), radius = blackHoles.getRadius();
+
+        // Find the shortest time scale, compared squared so only one square root is needed at the end
+        double shortestTimeScaleSquared = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            final double accelerationSquared = ax[i] * ax[i] + ay[i] * ay[i];
+            // A black hole that is not pulled can't limit the time step
+            if (accelerationSquared == 0) continue;
+            // Get the squared time scales: v^2 / a^2 and r / |a|
+            final double velocityTimeScaleSquared = (vx[i] * vx[i] + vy[i] * vy[i]) / accelerationSquared;
+            final double fallTimeScaleSquared = radius[i] / Math.sqrt(accelerationSquared);
+            shortestTimeScaleSquared = Math.min(shortestTimeScaleSquared, Math.max(velocityTimeScaleSquared, fallTimeScaleSquared));
+        }
+
+        // Return the fraction of the shortest time scale, within the bounds of the simulation
+        return Math.min(this.state.getMaxTimeStep(), Math.max(this.state.getMinTimeStep(), this.state.getTimeStepAccuracy() * Math.sqrt(shortestTimeScaleSquared)));
+    }
+
+    // The updateGravitationalWaveFrequency method is used to calculate the gravitational wave frequency of the primary binary, made of the first two black holes of the store
+    private void updateGravitationalWaveFrequency() {
+        // Get the store and its live arrays
+        final BlackHoleStore blackHoles = this.state.getBlackHoles();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), mass = blackHoles.getMass();
+
+        // Calculate the gravitational wave frequency and assign it to the gravitational wave frequency of the simulation
+        this.state.setGravitationalWaveFrequency(Physics.getGravitationalWavesFrequency(mass[0], mass[1], Physics.getDistance(x[0], y[0], x[1], y[1])) * GRAVITATIONAL_WAVE_FREQUENCY_MULTIPLIER);
+    }
+}
@@ -0,0 +1,125 @@
+package fr.lr.industries.blackhole.merge.core.simulation;
+
+// Import the required classes and packages
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+// The SimulationWorker class is used to step a simulation on its own thread, so a slow frame doesn't slow the simulation down and a long step doesn't freeze the display
+// After every batch of steps, the worker publishes an immutable snapshot of the state, that the display reads without ever waiting for the worker
+// Anything else that changes the state (sliders, reset...) must go through the update method, which runs it between two batches of steps
+public class SimulationWorker {
+    // The MIN_WAIT_TIME constant is used to set the shortest time the worker sleeps between two batches of steps in the FIXED_RATE mode, in nanoseconds
+    private static final long MIN_WAIT_TIME = 1_000_000L;
+
+    // The clock variable is used to store the clock deciding how many steps are done for each batch
+    private final SimulationClock clock;
+
+    // The state variable is used to store the state updated by the worker
+    private final SimulationState state;
+
+    // The snapshot variable is used to store the latest published snapshot, it is replaced atomically so reading it never blocks
+    private final AtomicReference<SimulationSnapshot> snapshot;
+
+    // The lock variable is used to make sure the state is never changed while a batch of steps is running
+    private final Object lock = new Object();
+
+    // The running variable is used to know whether the worker is stepping the simulation or waiting to be started
+    private volatile boolean running = false;
+
+    // The thread variable is used to store the thread of the worker, it is created the first time the worker is started
+    private Thread thread;
+
+    // The SimulationWorker constructor is used to create a new worker stepping the simulation of a clock
+    public SimulationWorker(final SimulationClock clock) {
+        // Assign the parameter to the global variables
+        this.clock = clock;
+        this.state = clock.getStepper().getState();
+        // Publish a first snapshot, so there is always something to display
+        this.snapshot = new AtomicReference<>(this.state.snapshot());
+    }
+
+    // The getSnapshot method is used to get the latest published snapshot, it never blocks
+    public SimulationSnapshot getSnapshot() {
+        // Return the latest published snapshot
+        return this.snapshot.get();
+    }
+
+    // The start method is used to start (or resume) stepping the simulation, the time spent paused is not caught up
+    public synchronized void start() {
+        // Forget the time left to simulate before the pause
+        synchronized (this.lock) {
+            this.clock.reset();
+        }
+        this.running = true;
+
+        // Create the thread the first time, as a daemon so it doesn't keep the application alive
+        if (this.thread == null) {
+            this.thread = new Thread(this::run, "simulation-worker");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+        // Wake the thread up if it is waiting
+        LockSupport.unpark(this.thread);
+    }
+
+    // The pause method is used to stop stepping the simulation, it returns once the current batch of steps is over
+    public void pause() {
+        // Ask the worker to stop
+        this.running = false;
+        // Wait for the current batch of steps to be over
+        synchronized (this.lock) {
+            // Nothing to do, getting the lock is enough to know that no step is running anymore
+        }
+    }
+
+    // The isRunning method is used to check whether the worker is stepping the simulation
+    public boolean isRunning() {
+        // Return whether the worker is running
+        return this.running;
+    }
+
+    // The isFinished method is used to check whether the simulation is over, waiting for the current batch of steps to be over
+    public boolean isFinished() {
+        // Read the state between two batches of steps
+        synchronized (this.lock) {
+            return this.state.isFinished();
+        }
+    }
+
+    // The update method is used to change the state between two batches of steps, a new snapshot is published right after, so it is visible as soon as this method returns
+    public void update(final Runnable command) {
+        // Run the command while no step is running, and publish its result
+        synchronized (this.lock) {
+            command.run();
+            this.snapshot.set(this.state.snapshot());
+        }
+    }
+
+    // The run method is the loop of the thread of the worker
+    private void run() {
+        // The lastTime variable is used to store the time of the previous batch of steps
+        long lastTime = System.nanoTime();
+
+        while (true) {
+            // Wait to be started, the time spent waiting is not simulated
+            if (!this.running) {
+                LockSupport.park(this);
+                lastTime = System.nanoTime();
+                continue;
+            }
+
+            // Do the steps of the time elapsed since the previous batch and publish the new state
+            final long now = System.nanoTime();
+            synchronized (this.lock) {
+                if (this.running && this.clock.advance(now - lastTime) > 0) this.snapshot.set(this.state.snapshot());
+                // There is nothing left to step once the black holes are all merged
+                if (this.state.isFinished()) this.running = false;
+            }
+            lastTime = now;
+
+            // Wait for the next steps to be due, or let the other threads run if the simulation goes as fast as possible
+            if (this.clock.getMode() == SimulationClock.Mode.FIXED_RATE) LockSupport.parkNanos(this, Math.max(MIN_WAIT_TIME, (long) (1.0e9 / this.clock.getStepsPerSecond())));
+            else Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package fr.lr.industries.blackhole.merge.core.solver;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import java.util.Arrays;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The BarnesHutForceSolver class is used to calculate the accelerations with a Barnes-Hut quadtree, it costs O(N log N) instead of O(N^2)
+// A group of black holes that is far enough from a black hole pulls it as a single black hole placed at its center of mass
+// https://en.wikipedia.org/wiki/Barnes%E2%80%93Hut_simulation
+// The nodes of the tree are stored in primitive arrays that are kept between steps, so building the tree does not allocate anything once they are big enough
+public class BarnesHutForceSolver implements ForceSolver {
+    // The NAME constant is used to identify this solver
+    public static final String NAME = "barnes-hut";
+
+    // The DEFAULT_THETA constant is used to set the default opening angle, 0.5 is the usual trade-off between speed and accuracy
+    public static final double DEFAULT_THETA = 0.5;
+
+    // The MAX_DEPTH constant is used to stop subdividing the tree when black holes are (almost) at the same place
+    private static final int MAX_DEPTH = 48;
+
+    // The EMPTY and AGGREGATED constants are the special values of the nodeBody array
+    private static final int EMPTY = -1;      // The node is an empty leaf, or an internal node
+    private static final int AGGREGATED = -2; // The node is a leaf at the maximum depth holding more than one black hole
+
+    // The theta variable is used to store the opening angle, a node is opened when its size divided by its distance is bigger than theta
+    private double theta;
+
+    // Those arrays are used to store the nodes of the tree, the four children of a node are stored next to each other starting at nodeFirstChild
+    private double[] nodeCenterX, nodeCenterY, nodeHalfSize, nodeMass, nodeMassX, nodeMassY;
+    private int[] nodeFirstChild, nodeBody;
+
+    // The nodeCount variable is used to store the number of nodes used by the current tree
+    private int nodeCount = 0;
+
+    // The stack variable is used to walk the tree without recursion, it is reused for every black hole
+    private final int[] stack = new int[4 * MAX_DEPTH + 4];
+
+    // The BarnesHutForceSolver constructor is used to create a new solver with the default opening angle
+    public BarnesHutForceSolver() {
+        // Create the solver with the default opening angle
+        this(DEFAULT_THETA);
+    }
+
+    // The BarnesHutForceSolver constructor is used to create a new solver with the given opening angle
+    public BarnesHutForceSolver(final double theta) {
+        // Assign the parameter to the global variable
+        this.setTheta(theta);
+        // Allocate a first pool of nodes, it grows when a tree needs more
+        this.allocateNodes(64);
+    }
+
+    // The getTheta method is used to get the opening angle
+    public double getTheta() {
+        // Return the opening angle
+        return this.theta;
+    }
+
+    // The setTheta method is used to set the opening angle, 0 makes the solver as exact (and as slow) as the direct one
+    public void setTheta(final double theta) {
+        // Check that the opening angle makes sense
+        if (theta < 0) throw new IllegalArgumentException("The opening angle must be positive, got " + theta);
+        // Assign the parameter to the opening angle
+        this.theta = theta;
+    }
+
+    // The getNodeCount method is used to get the number of nodes of the last built tree
+    public int getNodeCount() {
+        // Return the number of nodes
+        return this.nodeCount;
+    }
+
+    // The computeAccelerations method is used to build the tree from the black holes and walk it for every black hole
+    @Override
+    public void computeAccelerations(final BlackHoleStore blackHoles) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), ax = blackHoles.getAx(), ay = blackHoles.getAy(), mass = blackHoles.getMass();
+
+        // Reset the accelerations
+        blackHoles.clearAccelerations();
+        // Without at least two black holes, nobody is pulled
+        if (count < 2) return;
+
+        // Build the tree of the black holes
+        this.build(x, y, mass, count);
+
+        // Get the squared opening angle, so the criterion can be checked without any square root
+        final double thetaSquared = this.theta * this.theta;
+
+        // Walk the tree for every black hole
+        for (int i = 0; i < count; i++) {
+            // Keep the position of the current black hole in local variables
+            final double xi = x[i], yi = y[i];
+            double axi = 0, ayi = 0;
+
+            // Start the walk from the root of the tree
+            int stackSize = 0;
+            this.stack[stackSize++] = 0;
+
+            while (stackSize > 0) {
+                // Take the next node to visit
+                final int node = this.stack[--stackSize];
+                // Skip the empty nodes and the current black hole itself
+                if (this.nodeMass[node] == 0 || this.nodeBody[node] == i) continue;
+
+                // Get the vector to the center of mass of the node and its squared length
+                final double dx = this.nodeMassX[node] - xi;
+                final double dy = this.nodeMassY[node] - yi;
+                final double distanceSquared = dx * dx + dy * dy;
+
+                // Check if the node is a leaf, or if it is far enough to be seen as a single black hole
+                // The criterion is: size / distance < theta, with both sides squared
+                final double size = 2 * this.nodeHalfSize[node];
+                if (this.nodeFirstChild[node] < 0 || size * size < thetaSquared * distanceSquared) {
+                    // A black hole at the same place can't pull in any direction
+                    if (distanceSquared == 0) continue;
+                    // Accumulate the pull of the node using G * m / r^3 * (dx, dy)
+                    final double inverseDistance = 1.0 / Math.sqrt(distanceSquared);
+                    final double factor = G * this.nodeMass[node] * inverseDistance * inverseDistance * inverseDistance;
+                    axi += factor * dx;
+                    ayi += factor * dy;
+                } else {
+                    // The node is too close, so visit its four children instead
+                    final int firstChild = this.nodeFirstChild[node];
+                    this.stack[stackSize++] = firstChild;
+                    this.stack[stackSize++] = firstChild + 1;
+                    this.stack[stackSize++] = firstChild + 2;
+                    this.stack[stackSize++] = firstChild + 3;
+                }
+            }
+
+            // Assign the accumulated acceleration to the current black hole
+            ax[i] = axi;
+            ay[i] = ayi;
+        }
+    }
+
+    // The build method is used to build the tree of the black holes, reusing the nodes of the previous tree
+    private void build(final double[] x, final double[] y, final double[] mass, final int count) {
+        // Get the bounding box of every black hole
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, x[i]);
+            minY = Math.min(minY, y[i]);
+            maxX = Math.max(maxX, x[i]);
+            maxY = Math.max(maxY, y[i]);
+        }
+
+        // Create the root node as the square containing the bounding box, slightly bigger so that no black hole is on its border
+        this.nodeCount = 0;
+        final double halfSize = Math.max(maxX - minX, maxY - minY) / 2 * 1.0001 + Double.MIN_NORMAL;
+        this.newNode((minX + maxX) / 2, (minY + maxY) / 2, halfSize);
+
+        // Insert every black hole in the tree
+        for (int i = 0; i < count; i++) this.insert(i, x, y, mass);
+
+        // Turn the mass-weighted positions of every node into its center of mass
+        for (int node = 0; node < this.nodeCount; node++) {
+            if (this.nodeMass[node] == 0) continue;
+            this.nodeMassX[node] /= this.nodeMass[node];
+            this.nodeMassY[node] /= this.nodeMass[node];
+        }
+    }
+
+    // The insert method is used to insert a black hole in the tree, adding its mass to every node it goes through
+    private void insert(final int body, final double[] x, final double[] y, final double[] mass) {
+        // Start from the root of the tree
+        int node = 0;
+        int depth = 0;
+
+        while (true) {
+            // Add the black hole to the mass and the mass-weighted position of the node
+            this.nodeMass[node] += mass[body];
+            this.nodeMassX[node] += mass[body] * x[body];
+            this.nodeMassY[node] += mass[body] * y[body];
+
+            // If the node is an internal node, go down into the child containing the black hole
+            if (this.nodeFirstChild[node] >= 0) {
+                node = this.childContaining(node, x[body], y[body]);
+                depth++;
+                continue;
+            }
+
+            // If the leaf is empty, the black hole simply takes it
+            if (this.nodeBody[node] == EMPTY) {
+                this.nodeBody[node] = body;
+                return;
+            }
+
+            // If the leaf is already at the maximum depth, it holds every black hole that gets there as a single one
+            if (depth >= MAX_DEPTH || this.nodeBody[node] == AGGREGATED) {
+                this.nodeBody[node] = AGGREGATED;
+                return;
+            }
+
+            // Otherwise, the leaf holds another black hole, so it is split into four children and the other black hole is moved down
+            final int other = this.nodeBody[node];
+            this.subdivide(node);
+            final int otherChild = this.childContaining(node, x[other], y[other]);
+            this.nodeMass[otherChild] += mass[other];
+            this.nodeMassX[otherChild] += mass[other] * x[other];
+            this.nodeMassY[otherChild] += mass[other] * y[other];
+            this.nodeBody[otherChild] = other;
+
+            // Continue with the child containing the new black hole
+            node = this.childContaining(node, x[body], y[body]);
+            depth++;
+        }
+    }
+
+    // The subdivide method is used to turn a leaf into an internal node with four empty children
+    private void subdivide(final int node) {
+        // Get the center and the size of the children
+        final double quarterSize = this.nodeHalfSize[node] / 2;
+        final double centerX = this.nodeCenterX[node], centerY = this.nodeCenterY[node];
+
+        // Create the four children next to each other: top left, top right, bottom left and bottom right
+        final int firstChild = this.newNode(centerX - quarterSize, centerY - quarterSize, quarterSize);
+        this.newNode(centerX + quarterSize, centerY - quarterSize, quarterSize);
+        this.newNode(centerX - quarterSize, centerY + quarterSize, quarterSize);
+        this.newNode(centerX + quarterSize, centerY + quarterSize, quarterSize);
+
+        // The node is now an internal node
+        this.nodeFirstChild[node] = firstChild;
+        this.nodeBody[node] = EMPTY;
+    }
+
+    // The childContaining method is used to get the child of an internal node that contains a point
+    private int childContaining(final int node, final double x, final double y) {
+        // Pick the child using the side of the center the point is on
+        return this.nodeFirstChild[node] + (x >= this.nodeCenterX[node] ? 1 : 0) + (y >= this.nodeCenterY[node] ? 2 : 0);
+    }
+
+    // The newNode method is used to take a new empty leaf from the pool of nodes, it returns its index
+    private int newNode(final double centerX, final double centerY, final double halfSize) {
+        // Grow the pool of nodes if it is full
+        if (this.nodeCount == this.nodeMass.length) this.allocateNodes(this.nodeMass.length * 2);
+
+        // Reset the node, as it may have been used by a previous tree
+        final int node = this.nodeCount++;
+        this.nodeCenterX[node] = centerX;
+        this.nodeCenterY[node] = centerY;
+        this.nodeHalfSize[node] = halfSize;
+        this.nodeMass[node] = 0;
+        this.nodeMassX[node] = 0;
+        this.nodeMassY[node] = 0;
+        this.nodeFirstChild[node] = -1;
+        this.nodeBody[node] = EMPTY;
+
+        // Return the index of the node
+        return node;
+    }
+
+    // The allocateNodes method is used to (re)allocate the pool of nodes to the given capacity, keeping the current nodes
+    private void allocateNodes(final int capacity) {
+        // Copy each array into a new one of the given capacity, or create it if it does not exist yet
+        this.nodeCenterX = this.nodeCenterX == null ? new double[capacity] : Arrays.copyOf(this.nodeCenterX, capacity);
+        this.nodeCenterY = this.nodeCenterY == null ? new double[capacity] : Arrays.copyOf(this.nodeCenterY, capacity);
+        this.nodeHalfSize = this.nodeHalfSize == null ? new double[capacity] : Arrays.copyOf(this.nodeHalfSize, capacity);
+        this.nodeMass = this.nodeMass == null ? new double[capacity] : Arrays.copyOf(this.nodeMass, capacity);
+        this.nodeMassX = this.nodeMassX == null ? new double[capacity] : Arrays.copyOf(this.nodeMassX, capacity);
+        this.nodeMassY = this.nodeMassY == null ? new double[capacity] : Arrays.copyOf(this.nodeMassY, capacity);
+        this.nodeFirstChild = this.nodeFirstChild == null ? new int[capacity] : Arrays.copyOf(this.nodeFirstChild, capacity);
+        this.nodeBody = this.nodeBody == null ? new int[capacity] : Arrays.copyOf(this.nodeBody, capacity);
+    }
+
+    // The getName method is used to get the name of this solver
+    @Override
+    public String getName() {
+        // Return the name of this solver
+        return NAME;
+    }
+}
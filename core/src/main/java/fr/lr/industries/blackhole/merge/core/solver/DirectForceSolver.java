@@ -0,0 +1,61 @@
+package fr.lr.industries.blackhole.merge.core.solver;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The DirectForceSolver class is used to calculate the accelerations by summing the pull of every pair of black holes, it is exact but costs O(N^2)
+public class DirectForceSolver implements ForceSolver {
+    // The NAME constant is used to identify this solver
+    public static final String NAME = "direct";
+
+    // The computeAccelerations method is used to calculate the acceleration of every black hole caused by every other black hole
+    @Override
+    public void computeAccelerations(final BlackHoleStore blackHoles) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), ax = blackHoles.getAx(), ay = blackHoles.getAy(), mass = blackHoles.getMass();
+
+        // Reset the accelerations, they are accumulated pair by pair
+        blackHoles.clearAccelerations();
+
+        // Iterate through every pair of black holes only once, each pair acts on both black holes
+        for (int i = 0; i < count; i++) {
+            // Keep the values of the current black hole in local variables
+            final double xi = x[i], yi = y[i], massI = mass[i];
+            double axi = 0, ayi = 0;
+
+            for (int j = i + 1; j < count; j++) {
+                // Get the vector between the black holes and its squared length
+                final double dx = x[j] - xi;
+                final double dy = y[j] - yi;
+                final double distanceSquared = dx * dx + dy * dy;
+                // Two black holes at the same place can't pull each other in any direction
+                if (distanceSquared == 0) continue;
+
+                // Calculate G / r^3, so that G * m / r^2 along the unit vector (dx, dy) / r is just G * m / r^3 * (dx, dy), without any angle
+                // https://en.wikipedia.org/wiki/Newton%27s_law_of_universal_gravitation#Vector_form
+                final double inverseDistance = 1.0 / Math.sqrt(distanceSquared);
+                final double factor = G * inverseDistance * inverseDistance * inverseDistance;
+
+                // Accumulate the acceleration of the current black hole towards the other one
+                axi += factor * mass[j] * dx;
+                ayi += factor * mass[j] * dy;
+                // And the acceleration of the other black hole towards the current one (Newton's third law, cause Newton is still the GOAT)
+                ax[j] -= factor * massI * dx;
+                ay[j] -= factor * massI * dy;
+            }
+
+            // Add the accumulated acceleration to the current black hole
+            ax[i] += axi;
+            ay[i] += ayi;
+        }
+    }
+
+    // The getName method is used to get the name of this solver
+    @Override
+    public String getName() {
+        // Return the name of this solver
+        return NAME;
+    }
+}
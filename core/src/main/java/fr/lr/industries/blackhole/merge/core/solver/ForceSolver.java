@@ -0,0 +1,23 @@
+package fr.lr.industries.blackhole.merge.core.solver;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+
+// The ForceSolver interface is used to calculate the gravitational acceleration of every black hole, each implementation is a different trade-off between speed and accuracy
+public interface ForceSolver {
+    // The computeAccelerations method is used to overwrite the accelerations of every black hole of the store with the pull of every other black hole
+    void computeAccelerations(BlackHoleStore blackHoles);
+
+    // The getName method is used to get a short name of the solver, used in the settings and in the command lines
+    String getName();
+
+    // The create method is used to create a solver from its name, the opening angle is only used by the Barnes-Hut solver
+    static ForceSolver create(final String name, final double theta) {
+        // Create the solver matching the name
+        return switch (name) {
+            case DirectForceSolver.NAME -> new DirectForceSolver();
+            case BarnesHutForceSolver.NAME -> new BarnesHutForceSolver(theta);
+            default -> throw new IllegalArgumentException("Unknown force solver: " + name + ", expected " + DirectForceSolver.NAME + " or " + BarnesHutForceSolver.NAME);
+        };
+    }
+}
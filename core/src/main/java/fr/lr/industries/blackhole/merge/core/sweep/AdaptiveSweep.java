@@ -0,0 +1,236 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.cache.ResultCache;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// The AdaptiveSweep class is used to map where the default binary stops merging in the space of its mass, velocity and radius, without simulating the whole grid
+// The space is first cut into coarse cells and the binary is simulated at their corners, then only the cells whose corners disagree are cut in 2 along every axis, and so on until the finest grid
+// The corners of a cell disagree if some of them merge and some don't, or if the peak gravitational wave frequency of their merges differs by more than a threshold
+// So the simulations follow the boundary, and the cells far from it are never refined, every point is simulated once even if it is the corner of several cells
+// Both black holes get the same mass and radius, the time step and the distance to be merged multiplier are the default ones
+public class AdaptiveSweep {
+    // The DEFAULT_DEPTH constant is used to set the default number of times a coarse cell can be cut in 2
+    public static final int DEFAULT_DEPTH = 5;
+
+    // The DEFAULT_FREQUENCY_THRESHOLD constant is used to set the default relative difference of the peak frequencies that makes a cell refined
+    public static final double DEFAULT_FREQUENCY_THRESHOLD = 1.0;
+
+    // The AXIS_COUNT constant is used to set the number of axes of the space: the mass, the velocity and the radius
+    private static final int AXIS_COUNT = 3;
+
+    // The axes variable is used to store the finest grid of every axis, the coarse grid is every 2^depth values of it
+    private final SweepRange[] axes;
+
+    // The depth, frequencyThreshold and maxSteps variables are used to store how many times a cell can be cut, when it is cut and when a run stops
+    private final int depth;
+    private final double frequencyThreshold;
+    private final long maxSteps;
+
+    // The cache variable is used to store the results of the points already simulated by a previous sweep, it is null when every point is simulated
+    private ResultCache cache = null;
+
+    // The results variable is used to store the result of every point simulated, by the index of the point in the finest grid
+    private final Map<Long, SweepResult> results = new HashMap<>();
+
+    // The AdaptiveSweep constructor is used to create a new sweep of the given coarse ranges of the mass, the velocity and the radius
+    public AdaptiveSweep(final SweepRange mass, final SweepRange velocity, final SweepRange radius, final int depth, final double frequencyThreshold, final long maxSteps) {
+        // Check that the settings make sense
+        if (depth < 0 || depth > 16) throw new IllegalArgumentException("The depth must be between 0 and 16, got " + depth);
+        if (maxSteps < 1) throw new IllegalArgumentException("The maximum number of steps must be positive, got " + maxSteps);
+
+        // Assign the parameters to the global variables, with the finest grid of every axis
+        this.axes = new SweepRange[]{mass.getRefined(depth), velocity.getRefined(depth), radius.getRefined(depth)};
+        this.depth = depth;
+        this.frequencyThreshold = frequencyThreshold;
+        this.maxSteps = maxSteps;
+    }
+
+    // The run method is used to simulate the corners of the coarse cells and refine the cells on the boundary with the given number of threads, the listener gets the result of every simulation
+    public void run(final int parallelism, final SweepListener listener) {
+        // Create the pool for the sweep
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            // Start with the coarse cells, a single value on an axis that has only one
+            List<int[]> cells = new ArrayList<>();
+            final int coarseSize = 1 << this.depth;
+            this.addCells(cells, new int[AXIS_COUNT], 0, coarseSize, Integer.MAX_VALUE);
+
+            // Simulate the corners of the cells of every size, then cut the cells on the boundary, until the cells are as small as the finest grid
+            for (int size = coarseSize; !cells.isEmpty(); size >>= 1) {
+                this.simulateCorners(pool, cells, size, listener);
+                if (size == 1) break;
+
+                // Cut the cells whose corners disagree
+                final List<int[]> refinedCells = new ArrayList<>();
+                for (final int[] cell : cells) {
+                    if (this.isOnBoundary(cell, size)) this.addCells(refinedCells, cell, 0, size / 2, size);
+                }
+                cells = refinedCells;
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // The addCells method is used to add the cells of the given size covering a cell of the given extent from the given origin, the axes with a single value are never cut
+    private void addCells(final List<int[]> cells, final int[] origin, final int axis, final int size, final int extent) {
+        // Add the cell once every axis has its position
+        if (axis == AXIS_COUNT) {
+            cells.add(origin.clone());
+            return;
+        }
+
+        // Add the cells at every position of the axis, a single one if the axis has a single value
+        final int start = origin[axis], end = this.axes[axis].getCount() == 1 ? start + 1 : (int) Math.min(start + (long) extent, this.axes[axis].getCount() - 1);
+        for (int position = start; position < end; position += size) {
+            origin[axis] = position;
+            this.addCells(cells, origin, axis + 1, size, extent);
+        }
+        origin[axis] = start;
+    }
+
+    // The simulateCorners method is used to simulate in parallel the corners of the cells that were never simulated
+    private void simulateCorners(final ForkJoinPool pool, final List<int[]> cells, final int size, final SweepListener listener) {
+        // Get the points of the corners not simulated yet, every point once
+        final List<Long> points = new ArrayList<>();
+        for (final int[] cell : cells) {
+            for (int corner = 0; corner < 1 << AXIS_COUNT; corner++) {
+                final long point = this.getCorner(cell, corner, size);
+                if (point >= 0 && !this.results.containsKey(point)) {
+                    this.results.put(point, null);
+                    points.add(point);
+                }
+            }
+        }
+
+        // Simulate the points in parallel and keep their results
+        final SweepResult[] simulated = new SweepResult[points.size()];
+        pool.invoke(new PointAction(points, simulated, 0, points.size(), listener));
+        for (final SweepResult result : simulated) this.results.put(result.getIndex(), result);
+    }
+
+    // The getCorner method is used to get the index in the finest grid of a corner of a cell, the bits of the corner choosing the far side on every axis, or -1 if the corner is not on the grid
+    private long getCorner(final int[] cell, final int corner, final int size) {
+        // Add the position of the corner on every axis, the last axis changing the slowest
+        long point = 0;
+        for (int axis = AXIS_COUNT - 1; axis >= 0; axis--) {
+            final int position = cell[axis] + ((corner >> axis) & 1) * size;
+            if (position >= this.axes[axis].getCount()) return -1;
+            point = point * this.axes[axis].getCount() + position;
+        }
+        // Return the index of the corner
+        return point;
+    }
+
+    // The isOnBoundary method is used to check whether the corners of a cell disagree: some merge and some don't, or their peak frequencies differ by more than the threshold
+    private boolean isOnBoundary(final int[] cell, final int size) {
+        // Count the corners that merge and the ones that don't, and get the range of the peak frequencies of the merges
+        int merged = 0, escaped = 0;
+        double lowestFrequency = Double.POSITIVE_INFINITY, highestFrequency = 0;
+        for (int corner = 0; corner < 1 << AXIS_COUNT; corner++) {
+            final long point = this.getCorner(cell, corner, size);
+            if (point < 0) continue;
+            final SweepResult result = this.results.get(point);
+            if (result.isMerged()) {
+                merged++;
+                lowestFrequency = Math.min(lowestFrequency, result.getPeakFrequency());
+                highestFrequency = Math.max(highestFrequency, result.getPeakFrequency());
+            } else {
+                escaped++;
+            }
+        }
+
+        // The cell is on the boundary if the outcomes differ, or if the frequencies of the merges are too far apart
+        return (merged > 0 && escaped > 0) || (merged > 1 && highestFrequency > lowestFrequency * (1 + this.frequencyThreshold));
+    }
+
+    // The simulatePoint method is used to simulate the binary of a point of the finest grid
+    private SweepResult simulatePoint(final long point) {
+        // Get the position of the point on every axis, the first axis changing the fastest
+        long rest = point;
+        final double[] values = new double[AXIS_COUNT];
+        for (int axis = 0; axis < AXIS_COUNT; axis++) {
+            values[axis] = this.axes[axis].getValue((int) (rest % this.axes[axis].getCount()));
+            rest /= this.axes[axis].getCount();
+        }
+
+        // Simulate the binary with the mass, the velocity and the radius of the point
+        return ParameterSweep.simulate(point, values[0], values[2], values[0], values[2], values[1], SimulationDefaults.DEFAULT_TIME_STEP, SimulationDefaults.DEFAULT_DISTANCE_TO_BE_MERGED_MULTIPLIER, this.maxSteps, this.cache);
+    }
+
+    // The setCache method is used to set the cache of the results of the points, or null to simulate every point
+    public void setCache(final ResultCache cache) {
+        // Assign the parameter to the global variable
+        this.cache = cache;
+    }
+
+    // The getSimulationCount method is used to get the number of points simulated
+    public long getSimulationCount() {
+        // Return the number of results
+        return this.results.size();
+    }
+
+    // The getFullGridCount method is used to get the number of points of the finest grid, the ones a full sweep would simulate
+    public long getFullGridCount() {
+        // Return the product of the number of values of every axis
+        long count = 1;
+        for (final SweepRange axis : this.axes) count *= axis.getCount();
+        return count;
+    }
+
+    // The getResults method is used to get the result of every point simulated, by the index of the point in the finest grid
+    public Map<Long, SweepResult> getResults() {
+        // Return the results
+        return this.results;
+    }
+
+    // The PointAction class is used to simulate a range of points in the pool, splitting the range in two until a single point is left
+    private class PointAction extends RecursiveAction {
+        // The serialVersionUID constant is used to set the version of the serialized form of the action, it is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // The points and results variables are used to store the points to simulate and where their results go
+        private final List<Long> points;
+        private final SweepResult[] results;
+
+        // The firstPoint and lastPoint variables are used to store the range of points, the last one excluded
+        private final int firstPoint;
+        private final int lastPoint;
+
+        // The listener variable is used to store the listener of the results
+        private final SweepListener listener;
+
+        // The PointAction constructor is used to create a new action for a range of points
+        private PointAction(final List<Long> points, final SweepResult[] results, final int firstPoint, final int lastPoint, final SweepListener listener) {
+            // Assign the parameters to the global variables
+            this.points = points;
+            this.results = results;
+            this.firstPoint = firstPoint;
+            this.lastPoint = lastPoint;
+            this.listener = listener;
+        }
+
+        // The compute method is used to simulate the range of points
+        @Override
+        protected void compute() {
+            // Split the range in two until there is a single point left, so the threads of the pool can steal the halves
+            if (this.lastPoint - this.firstPoint > 1) {
+                final int middlePoint = (this.firstPoint + this.lastPoint) >>> 1;
+                invokeAll(new PointAction(this.points, this.results, this.firstPoint, middlePoint, this.listener), new PointAction(this.points, this.results, middlePoint, this.lastPoint, this.listener));
+                return;
+            }
+
+            // Simulate the single point and give its result to the listener
+            if (this.firstPoint == this.lastPoint) return;
+            this.results[this.firstPoint] = simulatePoint(this.points.get(this.firstPoint));
+            this.listener.onResult(this.results[this.firstPoint]);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.cache.ResultCache;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import java.io.IOException;
+import java.nio.file.Paths;
+
+// The HeadlessAdaptiveSweep class is used to map where the binary stops merging without any display, every result is printed as a CSV line as soon as its run is over, and a summary is printed at the end on the error output
+// Every range is written "first:last:count", "first:last:count:log" or as a single value, its count is the number of values of the coarse grid, the finest grid has 2^depth times more intervals
+// Usage: HeadlessAdaptiveSweep [mass] [velocity] [radius] [depth] [frequency threshold] [maximum steps] [threads] [cache directory], the runs already in the cache are not simulated again
+public class HeadlessAdaptiveSweep {
+    // The DEFAULT_MASS_RANGE, DEFAULT_VELOCITY_RANGE and DEFAULT_RADIUS_RANGE constants are used to set the coarse ranges swept by default
+    public static final String DEFAULT_MASS_RANGE = SimulationDefaults.DEFAULT_BLACK_HOLE_MASS / 4 + ":" + SimulationDefaults.DEFAULT_BLACK_HOLE_MASS * 4 + ":5:log";
+    public static final String DEFAULT_VELOCITY_RANGE = "0:20:5";
+    public static final String DEFAULT_RADIUS_RANGE = "25:425:5";
+
+    // The main method is used to run the adaptive sweep and print its results
+    public static void main(final String[] args) throws IOException {
+        // Get the coarse ranges of the axes from the arguments
+        final SweepRange mass = SweepRange.parse(args.length > 0 ? args[0] : DEFAULT_MASS_RANGE);
+        final SweepRange velocity = SweepRange.parse(args.length > 1 ? args[1] : DEFAULT_VELOCITY_RANGE);
+        final SweepRange radius = SweepRange.parse(args.length > 2 ? args[2] : DEFAULT_RADIUS_RANGE);
+        // Get how deep the cells are cut, when, the maximum number of steps of a run and the number of threads from the arguments
+        final int depth = args.length > 3 ? Integer.parseInt(args[3]) : AdaptiveSweep.DEFAULT_DEPTH;
+        final double frequencyThreshold = args.length > 4 ? Double.parseDouble(args[4]) : AdaptiveSweep.DEFAULT_FREQUENCY_THRESHOLD;
+        final long maxSteps = args.length > 5 ? Long.parseLong(args[5]) : ParameterSweep.DEFAULT_MAX_STEPS;
+        final int threads = args.length > 6 ? Integer.parseInt(args[6]) : Runtime.getRuntime().availableProcessors();
+        // Get the directory of the cache of the results from the arguments, there is no cache by default
+        final ResultCache cache = args.length > 7 ? new ResultCache(Paths.get(args[7])) : null;
+
+        // Run the sweep, printing every result as soon as its run is over
+        final AdaptiveSweep sweep = new AdaptiveSweep(mass, velocity, radius, depth, frequencyThreshold, maxSteps);
+        sweep.setCache(cache);
+        System.out.println(SweepResult.CSV_HEADER);
+        final long start = System.nanoTime();
+        sweep.run(threads, result -> System.out.println(result.toCsv()));
+        final double seconds = (System.nanoTime() - start) / 1.0e9;
+
+        // Print how many points were simulated, compared to the full grid of the same resolution
+        System.err.println(sweep.getSimulationCount() + " runs instead of " + sweep.getFullGridCount() + " for the full grid (" + String.format("%.1f", (double) sweep.getFullGridCount() / sweep.getSimulationCount()) + "x fewer) done in " + String.format("%.3f", seconds) + "s with " + threads + " threads");
+
+        // Print how many results came from the cache, and save its index
+        if (cache == null) return;
+        System.err.println(cache.getHits() + " results from the cache, " + cache.getMisses() + " simulated, " + cache.getCount() + " results (" + String.format("%.1f", cache.getSize() / 1048576.0) + " MiB) in the cache, " + cache.getEvictions() + " evicted");
+        cache.close();
+    }
+}
@@ -0,0 +1,59 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.cache.ResultCache;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+
+// The HeadlessSweep class is used to run a parameter sweep without any display, every result is printed as a CSV line as soon as its run is over, and a summary is printed at the end on the error output
+// Every range is written "first:last:count", "first:last:count:log" or as a single value, the runs are printed in the order they end, their index gives their place in the sweep
+// Usage: HeadlessSweep [mass 1] [radius 1] [mass 2] [radius 2] [velocity] [time step] [distance to be merged multiplier] [maximum steps] [threads] [cache directory], without any argument the masses of both black holes are swept from half to four times the default mass
+public class HeadlessSweep {
+    // The DEFAULT_MASS_RANGE constant is used to set the range of the masses swept by default
+    public static final String DEFAULT_MASS_RANGE = SimulationDefaults.DEFAULT_BLACK_HOLE_MASS / 2 + ":" + SimulationDefaults.DEFAULT_BLACK_HOLE_MASS * 4 + ":8:log";
+
+    // The main method is used to run the sweep and print its results
+    public static void main(final String[] args) throws IOException {
+        // Get the ranges of the parameters from the arguments, the default values of the application are used for the ones not given
+        final SweepRange mass1 = SweepRange.parse(args.length > 0 ? args[0] : DEFAULT_MASS_RANGE);
+        final SweepRange radius1 = SweepRange.parse(args.length > 1 ? args[1] : String.valueOf(SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS));
+        final SweepRange mass2 = SweepRange.parse(args.length > 2 ? args[2] : DEFAULT_MASS_RANGE);
+        final SweepRange radius2 = SweepRange.parse(args.length > 3 ? args[3] : String.valueOf(SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS));
+        final SweepRange velocity = SweepRange.parse(args.length > 4 ? args[4] : String.valueOf(SimulationDefaults.DEFAULT_BLACK_HOLE_VELOCITY));
+        final SweepRange timeStep = SweepRange.parse(args.length > 5 ? args[5] : String.valueOf(SimulationDefaults.DEFAULT_TIME_STEP));
+        final SweepRange distanceToBeMergedMultiplier = SweepRange.parse(args.length > 6 ? args[6] : String.valueOf(SimulationDefaults.DEFAULT_DISTANCE_TO_BE_MERGED_MULTIPLIER));
+        // Get the maximum number of steps of a run and the number of threads from the arguments
+        final long maxSteps = args.length > 7 ? Long.parseLong(args[7]) : ParameterSweep.DEFAULT_MAX_STEPS;
+        final int threads = args.length > 8 ? Integer.parseInt(args[8]) : Runtime.getRuntime().availableProcessors();
+        // Get the directory of the cache of the results from the arguments, there is no cache by default
+        final ResultCache cache = args.length > 9 ? new ResultCache(Paths.get(args[9])) : null;
+
+        // Create the sweep
+        final ParameterSweep sweep = new ParameterSweep(mass1, radius1, mass2, radius2, velocity, timeStep, distanceToBeMergedMultiplier, maxSteps);
+        sweep.setCache(cache);
+
+        // Count the runs that merged and the time spent in the runs, the results come from every thread
+        final AtomicLong mergedRuns = new AtomicLong();
+        final AtomicLong runTime = new AtomicLong();
+
+        // Print the header, then every result as soon as its run is over, a single println is never mixed with another one
+        System.out.println(SweepResult.CSV_HEADER);
+        final long start = System.nanoTime();
+        sweep.run(threads, result -> {
+            if (result.isMerged()) mergedRuns.incrementAndGet();
+            runTime.addAndGet(result.getWallTime());
+            System.out.println(result.toCsv());
+        });
+        final double seconds = (System.nanoTime() - start) / 1.0e9;
+
+        // Print how many runs merged, how long the sweep took and how busy the threads were
+        System.err.println(sweep.getRunCount() + " runs (" + mergedRuns.get() + " merged) done in " + String.format("%.3f", seconds) + "s with " + threads + " threads, " + String.format("%.1f", runTime.get() / 1.0e9 / seconds) + "x the time of the runs in a row");
+
+        // Print how many results came from the cache, and save its index
+        if (cache == null) return;
+        System.err.println(cache.getHits() + " results from the cache, " + cache.getMisses() + " simulated, " + cache.getCount() + " results (" + String.format("%.1f", cache.getSize() / 1048576.0) + " MiB) in the cache, " + cache.getEvictions() + " evicted");
+        cache.close();
+    }
+}
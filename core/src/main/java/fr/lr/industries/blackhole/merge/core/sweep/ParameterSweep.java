@@ -0,0 +1,210 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.cache.CacheKey;
+import fr.lr.industries.blackhole.merge.core.cache.CachedResult;
+import fr.lr.industries.blackhole.merge.core.cache.ResultCache;
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The ParameterSweep class is used to simulate the default binary without any display for every combination of ranges of its parameters
+// The parameters are the mass and the radius of both black holes, their velocity, the time step and the distance to be merged multiplier, the ones of the sliders of the settings
+// The runs are independent, so they are done in parallel by a work-stealing pool, and the result of every run is given to a listener as soon as it is over
+// A run stops as soon as its black holes escape each other, they would never merge, instead of stepping until the maximum number of steps
+public class ParameterSweep {
+    // The DEFAULT_MAX_STEPS constant is used to stop the runs that never merge, a binary staying bound without merging would run forever
+    public static final long DEFAULT_MAX_STEPS = 200_000L;
+
+    // The ESCAPE_CHECK_INTERVAL constant is used to set how often a run checks whether its black holes escaped each other, in steps
+    private static final int ESCAPE_CHECK_INTERVAL = 64;
+
+    // The mass1, radius1, mass2, radius2, velocity, timeStep and distanceToBeMergedMultiplier variables are used to store the ranges of the parameters
+    private final SweepRange mass1;
+    private final SweepRange radius1;
+    private final SweepRange mass2;
+    private final SweepRange radius2;
+    private final SweepRange velocity;
+    private final SweepRange timeStep;
+    private final SweepRange distanceToBeMergedMultiplier;
+
+    // The maxSteps variable is used to store the maximum number of steps of a run
+    private final long maxSteps;
+
+    // The cache variable is used to store the results of the runs already done, it is null when every run is simulated
+    private ResultCache cache = null;
+
+    // The ParameterSweep constructor is used to create a new sweep of the given ranges, stopping every run after the given number of steps
+    public ParameterSweep(final SweepRange mass1, final SweepRange radius1, final SweepRange mass2, final SweepRange radius2, final SweepRange velocity, final SweepRange timeStep, final SweepRange distanceToBeMergedMultiplier, final long maxSteps) {
+        // Check that the runs can step
+        if (maxSteps < 1) throw new IllegalArgumentException("The maximum number of steps must be positive, got " + maxSteps);
+
+        // Assign the parameters to the global variables
+        this.mass1 = mass1;
+        this.radius1 = radius1;
+        this.mass2 = mass2;
+        this.radius2 = radius2;
+        this.velocity = velocity;
+        this.timeStep = timeStep;
+        this.distanceToBeMergedMultiplier = distanceToBeMergedMultiplier;
+        this.maxSteps = maxSteps;
+    }
+
+    // The setCache method is used to set the cache of the results of the runs, or null to simulate every run
+    public void setCache(final ResultCache cache) {
+        // Assign the parameter to the global variable
+        this.cache = cache;
+    }
+
+    // The getRunCount method is used to get the number of runs of the sweep, one for every combination of the values of the ranges
+    public long getRunCount() {
+        // Return the product of the number of values of every range
+        return (long) this.mass1.getCount() * this.radius1.getCount() * this.mass2.getCount() * this.radius2.getCount() * this.velocity.getCount() * this.timeStep.getCount() * this.distanceToBeMergedMultiplier.getCount();
+    }
+
+    // The run method is used to do every run of the sweep with the given number of threads, the listener gets the result of every run as soon as it is over, from the thread that did it
+    public void run(final int parallelism, final SweepListener listener) {
+        // Create the pool for the sweep, do every run, and stop the threads once they are done
+        final ForkJoinPool pool = new ForkJoinPool(Math.max(1, parallelism));
+        try {
+            pool.invoke(new RunAction(0, this.getRunCount(), listener));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // The runSingle method is used to do the run of the given index and return its result
+    public SweepResult runSingle(final long index) {
+        // Get the value of every range from the index, the first range changing the fastest
+        long rest = index;
+        final double mass1 = this.mass1.getValue((int) (rest % this.mass1.getCount()));
+        rest /= this.mass1.getCount();
+        final double radius1 = this.radius1.getValue((int) (rest % this.radius1.getCount()));
+        rest /= this.radius1.getCount();
+        final double mass2 = this.mass2.getValue((int) (rest % this.mass2.getCount()));
+        rest /= this.mass2.getCount();
+        final double radius2 = this.radius2.getValue((int) (rest % this.radius2.getCount()));
+        rest /= this.radius2.getCount();
+        final double velocity = this.velocity.getValue((int) (rest % this.velocity.getCount()));
+        rest /= this.velocity.getCount();
+        final double timeStep = this.timeStep.getValue((int) (rest % this.timeStep.getCount()));
+        rest /= this.timeStep.getCount();
+        final double distanceToBeMergedMultiplier = this.distanceToBeMergedMultiplier.getValue((int) (rest % this.distanceToBeMergedMultiplier.getCount()));
+
+        // Do the run with these parameters
+        return simulate(index, mass1, radius1, mass2, radius2, velocity, timeStep, distanceToBeMergedMultiplier, this.maxSteps, this.cache);
+    }
+
+    // The simulate method is used to run the default binary with the given parameters until it merges or until the maximum number of steps is reached, and return its result with the given index
+    // The black holes merge when the stepper's merge resolver finds them close enough, the same criterion as the application
+    public static SweepResult simulate(final long index, final double mass1, final double radius1, final double mass2, final double radius2, final double velocity, final double timeStep, final double distanceToBeMergedMultiplier, final long maxSteps) {
+        // Run the binary without any cache
+        return simulate(index, mass1, radius1, mass2, radius2, velocity, timeStep, distanceToBeMergedMultiplier, maxSteps, null);
+    }
+
+    // The simulate method is used to run the default binary with the given parameters, or get its result from the given cache if it was already run, the cache can be null
+    public static SweepResult simulate(final long index, final double mass1, final double radius1, final double mass2, final double radius2, final double velocity, final double timeStep, final double distanceToBeMergedMultiplier, final long maxSteps, final ResultCache cache) {
+        // Get the time at which the run started to measure how long it took
+        final long start = System.nanoTime();
+
+        // Create the default binary with the parameters of the run, and its stepper
+        final SimulationState state = SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT);
+        state.resetToDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT, mass1, radius1, mass2, radius2, velocity);
+        state.setTimeStep(timeStep);
+        state.setDistanceToBeMergedMultiplier(distanceToBeMergedMultiplier);
+        final SimulationStepper stepper = new SimulationStepper(state);
+
+        // Return the result of the cache if the same binary was already run
+        final CacheKey key = cache == null ? null : CacheKey.of(state, stepper, maxSteps);
+        final CachedResult cached = key == null ? null : cache.get(key);
+        if (cached != null) return new SweepResult(index, mass1, radius1, mass2, radius2, velocity, timeStep, distanceToBeMergedMultiplier, cached.isMerged(), cached.getMergeTime(), cached.getPeakFrequency(), cached.getSteps(), System.nanoTime() - start);
+
+        // Keep the positions of the black holes after every step if the cache wants them, the array grows as needed
+        final boolean recordingTrajectory = cache != null && cache.isRecordingTrajectories();
+        float[] trajectory = recordingTrajectory ? new float[4096] : null;
+        int trajectoryLength = 0;
+
+        // Step the binary until it merges or escapes, keeping the highest gravitational wave frequency like the waves pane does
+        double peakFrequency = 0;
+        long steps = 0;
+        while (steps < maxSteps && stepper.step()) {
+            peakFrequency = Math.max(peakFrequency, state.getGravitationalWaveFrequency());
+            steps++;
+            if (recordingTrajectory) {
+                final BlackHoleStore blackHoles = state.getBlackHoles();
+                if (trajectoryLength + 2 * blackHoles.getCount() > trajectory.length) trajectory = Arrays.copyOf(trajectory, Math.max(trajectory.length * 2, trajectoryLength + 2 * blackHoles.getCount()));
+                for (int i = 0; i < blackHoles.getCount(); i++) {
+                    trajectory[trajectoryLength++] = (float) blackHoles.getX()[i];
+                    trajectory[trajectoryLength++] = (float) blackHoles.getY()[i];
+                }
+            }
+            if (steps % ESCAPE_CHECK_INTERVAL == 0 && isEscaping(state.getBlackHoles())) break;
+        }
+        // The step that merged the black holes is counted too
+        if (state.isFinished()) steps++;
+
+        // Keep the result in the cache, then return it
+        final long wallTime = System.nanoTime() - start;
+        if (key != null) cache.put(key, new CachedResult(state.isFinished(), state.getTimeElapsed(), peakFrequency, steps, wallTime, recordingTrajectory ? Arrays.copyOf(trajectory, trajectoryLength) : null));
+        return new SweepResult(index, mass1, radius1, mass2, radius2, velocity, timeStep, distanceToBeMergedMultiplier, state.isFinished(), state.getTimeElapsed(), peakFrequency, steps, wallTime);
+    }
+
+    // The isEscaping method is used to check whether the two black holes of a binary can never merge anymore: they are not bound to each other and they are moving apart
+    // Calculated using the formula: 1/2 * m1 * m2 / (m1 + m2) * |v2 - v1|^2 - G * m1 * m2 / d >= 0, with (x2 - x1) . (v2 - v1) > 0
+    // https://en.wikipedia.org/wiki/Gravitational_two-body_problem
+    private static boolean isEscaping(final BlackHoleStore blackHoles) {
+        // Only a binary can be checked this way
+        if (blackHoles.getCount() != 2) return false;
+
+        // Get the position and the velocity of the second black hole relative to the first one
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy(), mass = blackHoles.getMass();
+        final double dx = x[1] - x[0], dy = y[1] - y[0], dvx = vx[1] - vx[0], dvy = vy[1] - vy[0];
+
+        // The black holes can only escape if they are moving apart
+        if (dx * dvx + dy * dvy <= 0) return false;
+
+        // Return whether the energy of the binary is enough to escape
+        final double kineticEnergy = 0.5 * mass[0] * mass[1] / (mass[0] + mass[1]) * (dvx * dvx + dvy * dvy);
+        return kineticEnergy - G * mass[0] * mass[1] / Math.sqrt(dx * dx + dy * dy) >= 0;
+    }
+
+    // The RunAction class is used to do a range of runs in the pool, splitting the range in two until a single run is left
+    private class RunAction extends RecursiveAction {
+        // The serialVersionUID constant is used to set the version of the serialized form of the action, it is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // The firstRun and lastRun variables are used to store the range of runs, the last one excluded
+        private final long firstRun;
+        private final long lastRun;
+
+        // The listener variable is used to store the listener of the results
+        private final SweepListener listener;
+
+        // The RunAction constructor is used to create a new action for a range of runs
+        private RunAction(final long firstRun, final long lastRun, final SweepListener listener) {
+            // Assign the parameters to the global variables
+            this.firstRun = firstRun;
+            this.lastRun = lastRun;
+            this.listener = listener;
+        }
+
+        // The compute method is used to do the range of runs
+        @Override
+        protected void compute() {
+            // Split the range in two until there is a single run left, so the threads of the pool can steal the halves
+            if (this.lastRun - this.firstRun > 1) {
+                final long middleRun = (this.firstRun + this.lastRun) >>> 1;
+                invokeAll(new RunAction(this.firstRun, middleRun, this.listener), new RunAction(middleRun, this.lastRun, this.listener));
+                return;
+            }
+
+            // Do the single run and give its result to the listener
+            this.listener.onResult(runSingle(this.firstRun));
+        }
+    }
+}
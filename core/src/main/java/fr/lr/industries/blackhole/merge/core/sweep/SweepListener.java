@@ -0,0 +1,8 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// The SweepListener interface is used to be notified of the result of every run of a sweep as soon as it is over
+@FunctionalInterface
+public interface SweepListener {
+    // The onResult method is called by the thread that did the run, so it can be called by several threads at once
+    void onResult(SweepResult result);
+}
@@ -0,0 +1,67 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// The SweepRange class is used to store the values a parameter takes in a sweep, evenly spaced between a first and a last value on a linear or a log scale
+// A range is written "first:last:count", or "first:last:count:log" for a log scale, or as a single value
+public class SweepRange {
+    // The first and last variables are used to store the first and the last value of the range
+    private final double first;
+    private final double last;
+
+    // The count variable is used to store the number of values of the range
+    private final int count;
+
+    // The logarithmic variable is used to know whether the values are evenly spaced on a log scale
+    private final boolean logarithmic;
+
+    // The SweepRange constructor is used to create a new range of the given number of values between a first and a last value
+    public SweepRange(final double first, final double last, final int count, final boolean logarithmic) {
+        // Check that the range has values, and that a log scale only has positive ones
+        if (count < 1) throw new IllegalArgumentException("A range must have at least a value, got " + count);
+        if (logarithmic && !(first > 0 && last > 0)) throw new IllegalArgumentException("A range on a log scale must only have positive values, got " + first + " to " + last);
+
+        // Assign the parameters to the global variables
+        this.first = first;
+        this.last = last;
+        this.count = count;
+        this.logarithmic = logarithmic;
+    }
+
+    // The SweepRange constructor is used to create a new range of a single value
+    public SweepRange(final double value) {
+        // Create a range of a single value
+        this(value, value, 1, false);
+    }
+
+    // The parse method is used to read a range written "first:last:count", "first:last:count:log" or as a single value
+    public static SweepRange parse(final String text) {
+        // Split the text into its parts
+        final String[] parts = text.split(":");
+        if (parts.length == 1) return new SweepRange(Double.parseDouble(parts[0]));
+        if (parts.length < 3 || parts.length > 4 || (parts.length == 4 && !parts[3].equals("log"))) throw new IllegalArgumentException("A range must be written first:last:count, first:last:count:log or as a single value, got " + text);
+
+        // Return the range
+        return new SweepRange(Double.parseDouble(parts[0]), Double.parseDouble(parts[1]), Integer.parseInt(parts[2]), parts.length == 4);
+    }
+
+    // The getValue method is used to get the value of the given index of the range
+    public double getValue(final int index) {
+        // A range of a single value is its first value
+        if (this.count == 1) return this.first;
+        // Return the value, evenly spaced on a log or a linear scale
+        final double ratio = (double) index / (this.count - 1);
+        return this.logarithmic ? this.first * Math.pow(this.last / this.first, ratio) : this.first + (this.last - this.first) * ratio;
+    }
+
+    // The getRefined method is used to get the range with the same first and last values, with every interval between two values split in 2^depth intervals
+    public SweepRange getRefined(final int depth) {
+        // A range of a single value stays the same, the others get the values in between
+        if (this.count == 1) return this;
+        return new SweepRange(this.first, this.last, ((this.count - 1) << depth) + 1, this.logarithmic);
+    }
+
+    // The getCount method is used to get the number of values of the range
+    public int getCount() {
+        // Return the number of values
+        return this.count;
+    }
+}
@@ -0,0 +1,130 @@
+package fr.lr.industries.blackhole.merge.core.sweep;
+
+// The SweepResult class is used to store the parameters of a run of a sweep and how it ended
+public class SweepResult {
+    // The CSV_HEADER constant is used to set the header of the CSV lines of the results
+    public static final String CSV_HEADER = "index,mass1,radius1,mass2,radius2,velocity,timeStep,distanceToBeMergedMultiplier,merged,mergeTime,peakFrequency,steps,wallTimeMs";
+
+    // The index variable is used to store the index of the run in the sweep
+    private final long index;
+
+    // The mass1, radius1, mass2 and radius2 variables are used to store the masses and the radii of the black holes
+    private final double mass1;
+    private final double radius1;
+    private final double mass2;
+    private final double radius2;
+
+    // The velocity, timeStep and distanceToBeMergedMultiplier variables are used to store the velocity of the black holes on each axis, the time step and the distance to be merged multiplier
+    private final double velocity;
+    private final double timeStep;
+    private final double distanceToBeMergedMultiplier;
+
+    // The merged variable is used to know whether the black holes merged before the maximum number of steps
+    private final boolean merged;
+
+    // The mergeTime variable is used to store the simulated time of the merge, or of the last step if they didn't merge
+    private final double mergeTime;
+
+    // The peakFrequency variable is used to store the highest gravitational wave frequency of the run
+    private final double peakFrequency;
+
+    // The steps variable is used to store the number of steps done
+    private final long steps;
+
+    // The wallTime variable is used to store how long the run took in nanoseconds
+    private final long wallTime;
+
+    // The SweepResult constructor is used to create a new result
+    public SweepResult(final long index, final double mass1, final double radius1, final double mass2, final double radius2, final double velocity, final double timeStep, final double distanceToBeMergedMultiplier, final boolean merged, final double mergeTime, final double peakFrequency, final long steps, final long wallTime) {
+        // Assign the parameters to the global variables
+        this.index = index;
+        this.mass1 = mass1;
+        this.radius1 = radius1;
+        this.mass2 = mass2;
+        this.radius2 = radius2;
+        this.velocity = velocity;
+        this.timeStep = timeStep;
+        this.distanceToBeMergedMultiplier = distanceToBeMergedMultiplier;
+        this.merged = merged;
+        this.mergeTime = mergeTime;
+        this.peakFrequency = peakFrequency;
+        this.steps = steps;
+        this.wallTime = wallTime;
+    }
+
+    // The getIndex method is used to get the index of the run in the sweep
+    public long getIndex() {
+        // Return the index
+        return this.index;
+    }
+
+    // The getMass1, getRadius1, getMass2 and getRadius2 methods are used to get the masses and the radii of the black holes
+    public double getMass1() {
+        // Return the mass of the first black hole
+        return this.mass1;
+    }
+
+    public double getRadius1() {
+        // Return the radius of the first black hole
+        return this.radius1;
+    }
+
+    public double getMass2() {
+        // Return the mass of the second black hole
+        return this.mass2;
+    }
+
+    public double getRadius2() {
+        // Return the radius of the second black hole
+        return this.radius2;
+    }
+
+    // The getVelocity, getTimeStep and getDistanceToBeMergedMultiplier methods are used to get the other parameters of the run
+    public double getVelocity() {
+        // Return the velocity
+        return this.velocity;
+    }
+
+    public double getTimeStep() {
+        // Return the time step
+        return this.timeStep;
+    }
+
+    public double getDistanceToBeMergedMultiplier() {
+        // Return the distance to be merged multiplier
+        return this.distanceToBeMergedMultiplier;
+    }
+
+    // The isMerged method is used to know whether the black holes merged before the maximum number of steps
+    public boolean isMerged() {
+        // Return whether they merged
+        return this.merged;
+    }
+
+    // The getMergeTime, getPeakFrequency, getSteps and getWallTime methods are used to get how the run ended
+    public double getMergeTime() {
+        // Return the simulated time of the merge
+        return this.mergeTime;
+    }
+
+    public double getPeakFrequency() {
+        // Return the highest gravitational wave frequency
+        return this.peakFrequency;
+    }
+
+    public long getSteps() {
+        // Return the number of steps
+        return this.steps;
+    }
+
+    public long getWallTime() {
+        // Return how long the run took in nanoseconds
+        return this.wallTime;
+    }
+
+    // The toCsv method is used to get the result as a CSV line, without the line break, in the order of the CSV_HEADER
+    public String toCsv() {
+        // Return the parameters and the outcome of the run, the wall time in milliseconds
+        return this.index + "," + this.mass1 + "," + this.radius1 + "," + this.mass2 + "," + this.radius2 + "," + this.velocity + "," + this.timeStep + "," + this.distanceToBeMergedMultiplier + "," + this.merged + "," + this.mergeTime + "," + this.peakFrequency + "," + this.steps + "," + String.format("%.3f", this.wallTime / 1.0e6);
+    }
+}
@@ -0,0 +1,116 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// Import the required classes and packages
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// The ChannelWriter class is used to write a file through a file channel with a buffer of a fixed size, the buffer is written to the file every time it is full
+// The values are little endian, as in WAV files, so a file of any length is written with the same memory, it is used for the exports and for the template bank
+public class ChannelWriter implements AutoCloseable {
+    // The BUFFER_SIZE constant is used to set the size of the buffer in bytes
+    public static final int BUFFER_SIZE = 1 << 16;
+
+    // The channel variable is used to store the channel of the file
+    private final FileChannel channel;
+
+    // The buffer variable is used to store the bytes not written to the file yet
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+    // The ChannelWriter constructor is used to create the file, or empty it if it exists
+    public ChannelWriter(final Path path) throws IOException {
+        // Open the channel of the file
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // The putInt method is used to write an int
+    public void putInt(final int value) throws IOException {
+        // Make room for the value and add it to the buffer
+        this.ensureRemaining(Integer.BYTES);
+        this.buffer.putInt(value);
+    }
+
+    // The putShort method is used to write a short
+    public void putShort(final short value) throws IOException {
+        // Make room for the value and add it to the buffer
+        this.ensureRemaining(Short.BYTES);
+        this.buffer.putShort(value);
+    }
+
+    // The putLong method is used to write a long
+    public void putLong(final long value) throws IOException {
+        // Make room for the value and add it to the buffer
+        this.ensureRemaining(Long.BYTES);
+        this.buffer.putLong(value);
+    }
+
+    // The putFloat method is used to write a float
+    public void putFloat(final float value) throws IOException {
+        // Make room for the value and add it to the buffer
+        this.ensureRemaining(Float.BYTES);
+        this.buffer.putFloat(value);
+    }
+
+    // The putDouble method is used to write a double
+    public void putDouble(final double value) throws IOException {
+        // Make room for the value and add it to the buffer
+        this.ensureRemaining(Double.BYTES);
+        this.buffer.putDouble(value);
+    }
+
+    // The putBytes method is used to write a part of an array of bytes
+    public void putBytes(final byte[] bytes, final int offset, final int length) throws IOException {
+        // Write the bytes a buffer at a time, so an array of any length can be written
+        int written = 0;
+        while (written < length) {
+            if (!this.buffer.hasRemaining()) this.flush();
+            final int count = Math.min(length - written, this.buffer.remaining());
+            this.buffer.put(bytes, offset + written, count);
+            written += count;
+        }
+    }
+
+    // The putAscii method is used to write a text, it must only have ASCII characters
+    public void putAscii(final String text) throws IOException {
+        // Write the bytes of the text
+        final byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+        this.putBytes(bytes, 0, bytes.length);
+    }
+
+    // The patchInt method is used to write an int at the given position of the file, over what was already written there, for example a size only known at the end
+    public void patchInt(final long position, final int value) throws IOException {
+        // Write everything before, then write the int at its position
+        this.flush();
+        final ByteBuffer patch = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN).putInt(value).flip();
+        while (patch.hasRemaining()) this.channel.write(patch, position + patch.position());
+    }
+
+    // The flush method is used to write the buffer to the file
+    public void flush() throws IOException {
+        // Write every byte of the buffer and empty it
+        this.buffer.flip();
+        while (this.buffer.hasRemaining()) this.channel.write(this.buffer);
+        this.buffer.clear();
+    }
+
+    // The ensureRemaining method is used to write the buffer to the file if there is not enough room for the given number of bytes
+    private void ensureRemaining(final int bytes) throws IOException {
+        // Write the buffer if the value doesn't fit
+        if (this.buffer.remaining() < bytes) this.flush();
+    }
+
+    // The close method is used to write the rest of the buffer and close the file
+    @Override
+    public void close() throws IOException {
+        // Write the rest of the buffer, and close the channel even if it fails
+        try {
+            this.flush();
+        } finally {
+            this.channel.close();
+        }
+    }
+}
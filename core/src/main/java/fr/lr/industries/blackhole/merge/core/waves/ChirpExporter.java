@@ -0,0 +1,167 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+// The ChirpExporter class is used to export the chirp of a simulation without any display, as fast as the simulation can run
+// The sound is the tone the application plays, as a WAV file, and the gravitational wave frequency and strain of every step are written next to it, as a CSV file or as a binary file
+// The application does stepsPerSecond steps for every second of sound, so the step i is heard from i / stepsPerSecond seconds, with the frequency it has after the step
+// Both files are written through a buffer of a fixed size, so a simulation of any length is exported with the same memory
+// Usage: ChirpExporter [output name] [steps per second] [maximum steps] [csv|bin], the files are [output name].wav and [output name].csv or [output name].bin
+public class ChirpExporter {
+    // The DEFAULT_STEPS_PER_SECOND constant is used to set the number of steps heard per second of sound, the one of the application by default
+    public static final double DEFAULT_STEPS_PER_SECOND = 144;
+
+    // The MAX_STEPS constant is used to stop a simulation that never merges
+    public static final long MAX_STEPS = 100_000_000L;
+
+    // The WAV_HEADER_SIZE constant is used to set the size of the header of a WAV file, the sound starts right after it
+    private static final int WAV_HEADER_SIZE = 44;
+
+    // The BUFFER_SAMPLES constant is used to set the number of samples made at once by the oscillator
+    private static final int BUFFER_SAMPLES = 4096;
+
+    // The state and stepper variables are used to store the simulation to export
+    private final SimulationState state;
+    private final SimulationStepper stepper;
+
+    // The stepsPerSecond variable is used to store the number of steps heard per second of sound
+    private final double stepsPerSecond;
+
+    // The samples variable is used to store the number of samples written to the WAV file
+    private long samples = 0;
+
+    // The ChirpExporter constructor is used to create a new exporter of the given simulation
+    public ChirpExporter(final SimulationState state, final SimulationStepper stepper, final double stepsPerSecond) {
+        // Check that the steps are heard at all
+        if (!(stepsPerSecond > 0)) throw new IllegalArgumentException("The number of steps per second must be positive, got " + stepsPerSecond);
+
+        // Assign the parameters to the global variables
+        this.state = state;
+        this.stepper = stepper;
+        this.stepsPerSecond = stepsPerSecond;
+    }
+
+    // The export method is used to run the simulation until it is over or until the maximum number of steps is reached, writing the sound and the frequencies, it returns the number of steps done
+    public long export(final Path wavPath, final Path frequencyPath, final boolean binary, final long maxSteps) throws IOException {
+        try (final ChannelWriter wav = new ChannelWriter(wavPath); final ChannelWriter frequencies = new ChannelWriter(frequencyPath)) {
+            // Write the header of the WAV file, its sizes are written once the sound is over
+            this.writeWavHeader(wav);
+            // Write the header of the CSV file, the binary file has none
+            if (!binary) frequencies.putAscii("step,time,frequency,plus,cross\n");
+
+            // The oscillator and the buffer of its samples are reused for the whole sound
+            final ToneOscillator oscillator = new ToneOscillator();
+            final byte[] buffer = new byte[BUFFER_SAMPLES * ToneOscillator.BYTES_PER_SAMPLE];
+            this.samples = 0;
+
+            // Do the steps and write the sound of each one
+            long steps = 0;
+            while (steps < maxSteps && !this.state.isFinished()) {
+                // Do a step and get its frequency, no frequency is heard once the black holes are merged
+                this.stepper.step();
+                steps++;
+                final double frequency = this.state.isFinished() ? 0 : this.state.getGravitationalWaveFrequency();
+
+                // Write the frequency and the strain h+ and hx of the step
+                if (binary) {
+                    frequencies.putLong(this.state.getSteps());
+                    frequencies.putDouble(this.state.getTimeElapsed());
+                    frequencies.putDouble(frequency);
+                    frequencies.putDouble(this.state.getStrainPlus());
+                    frequencies.putDouble(this.state.getStrainCross());
+                } else {
+                    frequencies.putAscii(this.state.getSteps() + "," + this.state.getTimeElapsed() + "," + frequency + "," + this.state.getStrainPlus() + "," + this.state.getStrainCross() + "\n");
+                }
+
+                // Write the samples until the time of the next step, the tone fades out when there is no frequency
+                final long end = (long) Math.floor(steps * ToneOscillator.SAMPLE_RATE / this.stepsPerSecond);
+                this.writeTone(wav, oscillator, buffer, end - this.samples, frequency, frequency != 0 ? ToneOscillator.AMPLITUDE : 0);
+            }
+
+            // Let the tone fade out, so the sound doesn't end with a click
+            this.writeTone(wav, oscillator, buffer, ToneOscillator.FADE_SAMPLES, 0, 0);
+
+            // Write the sizes of the WAV file now that the number of samples is known
+            final long dataSize = this.samples * ToneOscillator.BYTES_PER_SAMPLE;
+            if (dataSize > Integer.MAX_VALUE - WAV_HEADER_SIZE) throw new IOException("The sound is too long for a WAV file: " + this.samples + " samples");
+            wav.patchInt(4, (int) (WAV_HEADER_SIZE - 8 + dataSize));
+            wav.patchInt(WAV_HEADER_SIZE - 4, (int) dataSize);
+
+            // Return the number of steps done
+            return steps;
+        }
+    }
+
+    // The getSampleCount method is used to get the number of samples of the last export
+    public long getSampleCount() {
+        // Return the number of samples
+        return this.samples;
+    }
+
+    // The writeTone method is used to write the given number of samples of the tone at the given frequency, a buffer at a time
+    private void writeTone(final ChannelWriter wav, final ToneOscillator oscillator, final byte[] buffer, final long samples, final double frequency, final double amplitude) throws IOException {
+        // Make and write the samples a buffer at a time
+        long left = samples;
+        while (left > 0) {
+            final int count = (int) Math.min(left, BUFFER_SAMPLES);
+            oscillator.fill(buffer, 0, count, frequency, amplitude);
+            wav.putBytes(buffer, 0, count * ToneOscillator.BYTES_PER_SAMPLE);
+            left -= count;
+            this.samples += count;
+        }
+    }
+
+    // The writeWavHeader method is used to write the header of a 16 bits mono WAV file, with sizes of 0 until they are known
+    // http://soundfile.sapp.org/doc/WaveFormat/
+    private void writeWavHeader(final ChannelWriter wav) throws IOException {
+        // The RIFF chunk, its size is written at the end
+        wav.putAscii("RIFF");
+        wav.putInt(0);
+        wav.putAscii("WAVE");
+
+        // The format chunk: PCM, 1 channel, the sample rate, the bytes per second, the bytes per frame and the bits per sample
+        wav.putAscii("fmt ");
+        wav.putInt(16);
+        wav.putShort((short) 1);
+        wav.putShort((short) 1);
+        wav.putInt(ToneOscillator.SAMPLE_RATE);
+        wav.putInt(ToneOscillator.SAMPLE_RATE * ToneOscillator.BYTES_PER_SAMPLE);
+        wav.putShort((short) ToneOscillator.BYTES_PER_SAMPLE);
+        wav.putShort((short) (8 * ToneOscillator.BYTES_PER_SAMPLE));
+
+        // The data chunk, its size is written at the end
+        wav.putAscii("data");
+        wav.putInt(0);
+    }
+
+    // The main method is used to export the chirp of the default binary of the application
+    public static void main(final String[] args) throws IOException {
+        // Get the name of the files, the number of steps per second of sound, the maximum number of steps and the format of the frequencies from the arguments
+        final String name = args.length > 0 ? args[0] : "chirp";
+        final double stepsPerSecond = args.length > 1 ? Double.parseDouble(args[1]) : DEFAULT_STEPS_PER_SECOND;
+        final long maxSteps = args.length > 2 ? Long.parseLong(args[2]) : MAX_STEPS;
+        final boolean binary = args.length > 3 && args[3].equals("bin");
+
+        // Create the default binary of the application and its stepper
+        final SimulationState state = SimulationState.createDefault(SimulationDefaults.DEFAULT_SIMULATION_WIDTH, SimulationDefaults.DEFAULT_SIMULATION_HEIGHT);
+        final SimulationStepper stepper = new SimulationStepper(state);
+        final ChirpExporter exporter = new ChirpExporter(state, stepper, stepsPerSecond);
+
+        // Export the chirp and measure how long it took
+        final Path wavPath = Paths.get(name + ".wav");
+        final Path frequencyPath = Paths.get(name + (binary ? ".bin" : ".csv"));
+        final long start = System.nanoTime();
+        final long steps = exporter.export(wavPath, frequencyPath, binary, maxSteps);
+        final double seconds = (System.nanoTime() - start) / 1.0e9;
+
+        // Print what was written, and how much faster than the application it was
+        final double soundSeconds = (double) exporter.getSampleCount() / ToneOscillator.SAMPLE_RATE;
+        System.out.println(steps + " steps exported to " + wavPath + " and " + frequencyPath + ": " + String.format("%.2f", soundSeconds) + "s of sound in " + String.format("%.3f", seconds) + "s (" + String.format("%.0f", soundSeconds / seconds) + "x real time)");
+    }
+}
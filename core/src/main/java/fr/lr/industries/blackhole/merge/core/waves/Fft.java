@@ -0,0 +1,103 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// The Fft class is used to calculate the discrete Fourier transform of complex signals of a fixed size, a power of 2, with an in-place radix-2 FFT
+// The twiddle factors and the bit reversal of the size are calculated once, so a transform never allocates, an instance can be shared by threads as it keeps no state
+// https://en.wikipedia.org/wiki/Cooley%E2%80%93Tukey_FFT_algorithm
+public class Fft {
+    // The size variable is used to store the number of samples of the signals
+    private final int size;
+
+    // The cosines and sines variables are used to store the twiddle factors: cos(2 * pi * k / N) and -sin(2 * pi * k / N)
+    private final double[] cosines;
+    private final double[] sines;
+
+    // The bitReversed variable is used to store where every sample goes before the butterflies
+    private final int[] bitReversed;
+
+    // The Fft constructor is used to create a new transform of the given size, a power of 2
+    public Fft(final int size) {
+        // Check that the size is a power of 2
+        if (size < 2 || Integer.bitCount(size) != 1) throw new IllegalArgumentException("The size of the FFT must be a power of 2, got " + size);
+
+        // Assign the parameter to the global variable
+        this.size = size;
+
+        // Calculate the twiddle factors
+        this.cosines = new double[size / 2];
+        this.sines = new double[size / 2];
+        for (int k = 0; k < size / 2; k++) {
+            this.cosines[k] = Math.cos(2 * Math.PI * k / size);
+            this.sines[k] = -Math.sin(2 * Math.PI * k / size);
+        }
+
+        // Calculate the bit reversal of every index
+        final int bits = Integer.numberOfTrailingZeros(size);
+        this.bitReversed = new int[size];
+        for (int i = 0; i < size; i++) this.bitReversed[i] = Integer.reverse(i) >>> (Integer.SIZE - bits);
+    }
+
+    // The getSize method is used to get the number of samples of the signals
+    public int getSize() {
+        // Return the size
+        return this.size;
+    }
+
+    // The getBitReversed method is used to get where the sample of the given index goes before the butterflies, so a signal can be copied straight to its place
+    public int getBitReversed(final int index) {
+        // Return the bit reversed index
+        return this.bitReversed[index];
+    }
+
+    // The transform method is used to replace a signal by its Fourier transform
+    public void transform(final double[] real, final double[] imaginary) {
+        // Put every sample at its bit reversed index, then do the butterflies
+        this.reorder(real, imaginary);
+        this.butterflies(real, imaginary);
+    }
+
+    // The inverse method is used to replace a Fourier transform by its signal, scaled by 1 / N
+    // Calculated using the formula: x = conj(FFT(conj(X))) / N
+    public void inverse(final double[] real, final double[] imaginary) {
+        // Conjugate, transform, conjugate and scale
+        for (int i = 0; i < this.size; i++) imaginary[i] = -imaginary[i];
+        this.transform(real, imaginary);
+        final double scale = 1.0 / this.size;
+        for (int i = 0; i < this.size; i++) {
+            real[i] *= scale;
+            imaginary[i] *= -scale;
+        }
+    }
+
+    // The reorder method is used to swap every sample with the one at its bit reversed index
+    private void reorder(final double[] real, final double[] imaginary) {
+        // Swap every pair once
+        for (int i = 0; i < this.size; i++) {
+            final int j = this.bitReversed[i];
+            if (j <= i) continue;
+            final double swapReal = real[i], swapImaginary = imaginary[i];
+            real[i] = real[j];
+            imaginary[i] = imaginary[j];
+            real[j] = swapReal;
+            imaginary[j] = swapImaginary;
+        }
+    }
+
+    // The butterflies method is used to transform a signal already in bit reversed order, the butterflies of each size use every (N / size)th twiddle factor
+    public void butterflies(final double[] real, final double[] imaginary) {
+        for (int size = 2; size <= this.size; size <<= 1) {
+            final int half = size >> 1, step = this.size / size;
+            for (int start = 0; start < this.size; start += size) {
+                for (int k = 0; k < half; k++) {
+                    final int even = start + k, odd = even + half;
+                    final double cos = this.cosines[k * step], sin = this.sines[k * step];
+                    final double oddReal = real[odd] * cos - imaginary[odd] * sin;
+                    final double oddImaginary = real[odd] * sin + imaginary[odd] * cos;
+                    real[odd] = real[even] - oddReal;
+                    imaginary[odd] = imaginary[even] - oddImaginary;
+                    real[even] += oddReal;
+                    imaginary[even] += oddImaginary;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// Import the required classes and packages
+import java.util.concurrent.atomic.AtomicLong;
+
+// The SampleRing class is used to hand samples from a single thread writing them to a single thread reading them, without any lock
+// The writer never waits for the reader: a sample written while the ring is full is dropped and counted, so a slow reader never slows the simulation down
+// The indexes are counted from the first sample ever written, the writer publishes its index after the sample and the reader its index after reading, so each side only reads the index of the other
+public class SampleRing {
+    // The samples variable is used to store the samples, the sample of the index i is at i & mask
+    private final double[] samples;
+    private final int mask;
+
+    // The writeIndex variable is used to store the index of the next sample written, it is only changed by the writer
+    private final AtomicLong writeIndex = new AtomicLong();
+
+    // The readIndex variable is used to store the index of the next sample read, it is only changed by the reader
+    private final AtomicLong readIndex = new AtomicLong();
+
+    // The droppedCount variable is used to count the samples dropped because the ring was full
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    // The SampleRing constructor is used to create a new ring keeping the given number of samples, a power of 2
+    public SampleRing(final int capacity) {
+        // Check that the capacity is a power of 2, so the index of a sample is a mask
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("The capacity of the ring must be a power of 2, got " + capacity);
+
+        // Create the ring
+        this.samples = new double[capacity];
+        this.mask = capacity - 1;
+    }
+
+    // The offer method is used by the writer to add a sample after the newest one, it returns false if the ring is full and the sample is dropped
+    public boolean offer(final double sample) {
+        // Drop the sample if the reader hasn't read the oldest one yet
+        final long index = this.writeIndex.getPlain();
+        if (index - this.readIndex.getAcquire() >= this.samples.length) {
+            this.droppedCount.incrementAndGet();
+            return false;
+        }
+
+        // Store the sample, then publish it
+        this.samples[(int) (index & this.mask)] = sample;
+        this.writeIndex.setRelease(index + 1);
+        return true;
+    }
+
+    // The poll method is used by the reader to move the oldest samples to the given array, from its start, it returns the number of samples moved
+    public int poll(final double[] destination) {
+        // Get the samples published by the writer, at most the length of the array
+        final long first = this.readIndex.getPlain();
+        final int count = (int) Math.min(destination.length, this.writeIndex.getAcquire() - first);
+
+        // Copy the samples, then give their places back to the writer
+        for (int i = 0; i < count; i++) destination[i] = this.samples[(int) ((first + i) & this.mask)];
+        this.readIndex.setRelease(first + count);
+        return count;
+    }
+
+    // The skip method is used by the reader to drop every sample written so far
+    public void skip() {
+        // Read up to the latest sample published by the writer
+        this.readIndex.setRelease(this.writeIndex.getAcquire());
+    }
+
+    // The getCapacity method is used to get the maximum number of samples in the ring
+    public int getCapacity() {
+        // Return the length of the ring
+        return this.samples.length;
+    }
+
+    // The getDroppedCount method is used to get the number of samples dropped because the ring was full
+    public long getDroppedCount() {
+        // Return the number of dropped samples
+        return this.droppedCount.get();
+    }
+}
@@ -0,0 +1,200 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// Import the required classes and packages
+import java.util.Arrays;
+
+// The Spectrogram class is used to calculate the spectrogram of a signal as it comes, with a short-time Fourier transform over a sliding window
+// Every hop samples, the last window of samples is weighted by a Hann window and transformed with an in-place radix-2 FFT, and the power of its lowest bins becomes a new column
+// The FFT, the Hann window and every array are made once, so adding samples never allocates
+// The power of a column is turned into colors, from the background for the quiet bins to white for the loudest one, relative to a peak that slowly decays, so the chirp stays visible as it grows louder
+// https://en.wikipedia.org/wiki/Short-time_Fourier_transform
+public class Spectrogram {
+    // The DEFAULT_WINDOW_SIZE, DEFAULT_HOP and DEFAULT_BIN_COUNT constants are used to set the default number of samples of a window, of samples between two columns and of bins of a column
+    public static final int DEFAULT_WINDOW_SIZE = 2048;
+    public static final int DEFAULT_HOP = 32;
+    public static final int DEFAULT_BIN_COUNT = 64;
+
+    // The DYNAMIC_RANGE constant is used to set the range in decibels shown below the peak, anything quieter is the background
+    private static final double DYNAMIC_RANGE = 60.0;
+
+    // The PEAK_DECAY constant is used to set how many decibels the peak loses at every column, so a loud moment doesn't hide what comes after it
+    private static final double PEAK_DECAY = 0.05;
+
+    // The COLOR_STOPS constant is used to set the colors of the color map, from the quietest to the loudest, they are blended into the palette
+    private static final int[] COLOR_STOPS = {0x000000, 0x1B0C41, 0x6A176E, 0xBB3754, 0xF3761B, 0xFCFFA4};
+
+    // The windowSize, hop and binCount variables are used to store the size of a window, the number of samples between two columns and the number of bins of a column
+    private final int windowSize;
+    private final int hop;
+    private final int binCount;
+
+    // The fft variable is used to transform the windows
+    private final Fft fft;
+
+    // The hann variable is used to store the weights of the Hann window
+    private final double[] hann;
+
+    // The samples variable is used to store the last window of samples as a ring, the sample i is at i % windowSize
+    private final double[] samples;
+
+    // The real and imaginary variables are used to store the window being transformed
+    private final double[] real;
+    private final double[] imaginary;
+
+    // The column variable is used to store the colors of the latest column, from the highest bin at the top to the lowest one at the bottom
+    private final int[] column;
+
+    // The palette variable is used to store the 256 colors of the color map
+    private final int[] palette = new int[256];
+
+    // The sampleCount and columnCount variables are used to count the samples added and the columns made
+    private long sampleCount = 0;
+    private long columnCount = 0;
+
+    // The peak variable is used to store the loudest power in decibels of the recent columns
+    private double peak = Double.NEGATIVE_INFINITY;
+
+    // The Spectrogram constructor is used to create a new spectrogram with the default settings
+    public Spectrogram() {
+        // Create the spectrogram with the default settings
+        this(DEFAULT_WINDOW_SIZE, DEFAULT_HOP, DEFAULT_BIN_COUNT);
+    }
+
+    // The Spectrogram constructor is used to create a new spectrogram with the given window size (a power of 2), hop and number of bins shown (at most half the window size)
+    public Spectrogram(final int windowSize, final int hop, final int binCount) {
+        // Check that the settings make sense, the FFT checks the window size
+        this.fft = new Fft(windowSize);
+        if (hop <= 0) throw new IllegalArgumentException("The hop must be positive, got " + hop);
+        if (binCount <= 0 || binCount > windowSize / 2) throw new IllegalArgumentException("The number of bins must be between 1 and " + windowSize / 2 + ", got " + binCount);
+
+        // Assign the parameters to the global variables
+        this.windowSize = windowSize;
+        this.hop = hop;
+        this.binCount = binCount;
+
+        // Create the arrays of the samples, of the transform and of the column
+        this.samples = new double[windowSize];
+        this.real = new double[windowSize];
+        this.imaginary = new double[windowSize];
+        this.column = new int[binCount];
+
+        // Calculate the Hann window: 0.5 * (1 - cos(2 * pi * i / (N - 1)))
+        this.hann = new double[windowSize];
+        for (int i = 0; i < windowSize; i++) this.hann[i] = 0.5 * (1 - Math.cos(2 * Math.PI * i / (windowSize - 1)));
+
+        // Blend the colors of the color map into the palette
+        for (int i = 0; i < this.palette.length; i++) {
+            final double position = i / (this.palette.length - 1.0) * (COLOR_STOPS.length - 1);
+            final int stop = Math.min((int) position, COLOR_STOPS.length - 2);
+            this.palette[i] = 0xFF000000 | blend(COLOR_STOPS[stop], COLOR_STOPS[stop + 1], position - stop);
+        }
+
+        // Start with an empty column
+        this.clear();
+    }
+
+    // The add method is used to add a sample, it returns true if a new column was made, it can then be read with getColumn
+    public boolean add(final double sample) {
+        // Store the sample in place of the oldest one
+        this.samples[(int) (this.sampleCount % this.windowSize)] = sample;
+        this.sampleCount++;
+
+        // Make a column every hop samples, once the window is full
+        if (this.sampleCount < this.windowSize || (this.sampleCount - this.windowSize) % this.hop != 0) return false;
+        this.computeColumn();
+        return true;
+    }
+
+    // The computeColumn method is used to transform the last window of samples and turn the power of its bins into the colors of a new column
+    private void computeColumn() {
+        // Get the mean of the window, so a signal that doesn't oscillate around 0 doesn't fill the first bin
+        double mean = 0;
+        for (int i = 0; i < this.windowSize; i++) mean += this.samples[i];
+        mean /= this.windowSize;
+
+        // Copy the window from the oldest sample to the newest, weighted by the Hann window, at its bit reversed index, the oldest sample is the next one to be replaced
+        final int oldest = (int) (this.sampleCount % this.windowSize);
+        for (int i = 0; i < this.windowSize; i++) {
+            final int index = this.fft.getBitReversed(i);
+            final int sample = oldest + i < this.windowSize ? oldest + i : oldest + i - this.windowSize;
+            this.real[index] = (this.samples[sample] - mean) * this.hann[i];
+            this.imaginary[index] = 0;
+        }
+
+        // Transform the window, it is already in bit reversed order
+        this.fft.butterflies(this.real, this.imaginary);
+
+        // Get the power of every bin in decibels, stored for now in the real parts, and the loudest one
+        double loudest = Double.NEGATIVE_INFINITY;
+        for (int bin = 0; bin < this.binCount; bin++) {
+            final double power = this.real[bin] * this.real[bin] + this.imaginary[bin] * this.imaginary[bin];
+            this.real[bin] = power > 0 ? 10 * Math.log10(power) : Double.NEGATIVE_INFINITY;
+            loudest = Math.max(loudest, this.real[bin]);
+        }
+
+        // Decay the peak, and raise it to the loudest bin of the column
+        this.peak = Math.max(loudest, this.peak - PEAK_DECAY);
+
+        // Turn the power of every bin into a color of the palette, the lowest bin at the bottom
+        for (int bin = 0; bin < this.binCount; bin++) {
+            final double level = (this.real[bin] - (this.peak - DYNAMIC_RANGE)) / DYNAMIC_RANGE;
+            final int color = level > 0 ? (int) (Math.min(level, 1) * (this.palette.length - 1)) : 0;
+            this.column[this.binCount - 1 - bin] = this.palette[color];
+        }
+        this.columnCount++;
+    }
+
+    // The clear method is used to remove every sample, the next column is made once the window is full again
+    public void clear() {
+        // Forget the samples and the peak, and empty the column
+        this.sampleCount = 0;
+        this.columnCount = 0;
+        this.peak = Double.NEGATIVE_INFINITY;
+        Arrays.fill(this.column, this.palette[0]);
+    }
+
+    // The getColumn method is used to get the colors of the latest column as ARGB, from the highest bin at the top to the lowest one at the bottom, the array is reused by the next column
+    public int[] getColumn() {
+        // Return the column
+        return this.column;
+    }
+
+    // The getBackground method is used to get the ARGB color of a quiet bin
+    public int getBackground() {
+        // Return the first color of the palette
+        return this.palette[0];
+    }
+
+    // The getColumnCount method is used to get the number of columns made since the spectrogram was created or cleared
+    public long getColumnCount() {
+        // Return the number of columns
+        return this.columnCount;
+    }
+
+    // The getBinCount, getWindowSize and getHop methods are used to get the settings of the spectrogram
+    public int getBinCount() {
+        // Return the number of bins
+        return this.binCount;
+    }
+
+    public int getWindowSize() {
+        // Return the window size
+        return this.windowSize;
+    }
+
+    public int getHop() {
+        // Return the hop
+        return this.hop;
+    }
+
+    // The blend method is used to blend two RGB colors, 0 being the first one and 1 the second one
+    private static int blend(final int color, final int otherColor, final double ratio) {
+        // Blend every channel of the colors
+        int blended = 0;
+        for (int shift = 0; shift <= 16; shift += 8) {
+            final int channel = (color >> shift) & 0xFF, otherChannel = (otherColor >> shift) & 0xFF;
+            blended |= (int) Math.round(channel + (otherChannel - channel) * ratio) << shift;
+        }
+        return blended;
+    }
+}
@@ -0,0 +1,197 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.BlackHoleStore;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.C;
+import static fr.lr.industries.blackhole.merge.core.physics.Physics.G;
+
+// The StrainGenerator class is used to calculate the strain of the gravitational waves of the black holes, h+ and hx, with the quadrupole formula
+// The strain is seen by an observer at the given distance on the axis perpendicular to the plane of the simulation, the distances of the simulation are in meters like the constants of the physics
+// Calculated using the formula: h_ij = 2 * G / (c^4 * D) * d^2 I_ij / dt^2, with I_ij = sum(m * x_i * x_j) the quadrupole moment of the black holes around their center of mass
+// So: h+ = G / (c^4 * D) * (I''_xx - I''_yy) and hx = 2 * G / (c^4 * D) * I''_xy, with I''_ij = sum(m * (2 * v_i * v_j + x_i * a_j + a_i * x_j))
+// The generator never asks the solver for the forces: when the accelerations of the store don't match the positions (the leapfrog and Euler integrators end their steps with a drift), I'' is the change of I'_ij = sum(m * (x_i * v_j + v_i * x_j)) over the step instead
+// For a circular binary, this is the amplitude 4 * (G * Mc)^(5/3) * (pi * f)^(2/3) / (c^4 * D) of the chirp mass Mc and of the frequency f of the waves
+// https://en.wikipedia.org/wiki/Quadrupole_formula
+// Every strain is added to two histories of a fixed capacity, so it can be read live or after a headless run without any allocation
+public class StrainGenerator {
+    // The DEFAULT_DISTANCE constant is used to set the distance of the observer in meters, a megaparsec
+    public static final double DEFAULT_DISTANCE = 3.0857e22;
+
+    // The distance variable is used to store the distance of the observer in meters
+    private final double distance;
+
+    // The plusHistory and crossHistory variables are used to store the last strains h+ and hx
+    private final WaveHistory plusHistory;
+    private final WaveHistory crossHistory;
+
+    // The plusRing variable is used to store the ring every h+ is also given to, so another thread can read every strain without a lock, null if there is none
+    private SampleRing plusRing = null;
+
+    // The previousXX, previousYY and previousXY variables are used to store the first time derivative of the quadrupole moment of the last strain, and previousCount and previousMass the black holes it was calculated for
+    private double previousXX = 0;
+    private double previousYY = 0;
+    private double previousXY = 0;
+    private int previousCount = 0;
+    private double previousMass = 0;
+
+    // The plus and cross variables are used to store the latest strains h+ and hx
+    private double plus = 0;
+    private double cross = 0;
+
+    // The StrainGenerator constructor is used to create a new generator for an observer at the default distance, keeping the default number of strains
+    public StrainGenerator() {
+        // Create the generator with the default distance and capacity
+        this(DEFAULT_DISTANCE, WaveHistory.DEFAULT_CAPACITY);
+    }
+
+    // The StrainGenerator constructor is used to create a new generator for an observer at the given distance in meters, keeping the given number of strains
+    public StrainGenerator(final double distance, final int capacity) {
+        // Check that the observer is somewhere
+        if (!(distance > 0)) throw new IllegalArgumentException("The distance of the observer must be positive, got " + distance);
+
+        // Assign the parameters to the global variables and create the histories
+        this.distance = distance;
+        this.plusHistory = new WaveHistory(capacity);
+        this.crossHistory = new WaveHistory(capacity);
+    }
+
+    // The record method is used to calculate the strain of the black holes of the store after a step of the given length and add it to the histories
+    // If the accelerations of the store match the positions, the second derivative of the quadrupole moment is calculated from them
+    // Otherwise it is the change of its first derivative since the previous strain, over the time step, which needs no force, the strain is then the one of the middle of the step
+    public void record(final BlackHoleStore blackHoles, final double timeStep) {
+        // Get the live arrays of the store
+        final int count = blackHoles.getCount();
+        final double[] x = blackHoles.getX(), y = blackHoles.getY(), vx = blackHoles.getVx(), vy = blackHoles.getVy(), ax = blackHoles.getAx(), ay = blackHoles.getAy(), mass = blackHoles.getMass();
+
+        // Get the total mass, the center of mass and its velocity and acceleration, the quadrupole moment is taken around the center of mass
+        double totalMass = 0, centerX = 0, centerY = 0, centerVx = 0, centerVy = 0, centerAx = 0, centerAy = 0;
+        for (int i = 0; i < count; i++) {
+            totalMass += mass[i];
+            centerX += mass[i] * x[i];
+            centerY += mass[i] * y[i];
+            centerVx += mass[i] * vx[i];
+            centerVy += mass[i] * vy[i];
+            centerAx += mass[i] * ax[i];
+            centerAy += mass[i] * ay[i];
+        }
+
+        // There is no wave without mass
+        if (totalMass == 0) {
+            this.previousCount = 0;
+            this.add(0, 0);
+            return;
+        }
+        centerX /= totalMass;
+        centerY /= totalMass;
+        centerVx /= totalMass;
+        centerVy /= totalMass;
+        centerAx /= totalMass;
+        centerAy /= totalMass;
+
+        // Get the first time derivative of the quadrupole moment: I'_ij = sum(m * (x_i * v_j + v_i * x_j))
+        // And its second time derivative from the accelerations: I''_ij = sum(m * (2 * v_i * v_j + x_i * a_j + a_i * x_j))
+        double firstXX = 0, firstYY = 0, firstXY = 0, secondXX = 0, secondYY = 0, secondXY = 0;
+        for (int i = 0; i < count; i++) {
+            // Get the position, the velocity and the acceleration of the black hole around the center of mass
+            final double px = x[i] - centerX, py = y[i] - centerY;
+            final double pvx = vx[i] - centerVx, pvy = vy[i] - centerVy;
+            final double pax = ax[i] - centerAx, pay = ay[i] - centerAy;
+
+            // Add the black hole to the derivatives
+            firstXX += mass[i] * 2 * px * pvx;
+            firstYY += mass[i] * 2 * py * pvy;
+            firstXY += mass[i] * (px * pvy + pvx * py);
+            secondXX += mass[i] * (2 * pvx * pvx + 2 * px * pax);
+            secondYY += mass[i] * (2 * pvy * pvy + 2 * py * pay);
+            secondXY += mass[i] * (2 * pvx * pvy + px * pay + pax * py);
+        }
+
+        // Use the change of the first derivative if the accelerations are stale and the previous strain was of the same black holes, the stale accelerations are only used for the first strain
+        if (!blackHoles.areAccelerationsValid() && this.previousCount == count && this.previousMass == totalMass && timeStep > 0) {
+            secondXX = (firstXX - this.previousXX) / timeStep;
+            secondYY = (firstYY - this.previousYY) / timeStep;
+            secondXY = (firstXY - this.previousXY) / timeStep;
+        }
+
+        // Remember the first derivative for the next strain
+        this.previousXX = firstXX;
+        this.previousYY = firstYY;
+        this.previousXY = firstXY;
+        this.previousCount = count;
+        this.previousMass = totalMass;
+
+        // Get the strain seen by the observer
+        final double factor = G / (C * C * C * C * this.distance);
+        this.add(factor * (secondXX - secondYY), 2 * factor * secondXY);
+    }
+
+    // The add method is used to set the latest strain and add it to the histories
+    private void add(final double plus, final double cross) {
+        // Assign the strains to the latest strains and add them to the histories
+        this.plus = plus;
+        this.cross = cross;
+        this.plusHistory.add(plus);
+        this.crossHistory.add(cross);
+        if (this.plusRing != null) this.plusRing.offer(plus);
+    }
+
+    // The setPlusRing method is used to give every next h+ to the given ring, read by another thread, null to stop
+    // It must be called by the thread recording the strains, or while it doesn't record any
+    public void setPlusRing(final SampleRing plusRing) {
+        // Assign the parameter to the global variable
+        this.plusRing = plusRing;
+    }
+
+    // The clear method is used to remove every strain from the histories
+    public void clear() {
+        // Clear the histories and the latest strains, and forget the derivative of the previous strain
+        this.plusHistory.clear();
+        this.crossHistory.clear();
+        this.plus = 0;
+        this.cross = 0;
+        this.previousCount = 0;
+    }
+
+    // The getPlus and getCross methods are used to get the latest strains h+ and hx
+    public double getPlus() {
+        // Return the latest h+
+        return this.plus;
+    }
+
+    public double getCross() {
+        // Return the latest hx
+        return this.cross;
+    }
+
+    // The getPlusHistory and getCrossHistory methods are used to get the histories of the last strains h+ and hx
+    public WaveHistory getPlusHistory() {
+        // Return the history of h+
+        return this.plusHistory;
+    }
+
+    public WaveHistory getCrossHistory() {
+        // Return the history of hx
+        return this.crossHistory;
+    }
+
+    // The getDistance method is used to get the distance of the observer in meters
+    public double getDistance() {
+        // Return the distance
+        return this.distance;
+    }
+
+    // The getChirpMass method is used to get the chirp mass of a binary, the mass that sets how fast its frequency and its strain grow
+    // Calculated using the formula: (m1 * m2)^(3/5) / (m1 + m2)^(1/5)
+    // https://en.wikipedia.org/wiki/Chirp_mass
+    public static double getChirpMass(final double mass, final double otherMass) {
+        // Return the chirp mass
+        return Math.pow(mass * otherMass, 3.0 / 5.0) / Math.pow(mass + otherMass, 1.0 / 5.0);
+    }
+
+    // The getCircularAmplitude method is used to get the amplitude of the strain of a circular binary of the given chirp mass, with waves of the given frequency, seen at the given distance
+    // Calculated using the formula: 4 * (G * Mc)^(5/3) * (pi * f)^(2/3) / (c^4 * D)
+    public static double getCircularAmplitude(final double chirpMass, final double frequency, final double distance) {
+        // Return the amplitude
+        return 4 * Math.pow(G * chirpMass, 5.0 / 3.0) * Math.pow(Math.PI * frequency, 2.0 / 3.0) / (C * C * C * C * distance);
+    }
+}
@@ -0,0 +1,50 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// The ToneOscillator class is used to make the sound of the gravitational waves, a sine tone at the frequency of the latest gravitational wave, as 16 bits signed little endian mono samples
+// The phase of the sine goes on from a call to the next, so the frequency changes without clicks, and the volume fades in and out over a few milliseconds
+// It is used by the audio engine of the application and by the offline export, so both make the same sound
+public class ToneOscillator {
+    // The SAMPLE_RATE constant is used to set the number of samples per second
+    public static final int SAMPLE_RATE = 44100;
+
+    // The BYTES_PER_SAMPLE constant is used to set the size of a sample, 16 bits
+    public static final int BYTES_PER_SAMPLE = 2;
+
+    // The AMPLITUDE constant is used to set the volume of the tone, as a part of the loudest sound
+    public static final double AMPLITUDE = 0.05;
+
+    // The FADE_SAMPLES constant is used to set the number of samples the tone takes to fade in or out, so it never starts or stops with a click
+    public static final int FADE_SAMPLES = SAMPLE_RATE / 100;
+
+    // The phase and amplitude variables are used to store the phase of the sine and the current volume
+    private double phase = 0;
+    private double amplitude = 0;
+
+    // The fill method is used to write the given number of samples of the sine of the given frequency in the buffer, the volume goes to the given amplitude a bit every sample
+    public void fill(final byte[] buffer, final int offset, final int samples, final double frequency, final double targetAmplitude) {
+        // Get the phase step of a sample and the volume step of a sample
+        final double phaseStep = 2.0 * Math.PI * frequency / SAMPLE_RATE;
+        final double amplitudeStep = AMPLITUDE / FADE_SAMPLES;
+
+        for (int i = 0; i < samples; i++) {
+            // Move the volume toward the target volume
+            if (this.amplitude < targetAmplitude) this.amplitude = Math.min(targetAmplitude, this.amplitude + amplitudeStep);
+            else if (this.amplitude > targetAmplitude) this.amplitude = Math.max(targetAmplitude, this.amplitude - amplitudeStep);
+
+            // Write the sample as 16 bits signed little endian
+            final int sample = (int) (Math.sin(this.phase) * this.amplitude * Short.MAX_VALUE);
+            buffer[offset + BYTES_PER_SAMPLE * i] = (byte) sample;
+            buffer[offset + BYTES_PER_SAMPLE * i + 1] = (byte) (sample >> 8);
+
+            // Move the phase, and keep it small so it stays precise for the whole run
+            this.phase += phaseStep;
+            if (this.phase >= 2.0 * Math.PI) this.phase %= 2.0 * Math.PI;
+        }
+    }
+
+    // The getAmplitude method is used to get the current volume, 0 once the tone has faded out
+    public double getAmplitude() {
+        // Return the amplitude
+        return this.amplitude;
+    }
+}
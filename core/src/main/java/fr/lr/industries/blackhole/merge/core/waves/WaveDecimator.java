@@ -0,0 +1,86 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// The WaveDecimator class is used to reduce the values of a wave history to a number of columns, one for each pixel of the width of a graph
+// Every column keeps the first, the minimum, the maximum and the last of its values, so drawing a line through them shows every peak of the wave with at most 4 points a column
+// When the history has fewer values than columns, every value has its own column, and the graph is the same as a line through every value
+public class WaveDecimator {
+    // The firsts, minimums, maximums and lasts variables are used to store the values of every column, they are reused as long as the number of columns doesn't grow
+    private double[] firsts = new double[0];
+    private double[] minimums = new double[0];
+    private double[] maximums = new double[0];
+    private double[] lasts = new double[0];
+
+    // The columnCount variable is used to store the number of columns of the last decimation
+    private int columnCount = 0;
+
+    // The decimate method is used to reduce the values of the history to at most the given number of columns, it returns the number of columns
+    public int decimate(final WaveHistory history, final int columns) {
+        // Check that there is at least a column
+        if (columns <= 0) throw new IllegalArgumentException("The number of columns must be positive, got " + columns);
+
+        // Use a column for every value if there are not enough of them
+        final int size = history.size();
+        this.columnCount = Math.min(columns, size);
+        if (this.columnCount == 0) return 0;
+
+        // Grow the arrays of the columns if needed
+        if (this.firsts.length < this.columnCount) {
+            this.firsts = new double[this.columnCount];
+            this.minimums = new double[this.columnCount];
+            this.maximums = new double[this.columnCount];
+            this.lasts = new double[this.columnCount];
+        }
+
+        // Loop through the values from the oldest to the newest, the value i is in the column i * columnCount / size
+        final long firstIndex = history.getFirstIndex();
+        int column = -1;
+        for (int i = 0; i < size; i++) {
+            // Get the value and its column
+            final double value = history.get(firstIndex + i);
+            final int valueColumn = (int) ((long) i * this.columnCount / size);
+
+            // Start the column with its first value
+            if (valueColumn != column) {
+                column = valueColumn;
+                this.firsts[column] = value;
+                this.minimums[column] = value;
+                this.maximums[column] = value;
+            }
+
+            // Update the minimum, the maximum and the last value of the column
+            if (value < this.minimums[column]) this.minimums[column] = value;
+            if (value > this.maximums[column]) this.maximums[column] = value;
+            this.lasts[column] = value;
+        }
+
+        // Return the number of columns
+        return this.columnCount;
+    }
+
+    // The getColumnCount method is used to get the number of columns of the last decimation
+    public int getColumnCount() {
+        // Return the number of columns
+        return this.columnCount;
+    }
+
+    // The getFirst, getMinimum, getMaximum and getLast methods are used to get the values of a column of the last decimation
+    public double getFirst(final int column) {
+        // Return the first value of the column
+        return this.firsts[column];
+    }
+
+    public double getMinimum(final int column) {
+        // Return the minimum value of the column
+        return this.minimums[column];
+    }
+
+    public double getMaximum(final int column) {
+        // Return the maximum value of the column
+        return this.maximums[column];
+    }
+
+    public double getLast(final int column) {
+        // Return the last value of the column
+        return this.lasts[column];
+    }
+}
@@ -0,0 +1,133 @@
+package fr.lr.industries.blackhole.merge.core.waves;
+
+// The WaveHistory class is used to store the last values of a gravitational wave in a ring buffer of a fixed capacity, the oldest value is dropped when a new one is added to a full history
+// The minimum and the maximum of the values are kept with two monotonic queues, so adding a value and getting the minimum or the maximum don't loop through the history
+// Every value has an index counted from the first value ever added, so a value keeps the same index while it is in the history
+public class WaveHistory {
+    // The DEFAULT_CAPACITY constant is used to set the number of values kept when no capacity is given
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    // The values variable is used to store the values, the value of the index i is at i % capacity
+    private final double[] values;
+
+    // The minimumIndexes and maximumIndexes variables are used to store the queues of the indexes of the values that can still be the minimum or the maximum, as rings of the same capacity
+    // The values of the minimum queue are increasing from its head to its tail, and the values of the maximum queue decreasing, so the head is the minimum or the maximum of the history
+    private final long[] minimumIndexes;
+    private final long[] maximumIndexes;
+
+    // The minimumHead, minimumSize, maximumHead and maximumSize variables are used to store where the queues start in their rings and how many indexes they have
+    private int minimumHead = 0;
+    private int minimumSize = 0;
+    private int maximumHead = 0;
+    private int maximumSize = 0;
+
+    // The count variable is used to store the number of values ever added, it is also the index of the next value
+    private long count = 0;
+
+    // The WaveHistory constructor is used to create a new history keeping the default number of values
+    public WaveHistory() {
+        // Create the history with the default capacity
+        this(DEFAULT_CAPACITY);
+    }
+
+    // The WaveHistory constructor is used to create a new history keeping the given number of values
+    public WaveHistory(final int capacity) {
+        // Check that the history can keep at least a value
+        if (capacity <= 0) throw new IllegalArgumentException("The capacity of the history must be positive, got " + capacity);
+
+        // Create the rings of the values and of the queues
+        this.values = new double[capacity];
+        this.minimumIndexes = new long[capacity];
+        this.maximumIndexes = new long[capacity];
+    }
+
+    // The add method is used to add a value after the newest one, the oldest value is dropped if the history is full
+    public void add(final double value) {
+        // Get the index of the value and the index of the oldest value kept once it is added
+        final long index = this.count;
+        final long oldestIndex = index + 1 - this.values.length;
+
+        // Store the value, in place of the oldest one if the history is full
+        this.values[(int) (index % this.values.length)] = value;
+        this.count++;
+
+        // Drop the indexes of the queues that are not in the history anymore, only the head can be that old
+        if (this.minimumSize > 0 && this.minimumIndexes[this.minimumHead] < oldestIndex) {
+            this.minimumHead = (this.minimumHead + 1) % this.values.length;
+            this.minimumSize--;
+        }
+        if (this.maximumSize > 0 && this.maximumIndexes[this.maximumHead] < oldestIndex) {
+            this.maximumHead = (this.maximumHead + 1) % this.values.length;
+            this.maximumSize--;
+        }
+
+        // Drop the indexes of the values that can't be the minimum anymore, they are older and not smaller than the new value, then add the new value at the tail
+        while (this.minimumSize > 0 && this.get(this.minimumIndexes[(this.minimumHead + this.minimumSize - 1) % this.values.length]) >= value) this.minimumSize--;
+        this.minimumIndexes[(this.minimumHead + this.minimumSize++) % this.values.length] = index;
+
+        // Same for the maximum, with the values not greater than the new value
+        while (this.maximumSize > 0 && this.get(this.maximumIndexes[(this.maximumHead + this.maximumSize - 1) % this.values.length]) <= value) this.maximumSize--;
+        this.maximumIndexes[(this.maximumHead + this.maximumSize++) % this.values.length] = index;
+    }
+
+    // The get method is used to get the value of the given index, it must be between getFirstIndex() and getLastIndex()
+    public double get(final long index) {
+        // Check that the value is still in the history
+        if (index < this.getFirstIndex() || index >= this.count) throw new IndexOutOfBoundsException("The index " + index + " is not in the history, it has the indexes " + this.getFirstIndex() + " to " + (this.count - 1));
+
+        // Return the value from the ring
+        return this.values[(int) (index % this.values.length)];
+    }
+
+    // The getFirstIndex method is used to get the index of the oldest value of the history
+    public long getFirstIndex() {
+        // Return the index of the oldest value kept
+        return Math.max(0, this.count - this.values.length);
+    }
+
+    // The getLastIndex method is used to get the index of the newest value of the history, -1 if the history is empty
+    public long getLastIndex() {
+        // Return the index of the newest value
+        return this.count - 1;
+    }
+
+    // The size method is used to get the number of values in the history
+    public int size() {
+        // Return the number of values, at most the capacity
+        return (int) Math.min(this.count, this.values.length);
+    }
+
+    // The isEmpty method is used to check if the history has no value
+    public boolean isEmpty() {
+        // Return true if no value has been added
+        return this.count == 0;
+    }
+
+    // The getCapacity method is used to get the maximum number of values in the history
+    public int getCapacity() {
+        // Return the length of the ring
+        return this.values.length;
+    }
+
+    // The getMinimum method is used to get the smallest value of the history, NaN if the history is empty
+    public double getMinimum() {
+        // Return the value at the head of the minimum queue
+        return this.minimumSize == 0 ? Double.NaN : this.values[(int) (this.minimumIndexes[this.minimumHead] % this.values.length)];
+    }
+
+    // The getMaximum method is used to get the greatest value of the history, NaN if the history is empty
+    public double getMaximum() {
+        // Return the value at the head of the maximum queue
+        return this.maximumSize == 0 ? Double.NaN : this.values[(int) (this.maximumIndexes[this.maximumHead] % this.values.length)];
+    }
+
+    // The clear method is used to remove every value, the indexes start from 0 again
+    public void clear() {
+        // Empty the queues and forget the values, they are overwritten by the next ones
+        this.minimumHead = 0;
+        this.minimumSize = 0;
+        this.maximumHead = 0;
+        this.maximumSize = 0;
+        this.count = 0;
+    }
+}
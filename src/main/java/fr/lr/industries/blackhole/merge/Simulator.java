@@ -1,11 +1,19 @@
 package fr.lr.industries.blackhole.merge;
 
 // Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.grid.GridRasterizer;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationClock;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationDefaults;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationState;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationStepper;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationWorker;
+import fr.lr.industries.blackhole.merge.core.waves.WaveHistory;
 import fr.lr.industries.blackhole.merge.simulator.SimulatorStackPane;
 import fr.lr.industries.blackhole.merge.gravitational.waves.GravitationalWavesStackPane;
 import fr.lr.industries.blackhole.merge.settings.SettingsStackPane;
 import fr.lr.industries.blackhole.merge.simulator.BlackHole;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -39,12 +47,6 @@ public class Simulator extends Application {
     public static final double SIMULATION_WIDTH = WIDTH - (WIDTH * 0.20); // The - (WIDTH * 0.20) will allow the window to occupy 80% of the screen's width
     public static final double SIMULATION_HEIGHT = HEIGHT - (HEIGHT * 0.1); // The - (HEIGHT * 0.1) will allow the window to occupy 90% of the screen's height
 
-    // The G constant is used to set the gravitational constant which I know by heart thanks to my so-called "physics" teacher named Mr. Eneman
-    public static final double G = 6.674010551359e-11;
-
-    // The C constant is used to set the speed of light in a vacuum which I also know by heart thanks to my so-called "physics" teacher named Mr. Eneman
-    public static final double C = 299792458.0;
-
     // The BLACK_HOLE_EVENT_HORIZON_COLOR constant is used to set the color of the black hole event horizon
     public static final Color BLACK_HOLE_EVENT_HORIZON_COLOR = Color.RED;
 
@@ -61,6 +63,9 @@ public class Simulator extends Application {
     // The GRAVITATIONAL_WAVE_COLOR constant is used to set the color of the gravitational wave in the graph
     public static final Color GRAVITATIONAL_WAVE_COLOR = Color.WHITE;
 
+    // The GRAVITATIONAL_WAVE_HISTORY constant is used to set the number of the last gravitational waves shown in the graph, it can be set with -Dwaves.history=N
+    public static final int GRAVITATIONAL_WAVE_HISTORY = Integer.getInteger("waves.history", WaveHistory.DEFAULT_CAPACITY);
+
     // The LABEL_COLOR constant is used to set the color of the label used everywhere in the simulation
     public static final Color LABEL_COLOR = Color.WHITE;
     public static final String LABEL_COLOR_HEX = "#FFFFFF";
@@ -73,40 +78,28 @@ public class Simulator extends Application {
     // The LABEL_FREQUENCY_COLOR constant is used to set the color of the label frequency used everywhere in the simulation
     public static final Color LABEL_FREQUENCY_COLOR = Color.GOLD;
 
-    // The TIME_STEP constant is used to set the time step of the simulation
-    public static double TIME_STEP = 0.1;
-
     // Those constants are used to set the default settings of the black holes and their names are self-explanatory
-    public static final double DEFAULT_BLACK_HOLE_MASS = 5.0e15;
-    public static final double DEFAULT_BLACK_HOLE_RADIUS = 44.0; // 44 = LEWIS HAMILTON
-    public static final double DEFAULT_BLACK_HOLE_VELOCITY = 7.5;
-    public static final double DEFAULT_POSITION_DIFFERENCE = SIMULATION_WIDTH / 2.5;
-
-    // The BLACK_HOLE_1 constant is used to set the first black hole
-    public static BlackHole BLACK_HOLE_1 = new BlackHole(
-            SIMULATION_WIDTH / 2 - DEFAULT_POSITION_DIFFERENCE,
-            SIMULATION_HEIGHT / 2,
-            DEFAULT_BLACK_HOLE_VELOCITY,
-            DEFAULT_BLACK_HOLE_VELOCITY,
-            DEFAULT_BLACK_HOLE_MASS,
-            DEFAULT_BLACK_HOLE_RADIUS
-    );
-
-    // The BLACK_HOLE_2 constant is used to set the second black hole
-    public static BlackHole BLACK_HOLE_2 = new BlackHole(
-            SIMULATION_WIDTH / 2 + DEFAULT_POSITION_DIFFERENCE,
-            SIMULATION_HEIGHT / 2,
-            -DEFAULT_BLACK_HOLE_VELOCITY,
-            -DEFAULT_BLACK_HOLE_VELOCITY,
-            DEFAULT_BLACK_HOLE_MASS,
-            DEFAULT_BLACK_HOLE_RADIUS
-    );
-
-    // The GRAVITATIONAL_WAVE_FREQUENCY constant is used to set the gravitational wave frequency
-    public static double GRAVITATIONAL_WAVE_FREQUENCY = 0;
-
-    // The DISTANCE_TO_BE_MERGED_MULTIPLIER constant is used to set the distance to be merged multiplier
-    public static double DISTANCE_TO_BE_MERGED_MULTIPLIER = 0.9;
+    public static final double DEFAULT_BLACK_HOLE_MASS = SimulationDefaults.DEFAULT_BLACK_HOLE_MASS;
+    public static final double DEFAULT_BLACK_HOLE_RADIUS = SimulationDefaults.DEFAULT_BLACK_HOLE_RADIUS;
+
+    // The SIMULATION_STATE constant is used to store the state of the simulation, everything displayed comes from it
+    public static final SimulationState SIMULATION_STATE = SimulationState.createDefault(SIMULATION_WIDTH, SIMULATION_HEIGHT);
+
+    // The SIMULATION_STEPPER constant is used to advance the state of the simulation
+    public static final SimulationStepper SIMULATION_STEPPER = new SimulationStepper(SIMULATION_STATE);
+
+    // The SIMULATION_CLOCK constant is used to decide how many steps are done for each frame, by default one step per frame at the maximum frame rate like before
+    public static final SimulationClock SIMULATION_CLOCK = new SimulationClock(SIMULATION_STEPPER, FPS);
+
+    // The SIMULATION_WORKER constant is used to step the simulation on its own thread, the display only reads the snapshots it publishes
+    // Every change to the state of the simulation must go through SIMULATION_WORKER.update
+    public static final SimulationWorker SIMULATION_WORKER = new SimulationWorker(SIMULATION_CLOCK);
+
+    // The BLACK_HOLE_1 constant is used to render the first black hole, which is the first one added to the store of the simulation
+    public static final BlackHole BLACK_HOLE_1 = new BlackHole(0);
+
+    // The BLACK_HOLE_2 constant is used to render the second black hole, which is the second one added to the store of the simulation
+    public static final BlackHole BLACK_HOLE_2 = new BlackHole(1);
 
     // The following constants are used to set the settings of the grid
     public static final double GRID_CELL_SIZE = 12.5;
@@ -114,8 +107,20 @@ public class Simulator extends Application {
     public static final double GRID_FORCE_MULTIPLIER = 1.5;
     public static final double GRID_MAX_FORCE = 75.0;
 
-    // This variable store the TIME_ELAPSED constant
-    public static double TIME_ELAPSED = 0.0;
+    // The GRID_THREADS constant is used to set the number of threads drawing the grid, it can be set with -Dgrid.threads=N (1 draws the grid on the JavaFX thread only)
+    public static final int GRID_THREADS = Integer.getInteger("grid.threads", GridRasterizer.DEFAULT_PARALLELISM);
+
+    // The GRID_QUALITY_LEVELS constant is used to set the qualities the grid can be drawn with, from the coarsest to the finest, GRID_QUALITY is the first one used
+    public static final double[] GRID_QUALITY_LEVELS = {25.0, 10.0, 5.0, 3.0, 2.0, 1.0};
+    // The GRID_FRAME_BUDGET constant is used to set the time the grid can take to be drawn, half of a frame so the rest of the frame has time too
+    public static final long GRID_FRAME_BUDGET = FRAME_TIME / 2;
+    // The GRID_GOVERNOR constant is used to know whether the quality of the grid follows the time it takes to be drawn, it can be disabled with -Dgrid.governor=false
+    public static final boolean GRID_GOVERNOR = Boolean.parseBoolean(System.getProperty("grid.governor", "true"));
+
+    // The RENDER_SCALES constant is used to set the render scales that can be chosen in the settings, the grid and the gravitational waves are drawn at this part of the size of the screen and stretched to fill it
+    public static final double[] RENDER_SCALES = {0.5, 0.75, 1.0};
+    // The RENDER_SCALE variable is used to store the current render scale, it can be set with --render-scale=S when launching the application
+    public static double RENDER_SCALE = 1.0;
 
     // The following variables are used to store the different StackPanes of the application
     public static SimulatorStackPane simulatorStackPane = null;
@@ -130,11 +135,36 @@ public class Simulator extends Application {
         // Create a Scene to hold the GridPane
         final Scene scene = new Scene(gridPane, WIDTH, HEIGHT, BACKGROUND_COLOR);
 
+        // Get the render scale from the parameters of the application, it must be more than 0 and at most 1
+        final String renderScale = this.getParameters().getNamed().get("render-scale");
+        if (renderScale != null) {
+            try {
+                final double scale = Double.parseDouble(renderScale);
+                if (scale > 0 && scale <= 1) RENDER_SCALE = scale;
+                else System.err.println("The render scale must be more than 0 and at most 1, got " + renderScale);
+            } catch (final NumberFormatException exception) {
+                System.err.println("The render scale must be a number, got " + renderScale);
+            }
+        }
+
         // Create the different StackPanes of the application
         simulatorStackPane = new SimulatorStackPane(SIMULATION_WIDTH, SIMULATION_HEIGHT);
         settingsStackPane = new SettingsStackPane(primaryStage, WIDTH - (WIDTH * 0.80), HEIGHT - (HEIGHT * 0.1)); // The - (WIDTH * 0.80) will allow the window to occupy 20% of the screen's width and the - (HEIGHT * 0.1) will allow the window to occupy 90% of the screen's height
         gravitationalWavesStackPane = new GravitationalWavesStackPane(WIDTH, HEIGHT - (HEIGHT * 0.9)); // The - (HEIGHT * 0.9) will allow the window to occupy 10% of the screen's height while occupying the full width of the screen
 
+        // Stop the animation timers of the simulation and the gravitational waves as soon as the last black holes are merged
+        // The listener is called by the thread of the simulation worker, so the timers are stopped on the JavaFX thread
+        SIMULATION_STEPPER.addMergeListener(event -> {
+            // Keep the simulation running if there are still black holes to merge
+            if (!SIMULATION_STATE.isFinished()) return;
+            Platform.runLater(() -> {
+                // Stop the animation timer of the simulation
+                simulatorStackPane.getAnimationTimer().stop();
+                // Stop the animation timer of the gravitational waves
+                gravitationalWavesStackPane.getAnimationTimer().stop();
+            });
+        });
+
         // Add the StackPanes to the GridPane
         gridPane.add(simulatorStackPane.getStackPane(), 0, 0, 1, 1); // Put the stack pane in the top left corner of the screen
         gridPane.add(settingsStackPane.getStackPane(), 1, 0, 1, 1); // Put the stack pane in the top right corner of the screen
@@ -187,10 +217,4 @@ public class Simulator extends Application {
         // Launch the application
         launch(args);
     }
-
-    // The otherBlackHole method is used to get the other black hole
-    public static BlackHole otherBlackHole(final BlackHole blackHole) {
-        // Return the other black hole
-        return blackHole == BLACK_HOLE_1 ? BLACK_HOLE_2 : BLACK_HOLE_1;
-    }
 }
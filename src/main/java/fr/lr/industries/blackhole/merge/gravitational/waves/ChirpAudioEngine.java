@@ -0,0 +1,144 @@
+package fr.lr.industries.blackhole.merge.gravitational.waves;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.waves.ToneOscillator;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// The ChirpAudioEngine class is used to play the sound of the gravitational waves, a sine tone at the frequency of the latest gravitational wave
+// A single thread writes small buffers to a single line opened once, the oscillator keeps the phase of the sine from a buffer to the next, so the frequency changes without clicks
+// The tone is played for a short time after every new frequency and fades out when no new frequency comes, the thread then waits until the next one
+public class ChirpAudioEngine {
+    // The BUFFER_SAMPLES constant is used to set the number of samples written at once, about 6 milliseconds of sound, the line holds 4 of them
+    public static final int BUFFER_SAMPLES = 256;
+    private static final int LINE_BUFFERS = 4;
+
+    // The TONE_DURATION constant is used to set the time the tone is played after the latest frequency, in nanoseconds
+    public static final long TONE_DURATION = 125_000_000L;
+
+    // The frequency variable is used to store the bits of the frequency of the tone, it is written by the JavaFX thread and read by the thread of the engine without a lock
+    private final AtomicLong frequency = new AtomicLong(Double.doubleToRawLongBits(0));
+
+    // The toneEnd variable is used to store the time the tone stops at, from System.nanoTime()
+    private final AtomicLong toneEnd = new AtomicLong(Long.MIN_VALUE);
+
+    // The underrunCount and bufferCount variables are used to count the buffers written after the line ran out of sound, and all the buffers written
+    private final AtomicLong underrunCount = new AtomicLong();
+    private final AtomicLong bufferCount = new AtomicLong();
+
+    // The buffer variable is used to store the samples written to the line, as 16 bits signed little endian, it is only used by the thread of the engine
+    private final byte[] buffer = new byte[BUFFER_SAMPLES * ToneOscillator.BYTES_PER_SAMPLE];
+
+    // The oscillator variable is used to make the samples of the tone, it is only used by the thread of the engine
+    private final ToneOscillator oscillator = new ToneOscillator();
+
+    // The line variable is used to store the line the sound is written to, null until the engine is started or if there is no sound device
+    private SourceDataLine line;
+
+    // The thread variable is used to store the thread writing the sound
+    private Thread thread;
+
+    // The unavailable variable is used to store if the line couldn't be opened, the engine then never tries again and the simulation goes on without sound
+    private boolean unavailable = false;
+
+    // The start method is used to open the line and start the thread of the engine, it does nothing if it is already started or if the line couldn't be opened before
+    public synchronized void start() {
+        // Only start the engine once, and only try to open the line once
+        if (this.thread != null || this.unavailable) return;
+
+        // Open the line with a buffer of a few small buffers, so the sound follows the frequency closely
+        final AudioFormat format = new AudioFormat(ToneOscillator.SAMPLE_RATE, 16, 1, true, false);
+        try {
+            this.line = AudioSystem.getSourceDataLine(format);
+            this.line.open(format, this.buffer.length * LINE_BUFFERS);
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            // Print the stack trace if there is no sound device, only this time, the simulation goes on without sound
+            e.printStackTrace();
+            this.line = null;
+            this.unavailable = true;
+            return;
+        }
+
+        // Create the thread, as a daemon so it doesn't keep the application alive
+        this.thread = new Thread(this::run, "chirp-audio");
+        this.thread.setDaemon(true);
+        this.thread.start();
+
+        // Print the number of underruns once, when the application closes, on the error stream like the failure to open the line
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> System.err.println("Chirp audio: " + this.getUnderrunCount() + " underruns in " + this.getBufferCount() + " buffers"), "chirp-audio-report"));
+    }
+
+    // The play method is used to play the tone at the given frequency for a short time, it never blocks
+    public void play(final double frequency) {
+        // Give the frequency and the end of the tone to the thread of the engine
+        this.frequency.set(Double.doubleToRawLongBits(frequency));
+        this.toneEnd.set(System.nanoTime() + TONE_DURATION);
+
+        // Wake the thread up if it is waiting
+        if (this.thread != null) LockSupport.unpark(this.thread);
+    }
+
+    // The silence method is used to fade the tone out right away
+    public void silence() {
+        // End the tone now, the thread fades it out
+        this.toneEnd.set(Long.MIN_VALUE);
+    }
+
+    // The isAvailable method is used to check if the sound can be played, false once the line couldn't be opened
+    public synchronized boolean isAvailable() {
+        // Return true if the line wasn't found unavailable
+        return !this.unavailable;
+    }
+
+    // The getUnderrunCount method is used to get the number of buffers written after the line ran out of sound, each one is a short gap in the sound
+    public long getUnderrunCount() {
+        // Return the number of underruns
+        return this.underrunCount.get();
+    }
+
+    // The getBufferCount method is used to get the number of buffers written to the line
+    public long getBufferCount() {
+        // Return the number of buffers
+        return this.bufferCount.get();
+    }
+
+    // The run method is the loop of the thread of the engine
+    private void run() {
+        // The playing variable is used to store if the line is started
+        boolean playing = false;
+
+        while (true) {
+            // Check if the tone must be played, it fades out once it must not
+            final boolean toneOn = System.nanoTime() < this.toneEnd.get();
+
+            // Wait for the next frequency once the tone has faded out, the rest of the sound is played before the line stops
+            if (!toneOn && this.oscillator.getAmplitude() == 0) {
+                if (playing) {
+                    this.line.drain();
+                    this.line.stop();
+                    playing = false;
+                }
+                LockSupport.park(this);
+                continue;
+            }
+
+            // Start the line for a new tone
+            if (!playing) {
+                this.line.start();
+                playing = true;
+            } else if (this.line.available() >= this.line.getBufferSize()) {
+                // The line played all its sound before this buffer was ready
+                this.underrunCount.incrementAndGet();
+            }
+
+            // Fill the buffer and write it, the line blocks until there is room for it, which sets the pace of the thread
+            this.oscillator.fill(this.buffer, 0, BUFFER_SAMPLES, Double.longBitsToDouble(this.frequency.get()), toneOn ? ToneOscillator.AMPLITUDE : 0);
+            this.line.write(this.buffer, 0, this.buffer.length);
+            this.bufferCount.incrementAndGet();
+        }
+    }
+}
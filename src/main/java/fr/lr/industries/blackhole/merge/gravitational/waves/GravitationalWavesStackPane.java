@@ -1,28 +1,42 @@
 package fr.lr.industries.blackhole.merge.gravitational.waves;
 
 // Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationSnapshot;
+import fr.lr.industries.blackhole.merge.core.waves.SampleRing;
+import fr.lr.industries.blackhole.merge.core.waves.WaveDecimator;
+import fr.lr.industries.blackhole.merge.core.waves.WaveHistory;
 import fr.lr.industries.blackhole.merge.utils.StackPaneMaker;
 import fr.lr.industries.blackhole.merge.utils.FontUtils;
+import fr.lr.industries.blackhole.merge.utils.LayerUtils;
 import javafx.animation.AnimationTimer;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Label;
+import javafx.scene.control.Tooltip;
 import javafx.scene.layout.StackPane;
-import javax.sound.sampled.AudioFormat;
-import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.LineUnavailableException;
-import javax.sound.sampled.SourceDataLine;
-import java.util.HashMap;
 import static fr.lr.industries.blackhole.merge.Simulator.*;
 
 // The GravitationalWavesStackPane class is used to create the stack pane for the gravitational waves generated by the black holes
 public class GravitationalWavesStackPane implements StackPaneMaker {
+    // The GRAPH_WIDTH_RATIO constant is used to set the part of the width of the pane used by the graph of the gravitational waves, the spectrogram uses the rest
+    private static final double GRAPH_WIDTH_RATIO = 0.75;
+
+    // The STRAIN_RING_CAPACITY constant is used to set the number of strains the spectrogram can be behind the simulation before the newest ones are dropped
+    private static final int STRAIN_RING_CAPACITY = 1 << 16;
+
     // The WIDTH and HEIGHT variables are used to store the width and height of the screen
     private final double WIDTH;
     private final double HEIGHT;
 
-    // The canvas variable is used to store the canvas for the simulation
+    // The GRAPH_WIDTH variable is used to store the width of the graph of the gravitational waves
+    private final double GRAPH_WIDTH;
+
+    // The frameLayer variable is used to store the layer of the background and the border, it never changes so it is only drawn once
+    private final Canvas frameLayer;
+
+    // The canvas variable is used to store the canvas of the gravitational waves, it is transparent and only drawn again when there is a new gravitational wave
+    // The canvas is the size of the pane times the render scale, and it is stretched to the size of the pane
     private final Canvas canvas;
 
     // The gc variable is used to store the graphics context of the canvas
@@ -34,18 +48,27 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
     // The started variable is used to store if the animation has started or not
     private boolean started = false;
 
-    // Set the duration of the sound to the sound duration (in milliseconds)
-    private final int DURATION = 125;
+    // The audioEngine variable is used to store the engine playing the sound of the gravitational waves
+    private final ChirpAudioEngine audioEngine = new ChirpAudioEngine();
 
     // The OLD_WAVE_FREQUENCY variable is used to store the old gravitational wave frequency
-    private double OLD_WAVE_FREQUENCY = GRAVITATIONAL_WAVE_FREQUENCY;
+    private double OLD_WAVE_FREQUENCY = SIMULATION_STATE.getGravitationalWaveFrequency();
     // The MAX_GRAVITATIONAL_WAVE_FREQUENCY variable is used to store the maximum gravitational wave frequency
-    public double MAX_GRAVITATIONAL_WAVE_FREQUENCY = GRAVITATIONAL_WAVE_FREQUENCY;
+    public double MAX_GRAVITATIONAL_WAVE_FREQUENCY = SIMULATION_STATE.getGravitationalWaveFrequency();
+
+    // The gravitationalWaves variable is used to store the last gravitational wave frequencies, one for each frame with a new frequency
+    private final WaveHistory gravitationalWaves = new WaveHistory(GRAVITATIONAL_WAVE_HISTORY);
+    // The gravitationalWavesStrain variable is used to store the strain h+ of the last gravitational waves, as drawn in the graph
+    private final WaveHistory gravitationalWavesStrain = new WaveHistory(GRAVITATIONAL_WAVE_HISTORY);
+
+    // The spectrogramView variable is used to show the spectrogram of the strain of the gravitational waves, on the right of the graph
+    private final SpectrogramView spectrogramView;
 
-    // The gravitationalWaves variable is used to store the gravitational waves as a hashmap that stores the frame number with its gravitational wave frequency
-    private final HashMap<Integer, Double> gravitationalWaves = new HashMap<>();
-    // The gravitationalWavesSinus variable is used to store the gravitational waves as a hashmap that stores the frame number with its gravitational wave frequency
-    private final HashMap<Integer, Double> gravitationalWavesSinus = new HashMap<>();
+    // The strainRing variable is used to store the h+ of every step, written by the thread of the simulation and read by the spectrogram
+    private final SampleRing strainRing = new SampleRing(STRAIN_RING_CAPACITY);
+
+    // The waveDecimator variable is used to reduce the gravitational waves to a column for each pixel of the width of the canvas before they are drawn
+    private final WaveDecimator waveDecimator = new WaveDecimator();
 
     // The isMuted variable is used to store if the sound is muted or not
     private boolean isMuted = false;
@@ -55,18 +78,30 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
         // Set the width and height of the screen
         this.WIDTH = width;
         this.HEIGHT = height;
+        this.GRAPH_WIDTH = this.WIDTH * GRAPH_WIDTH_RATIO;
+
+        // Create the view of the spectrogram to the size of the rest of the pane
+        this.spectrogramView = new SpectrogramView(this.WIDTH - this.GRAPH_WIDTH, this.HEIGHT);
+        StackPane.setAlignment(this.spectrogramView.getPane(), Pos.CENTER_RIGHT);
+        // Give the h+ of every step to the ring of the spectrogram, between two batches of steps
+        SIMULATION_WORKER.update(() -> SIMULATION_STEPPER.getStrainGenerator().setPlusRing(this.strainRing));
+
+        // Create the layer of the background and the border
+        this.frameLayer = LayerUtils.getFrameLayer(this.WIDTH, this.HEIGHT, BACKGROUND_COLOR, BORDER_COLOR);
 
         // Create a canvas to the size of the screen
         this.canvas = new Canvas(this.WIDTH, this.HEIGHT);
         // Get the graphics context of the canvas
         this.gc = this.canvas.getGraphicsContext2D();
+        // Set the canvas to the render scale
+        this.setRenderScale(RENDER_SCALE);
     }
 
     // The getStackPane method is used to get the stack pane
     @Override
     public StackPane getStackPane() {
         // Create a currentFrequencyLabel to display the gravitational wave frequency
-        final Label currentFrequencyLabel = new Label(GRAVITATIONAL_WAVE_FREQUENCY + " Hz");
+        final Label currentFrequencyLabel = new Label(SIMULATION_STATE.getGravitationalWaveFrequency() + " Hz");
         // Set the text color of the currentFrequencyLabel to the label frequency color
         currentFrequencyLabel.setTextFill(LABEL_FREQUENCY_COLOR);
         // Set the font of the currentFrequencyLabel
@@ -74,7 +109,7 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
         // Put the currentFrequencyLabel at the left high corner of the screen
         StackPane.setAlignment(currentFrequencyLabel, Pos.TOP_LEFT);
         // Create a maximumFrequencyLabel to display the maximum gravitational wave frequency
-        final Label maximumFrequencyLabel = new Label(GRAVITATIONAL_WAVE_FREQUENCY + " Hz");
+        final Label maximumFrequencyLabel = new Label(SIMULATION_STATE.getGravitationalWaveFrequency() + " Hz");
         // Set the text color of the maximumFrequencyLabel to the label frequency color
         maximumFrequencyLabel.setTextFill(LABEL_FREQUENCY_COLOR);
         // Set the font of the maximumFrequencyLabel
@@ -82,14 +117,6 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
         // Put the maximumFrequencyLabel at the left low corner of the screen
         StackPane.setAlignment(maximumFrequencyLabel, Pos.BOTTOM_LEFT);
 
-        // Fill the canvas with the background color
-        this.gc.setFill(BACKGROUND_COLOR);
-        this.gc.fillRect(0, 0, WIDTH, HEIGHT);
-
-        // Draw a border around the canvas with the border color
-        this.gc.setStroke(BORDER_COLOR);
-        this.gc.strokeRect(0, 0, WIDTH, HEIGHT);
-
         // The animationTimer variable is used to store the animation timer for the simulation
         animationTimer = new AnimationTimer() {
             // The handle method is called every frame of the simulation
@@ -100,118 +127,45 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
 
                 // If the elapsed time is greater than the frame time, update this canvas
                 if (elapsedTime >= FRAME_TIME) {
-                    // Fill the canvas with the background color
-                    gc.setFill(BACKGROUND_COLOR);
-                    gc.fillRect(0, 0, WIDTH, HEIGHT);
+                    // Take a snapshot of the simulation, everything drawn in this frame comes from it
+                    final SimulationSnapshot snapshot = SIMULATION_WORKER.getSnapshot();
+                    // Get the gravitational wave frequency of the snapshot
+                    final double gravitationalWaveFrequency = snapshot.getGravitationalWaveFrequency();
 
-                    // Draw a border around the canvas with the border color
-                    gc.setStroke(BORDER_COLOR);
-                    gc.strokeRect(0, 0, WIDTH, HEIGHT);
+                    // Add the strain of every step since the last frame to the spectrogram, without waiting for the simulation, it scrolls when it has new columns
+                    // The spectrogram gets every step whatever the speed of the simulation, so its frequencies keep the same meaning
+                    spectrogramView.update(strainRing);
 
                     // Check if the gravitational wave frequency is not 0 and if it is different from the old gravitational wave frequency
-                    if (GRAVITATIONAL_WAVE_FREQUENCY != 0 && GRAVITATIONAL_WAVE_FREQUENCY != OLD_WAVE_FREQUENCY) {
-                        // Check if both black holes are enabled
-                        if (BLACK_HOLE_1.isEnabled() && BLACK_HOLE_2.isEnabled()) {
+                    if (gravitationalWaveFrequency != 0 && gravitationalWaveFrequency != OLD_WAVE_FREQUENCY) {
+                        // Check if the black holes are not all merged yet
+                        if (!snapshot.isFinished()) {
                             // Set the old gravitational wave frequency to the gravitational wave frequency
-                            OLD_WAVE_FREQUENCY = GRAVITATIONAL_WAVE_FREQUENCY;
+                            OLD_WAVE_FREQUENCY = gravitationalWaveFrequency;
 
                             // Set the currentFrequencyLabel text to the gravitational wave frequency, and round it to the nearest integer
-                            currentFrequencyLabel.setText(String.format("%.0f", GRAVITATIONAL_WAVE_FREQUENCY) + " Hz");
+                            currentFrequencyLabel.setText(String.format("%.0f", gravitationalWaveFrequency) + " Hz");
 
                             // Check if the gravitational wave frequency is greater than the maximum gravitational wave frequency
-                            if (GRAVITATIONAL_WAVE_FREQUENCY > MAX_GRAVITATIONAL_WAVE_FREQUENCY || MAX_GRAVITATIONAL_WAVE_FREQUENCY == 0) {
+                            if (gravitationalWaveFrequency > MAX_GRAVITATIONAL_WAVE_FREQUENCY || MAX_GRAVITATIONAL_WAVE_FREQUENCY == 0) {
                                 // Set the maximum gravitational wave frequency to the gravitational wave frequency
-                                MAX_GRAVITATIONAL_WAVE_FREQUENCY = GRAVITATIONAL_WAVE_FREQUENCY;
+                                MAX_GRAVITATIONAL_WAVE_FREQUENCY = gravitationalWaveFrequency;
                                 // Set the maximumFrequencyLabel text to the maximum gravitational wave frequency, and round it to the nearest integer
                                 maximumFrequencyLabel.setText(String.format("%.0f", MAX_GRAVITATIONAL_WAVE_FREQUENCY) + " Hz");
                             }
 
-                            // Add the gravitational wave frequency to the gravitational waves map
-                            gravitationalWavesSinus.put(gravitationalWavesSinus.size() + 1, Math.sin(GRAVITATIONAL_WAVE_FREQUENCY * Math.PI * 2 / 40));
-                            gravitationalWaves.put(gravitationalWaves.size() + 1, GRAVITATIONAL_WAVE_FREQUENCY);
-
-                            // Calculate the minimum and maximum values of the gravitational waves sinus map
-                            double minX = Double.MAX_VALUE, maxX = Double.MIN_VALUE;
-                            double minY = Double.MAX_VALUE, maxY = Double.MIN_VALUE;
-                            // Loop through the gravitational waves map
-                            for (final int x : gravitationalWavesSinus.keySet()) {
-                                // Get the value of the gravitational wave
-                                final double y = gravitationalWavesSinus.get(x);
-                                // If the value is smaller than the minimum value, set the minimum value to the value
-                                if (x < minX) minX = x;
-                                // If the value is greater than the maximum value, set the maximum value to the value
-                                if (x > maxX) maxX = x;
-                                // If the value is smaller than the minimum value, set the minimum value to the value
-                                if (y < minY) minY = y;
-                                // If the value is greater than the maximum value, set the maximum value to the value
-                                if (y > maxY) maxY = y;
-                            }
+                            // Add the gravitational wave frequency to the gravitational waves histories, the oldest one is dropped if they are full
+                            gravitationalWavesStrain.add(snapshot.getStrainPlus());
+                            gravitationalWaves.add(gravitationalWaveFrequency);
 
-                            // Calculate the scale of the gravitational waves
-                            final double scaleX = WIDTH / (maxX - minX);
-                            final double scaleY = HEIGHT / (maxY - minY);
-
-                            // Loop through the gravitational waves map
-                            for (final int x : gravitationalWavesSinus.keySet()) {
-                                // Get the value of the gravitational wave
-                                final double y = gravitationalWavesSinus.get(x);
-                                // If there is no gravitational wave at the previous x coordinate, continue
-                                if (!gravitationalWavesSinus.containsKey(x - 1)) continue;
-                                // Calculate the pixel coordinates using the previous calculated scale
-                                final double pixelX = (x - minX) * scaleX;
-                                final double pixelY = HEIGHT - (y - minY) * scaleY;
-                                // Calculate the previous pixel coordinates, still using the previous calculated scale
-                                final double previousPixelX = (x - 1 - minX) * scaleX;
-                                final double previousPixelY = HEIGHT - (gravitationalWavesSinus.get(x - 1) - minY) * scaleY;
-                                // Set the stroke color of the graphics context to the gravitational wave color
-                                gc.setStroke(GRAVITATIONAL_WAVE_COLOR);
-                                // Draw a line from the previous pixel coordinates to the pixel coordinates to get a smooth line graph-a-like effect
-                                gc.strokeLine(previousPixelX, previousPixelY, pixelX, pixelY);
-                            }
+                            // Draw the gravitational waves again with the new one
+                            drawGravitationalWaves();
 
                             // If the isMuted variable is set to true, return, so the sound won't be played, and we keep the performance
                             if (isMuted) return;
 
-                            // Create a new audio format with the specified frequency, sample size in bits, channels, signed, big endian
-                            final AudioFormat format = new AudioFormat(44100, 8, 1, true, true);
-                            // Create a new source data line with the specified audio format
-                            SourceDataLine line;
-                            // Try to open the line with the specified audio format and the specified buffer size
-                            try {
-                                // Open the line with the specified audio format and the specified buffer size
-                                line = AudioSystem.getSourceDataLine(format);
-                                // Open the line
-                                line.open(format, 44100);
-                            } catch (LineUnavailableException e) {
-                                // If an error occurs, print the stack trace
-                                throw new RuntimeException(e);
-                            }
-                            // Start the line
-                            line.start();
-
-                            // Create a final variable of the line
-                            final SourceDataLine finalLine = line;
-
-                            // Create a new thread to play the sound
-                            new Thread(() -> {
-                                // Create a new byte array with the specified size
-                                final byte[] buffer = new byte[44100 * DURATION / 1000];
-                                // Loop through the byte array
-                                for (int i = 0; i < buffer.length; i++) {
-                                    // Set the angle of the sound
-                                    final double angle = 2.0 * Math.PI * i * (float) GRAVITATIONAL_WAVE_FREQUENCY / 44100;
-                                    // Set the value of the byte in the byte array
-                                    buffer[i] = (byte) (Math.sin(angle) * 127 * 0.05);
-                                }
-                                // Write the byte array to the line
-                                finalLine.write(buffer, 0, buffer.length);
-                                // Drain the line
-                                finalLine.drain();
-                                // Stop the line
-                                finalLine.stop();
-                                // Close the line
-                                finalLine.close();
-                            }).start(); // Start the thread
+                            // Play the sound of the gravitational wave frequency, the engine goes on with the tone it is already playing
+                            audioEngine.play(gravitationalWaveFrequency);
                         }
                     }
                 }
@@ -223,6 +177,9 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
                 // Set the started variable to true
                 started = true;
 
+                // Start the engine of the sound, it is only started once
+                audioEngine.start();
+
                 // Call the super method
                 super.start();
             }
@@ -233,31 +190,92 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
                 // Set the started variable to false
                 started = false;
 
+                // Fade out the sound
+                audioEngine.silence();
+
+                // Show how many buffers of sound came too late, as a short gap each, in the tooltip of the frequency
+                if (audioEngine.getBufferCount() > 0) {
+                    currentFrequencyLabel.setTooltip(new Tooltip("Sound: " + audioEngine.getUnderrunCount() + " underruns in " + audioEngine.getBufferCount() + " buffers"));
+                } else if (!audioEngine.isAvailable()) {
+                    currentFrequencyLabel.setTooltip(new Tooltip("Sound: no sound device"));
+                }
+
                 // Call the super method
                 super.stop();
             }
         };
 
-        // Create a new stack pane with the canvas and return it
-        return new StackPane(canvas, currentFrequencyLabel, maximumFrequencyLabel);
+        // Create a new stack pane with the canvas and the spectrogram and return it
+        return new StackPane(frameLayer, canvas, spectrogramView.getPane(), currentFrequencyLabel, maximumFrequencyLabel);
+    }
+
+    // The drawGravitationalWaves method is used to draw the gravitational waves, the graphics context is scaled so they are drawn in the coordinates of the pane at every render scale
+    // The gravitational waves are reduced to a column for each pixel of the canvas and drawn as a single path, so drawing them doesn't take longer when there are more of them
+    private void drawGravitationalWaves() {
+        // Clear the previous gravitational waves, the background and the border are on the layer below
+        this.gc.clearRect(0, 0, this.WIDTH, this.HEIGHT);
+
+        // Reduce the gravitational waves to a column for each pixel of the graph on the canvas, a line needs at least two columns
+        final int columns = this.waveDecimator.decimate(this.gravitationalWavesStrain, Math.max(2, (int) Math.ceil(this.canvas.getWidth() * GRAPH_WIDTH_RATIO)));
+        if (columns < 2) return;
+
+        // Get the minimum and maximum values, the history keeps them up to date
+        final double minY = this.gravitationalWavesStrain.getMinimum(), maxY = this.gravitationalWavesStrain.getMaximum();
+
+        // Calculate the scale of the gravitational waves, a flat line is drawn in the middle
+        final double scaleX = this.GRAPH_WIDTH / (columns - 1);
+        final double scaleY = maxY > minY ? this.HEIGHT / (maxY - minY) : 0;
+        final double offsetY = maxY > minY ? 0 : this.HEIGHT / 2;
+
+        // Start the path at the first gravitational wave
+        this.gc.beginPath();
+        this.gc.moveTo(0, this.HEIGHT - offsetY - (this.waveDecimator.getFirst(0) - minY) * scaleY);
+
+        // Loop through the columns, from the oldest to the newest
+        for (int column = 0; column < columns; column++) {
+            // Calculate the x pixel coordinate of the column using the previous calculated scale
+            final double pixelX = column * scaleX;
+            // Go through the first, the minimum, the maximum and the last gravitational wave of the column, a column with a single gravitational wave is a single point
+            this.gc.lineTo(pixelX, this.HEIGHT - offsetY - (this.waveDecimator.getFirst(column) - minY) * scaleY);
+            if (this.waveDecimator.getMinimum(column) == this.waveDecimator.getMaximum(column)) continue;
+            this.gc.lineTo(pixelX, this.HEIGHT - offsetY - (this.waveDecimator.getMinimum(column) - minY) * scaleY);
+            this.gc.lineTo(pixelX, this.HEIGHT - offsetY - (this.waveDecimator.getMaximum(column) - minY) * scaleY);
+            this.gc.lineTo(pixelX, this.HEIGHT - offsetY - (this.waveDecimator.getLast(column) - minY) * scaleY);
+        }
+
+        // Set the stroke color of the graphics context to the gravitational wave color, and draw the whole path in a single call
+        this.gc.setStroke(GRAVITATIONAL_WAVE_COLOR);
+        this.gc.stroke();
+    }
+
+    // The setRenderScale method is used to change the render scale of the gravitational waves, the canvas is resized and the gravitational waves are drawn again
+    public void setRenderScale(final double renderScale) {
+        // Resize the canvas to the size of the pane times the render scale
+        this.canvas.setWidth(this.WIDTH * renderScale);
+        this.canvas.setHeight(this.HEIGHT * renderScale);
+        // Stretch the canvas back to the size of the pane, the stack pane centers it so it fills the pane
+        this.canvas.setScaleX(1 / renderScale);
+        this.canvas.setScaleY(1 / renderScale);
+        // Scale everything drawn on the canvas, so it is drawn in the coordinates of the pane
+        this.gc.setTransform(renderScale, 0, 0, renderScale, 0, 0);
+
+        // Draw the gravitational waves again at the new scale
+        this.drawGravitationalWaves();
     }
 
     // The reset method is used to reset the gravitational waves
     public void reset() {
-        // Clear the gravitational waves map
-        gravitationalWavesSinus.clear();
-        // Clear the gravitational waves sinus map
+        // Clear the gravitational waves strain history
+        gravitationalWavesStrain.clear();
+        // Clear the gravitational waves history
         gravitationalWaves.clear();
-        // First fill the canvas with the background color
-        gc.setFill(BACKGROUND_COLOR);
-        gc.fillRect(0, 0, WIDTH, HEIGHT);
-        // Draw a border around the canvas with the border color
-        gc.setStroke(BORDER_COLOR);
-        gc.strokeRect(0, 0, WIDTH, HEIGHT);
+        // Clear the spectrogram, and drop the strains of the steps before the reset
+        strainRing.skip();
+        spectrogramView.clear();
+        // Clear the gravitational waves, the background and the border are on the layer below
+        gc.clearRect(0, 0, WIDTH, HEIGHT);
         // Set the MAX_GRAVITATIONAL_WAVE_FREQUENCY to 0
         MAX_GRAVITATIONAL_WAVE_FREQUENCY = 0;
-        // Set the GRAVITATIONAL_WAVE_FREQUENCY to 0
-        GRAVITATIONAL_WAVE_FREQUENCY = 0;
     }
 
     // The getAnimationTimer method is used to get the animation timer
@@ -282,6 +300,14 @@ public class GravitationalWavesStackPane implements StackPaneMaker {
     public void setMuted(final boolean muted) {
         // Set the isMuted variable to the specified value
         this.isMuted = muted;
+        // Fade out the sound if it is muted
+        if (muted) this.audioEngine.silence();
+    }
+
+    // The getAudioEngine method is used to get the engine playing the sound of the gravitational waves
+    public ChirpAudioEngine getAudioEngine() {
+        // Return the audio engine
+        return this.audioEngine;
     }
 
     // The getWidth method is used to get the width of this stack pane
@@ -0,0 +1,125 @@
+package fr.lr.industries.blackhole.merge.gravitational.waves;
+
+// Import the required classes and packages
+import fr.lr.industries.blackhole.merge.core.waves.Spectrogram;
+import fr.lr.industries.blackhole.merge.core.waves.SampleRing;
+import javafx.geometry.Rectangle2D;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
+import javafx.scene.layout.Pane;
+
+// The SpectrogramView class is used to show the spectrogram of the gravitational waves, the oldest column on the left and the newest one on the right
+// The columns are written in an image used as a ring, a new column replaces the oldest one, and two views of the image show the part after it then the part before it
+// So a new column only writes a single column of pixels, the spectrogram scrolls by moving the views, and the older columns are never drawn again
+// The samples are the strain of every step of the simulation, read from a ring filled by the thread of the simulation, so the frequencies of the spectrogram are per step whatever the speed of the simulation and the frame rate
+public class SpectrogramView {
+    // The COLUMNS constant is used to set the number of columns shown
+    public static final int COLUMNS = 512;
+
+    // The width and height variables are used to store the size of the view
+    private final double width;
+    private final double height;
+
+    // The spectrogram variable is used to calculate the columns of the spectrogram
+    private final Spectrogram spectrogram = new Spectrogram();
+
+    // The image variable is used to store the columns, the column i is at i % COLUMNS
+    private final WritableImage image;
+
+    // The olderView and newerView variables are used to show the columns after the oldest one, from the left, and the columns before it, up to the newest one
+    private final ImageView olderView;
+    private final ImageView newerView;
+
+    // The pane variable is used to store the pane holding the views
+    private final Pane pane;
+
+    // The SAMPLES_PER_POLL constant is used to set the number of samples moved from the ring at once
+    private static final int SAMPLES_PER_POLL = 4096;
+
+    // The samples variable is used to store the samples moved from the ring before they are added to the spectrogram
+    private final double[] samples = new double[SAMPLES_PER_POLL];
+
+    // The SpectrogramView constructor is used to create a new view of the given size
+    public SpectrogramView(final double width, final double height) {
+        // Assign the parameters to the global variables
+        this.width = width;
+        this.height = height;
+
+        // Create the image, a column of pixels for every column and a row for every bin
+        this.image = new WritableImage(COLUMNS, this.spectrogram.getBinCount());
+
+        // Create the views of the image, stretched to the height of the view and smoothed
+        this.olderView = this.getImageView();
+        this.newerView = this.getImageView();
+
+        // Create the pane of the views to the size of the view, the mouse goes through it
+        this.pane = new Pane(this.olderView, this.newerView);
+        this.pane.setPrefSize(this.width, this.height);
+        this.pane.setMaxSize(this.width, this.height);
+        this.pane.setMouseTransparent(true);
+
+        // Start with an empty spectrogram
+        this.clear();
+    }
+
+    // The getImageView method is used to create a view of the image stretched to the height of the view
+    private ImageView getImageView() {
+        // Create the view and stretch it to the height of the view, its width follows the number of columns it shows
+        final ImageView imageView = new ImageView(this.image);
+        imageView.setFitHeight(this.height);
+        imageView.setPreserveRatio(false);
+        imageView.setSmooth(true);
+        // Return the view
+        return imageView;
+    }
+
+    // The update method is used to add every sample written to the ring since the last call, it never waits for the thread writing them, the view scrolls once if new columns are made
+    public void update(final SampleRing ring) {
+        // Add every sample, and write every new column in place of the oldest one
+        boolean scrolled = false;
+        for (int count = ring.poll(this.samples); count > 0; count = ring.poll(this.samples)) {
+            for (int i = 0; i < count; i++) {
+                if (!this.spectrogram.add(this.samples[i])) continue;
+                this.image.getPixelWriter().setPixels((int) ((this.spectrogram.getColumnCount() - 1) % COLUMNS), 0, 1, this.spectrogram.getBinCount(), PixelFormat.getIntArgbInstance(), this.spectrogram.getColumn(), 0, 1);
+                scrolled = true;
+            }
+        }
+
+        // Move the views so the newest column is on the right
+        if (scrolled) this.updateViews((int) (this.spectrogram.getColumnCount() % COLUMNS));
+    }
+
+    // The updateViews method is used to move the views of the image so the given column is on the left, and the column before it on the right
+    private void updateViews(final int oldestColumn) {
+        // Get the width of a column in the view
+        final double columnWidth = this.width / COLUMNS;
+
+        // Show the columns from the oldest one to the end of the image on the left
+        this.olderView.setViewport(new Rectangle2D(oldestColumn, 0, COLUMNS - oldestColumn, this.spectrogram.getBinCount()));
+        this.olderView.setFitWidth((COLUMNS - oldestColumn) * columnWidth);
+
+        // Show the columns from the start of the image to the newest one on the right, there are none when the oldest column is the first one
+        this.newerView.setVisible(oldestColumn > 0);
+        if (oldestColumn == 0) return;
+        this.newerView.setViewport(new Rectangle2D(0, 0, oldestColumn, this.spectrogram.getBinCount()));
+        this.newerView.setFitWidth(oldestColumn * columnWidth);
+        this.newerView.setLayoutX((COLUMNS - oldestColumn) * columnWidth);
+    }
+
+    // The clear method is used to remove every column, the spectrogram starts again from the next samples
+    public void clear() {
+        // Clear the spectrogram, its column is then the background
+        this.spectrogram.clear();
+
+        // Write the background in every column of the image, and show it from the first column
+        for (int x = 0; x < COLUMNS; x++) this.image.getPixelWriter().setPixels(x, 0, 1, this.spectrogram.getBinCount(), PixelFormat.getIntArgbInstance(), this.spectrogram.getColumn(), 0, 1);
+        this.updateViews(0);
+    }
+
+    // The getPane method is used to get the pane holding the views of the spectrogram
+    public Pane getPane() {
+        // Return the pane
+        return this.pane;
+    }
+}
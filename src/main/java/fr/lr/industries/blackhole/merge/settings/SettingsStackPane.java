@@ -2,15 +2,18 @@ package fr.lr.industries.blackhole.merge.settings;
 
 // Import the required classes and packages
 import fr.lr.industries.blackhole.merge.Simulator;
+import fr.lr.industries.blackhole.merge.core.integrator.Integrator;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationClock;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationSnapshot;
 import fr.lr.industries.blackhole.merge.utils.StackPaneMaker;
 import fr.lr.industries.blackhole.merge.utils.FontUtils;
+import fr.lr.industries.blackhole.merge.utils.LayerUtils;
 import javafx.animation.AnimationTimer;
 import javafx.beans.value.ChangeListener;
 import javafx.geometry.Insets;
 import javafx.geometry.Point2D;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.*;
 import javafx.scene.control.Button;
 import javafx.scene.control.Label;
@@ -54,12 +57,14 @@ public class SettingsStackPane implements StackPaneMaker {
     private final Collection<Label> information = this.getLabelsFromMarkdownFile("information.md");
 
     // Those variables are used to store the sliders and are self-explanatory
-    private final Slider timeSlider = this.getSlider(0.01, 1, TIME_STEP, 0.01);
+    private final Slider timeSlider = this.getSlider(0.01, 1, SIMULATION_STATE.getTimeStep(), 0.01);
     private final Slider blackHole1RadiusSlider = this.getSlider(25.0, ((SIMULATION_HEIGHT / 2) / 1.02), BLACK_HOLE_1.getRadius(), 1);
     private final Slider blackHole2RadiusSlider = this.getSlider(25.0, ((SIMULATION_HEIGHT / 2) / 1.02), BLACK_HOLE_2.getRadius(), 1);
     private final Slider blackHole1MassSlider = this.getSlider(1.0, DEFAULT_BLACK_HOLE_MASS * 4, BLACK_HOLE_1.getMass(), 1);
     private final Slider blackHole2MassSlider = this.getSlider(1.0, DEFAULT_BLACK_HOLE_MASS * 4, BLACK_HOLE_2.getMass(), 1);
-    private final Slider distanceToBeMergedMultiplierSlider = this.getSlider(0, 10, DISTANCE_TO_BE_MERGED_MULTIPLIER, 0.1);
+    private final Slider distanceToBeMergedMultiplierSlider = this.getSlider(0, 10, SIMULATION_STATE.getDistanceToBeMergedMultiplier(), 0.1);
+    private final Slider stepsPerSecondSlider = this.getSlider(1, 10_000, SIMULATION_CLOCK.getStepsPerSecond(), 1);
+    private final Slider stepsPerRenderSlider = this.getSlider(1, 1_000, SIMULATION_CLOCK.getStepsPerRender(), 1);
 
     // Those variables are used to store the values of the settings
     private double blackHole1Radius = DEFAULT_BLACK_HOLE_RADIUS;
@@ -79,10 +84,8 @@ public class SettingsStackPane implements StackPaneMaker {
     // The getStackPane method is used to get the stackPane of the settings
     @Override
     public StackPane getStackPane() {
-        // Create a canvas to draw on our settings
-        final Canvas canvas = new Canvas(this.WIDTH, this.HEIGHT);
-        // Create a graphics context to draw on the canvas
-        final GraphicsContext gc = canvas.getGraphicsContext2D();
+        // Create the layer of the background and the border of our settings, it never changes so it is only drawn once
+        final Canvas canvas = LayerUtils.getFrameLayer(this.WIDTH, this.HEIGHT, BACKGROUND_COLOR, BORDER_COLOR);
 
         // Preserve the ratio of the logo when resizing the image
         this.logoLrIndustries.setPreserveRatio(true);
@@ -101,33 +104,23 @@ public class SettingsStackPane implements StackPaneMaker {
             System.out.println("GravitationalWaves Height :" + gravitationalWavesStackPane.getHeight());
         });
 
-        // Fill the canvas with the background color
-        gc.setFill(BACKGROUND_COLOR);
-        gc.fillRect(0, 0, this.WIDTH, this.HEIGHT);
-
-        // Draw a border around the canvas with the border color
-        gc.setStroke(BORDER_COLOR);
-        gc.strokeRect(0, 0, this.WIDTH, this.HEIGHT);
-
-        // Create an animation timer for the labels and the background
+        // Create an animation timer for the labels, the background and the border are never drawn again
         new AnimationTimer() {
+            // The lastSnapshot variable is used to store the snapshot shown by the labels, so they are only changed when the simulation moved
+            private SimulationSnapshot lastSnapshot = null;
+
             @Override
             public void handle(final long now) {
                 // Get the elapsed time since the last frame
                 final long elapsedTime = now - LAST_FRAME_TIME_SIMULATOR;
 
-                // If the elapsed time is greater than the frame time, update this canvas
-                if (elapsedTime >= FRAME_TIME) {
-                    // Fill the canvas with the background color
-                    gc.setFill(BACKGROUND_COLOR);
-                    gc.fillRect(0, 0, WIDTH, HEIGHT);
+                // If the elapsed time is greater than the frame time and the simulation moved, update the labels, nothing is drawn while the simulation is paused
+                final SimulationSnapshot snapshot = SIMULATION_WORKER.getSnapshot();
+                if (elapsedTime >= FRAME_TIME && snapshot != this.lastSnapshot) {
+                    this.lastSnapshot = snapshot;
 
-                    // Draw a border around the canvas with the border color
-                    gc.setStroke(BORDER_COLOR);
-                    gc.strokeRect(0, 0, WIDTH, HEIGHT);
-
-                    // Update the time elapsed label and the FPS rounded to the unit
-                    timeElapsedLabel.setText("Time elapsed: " + String.format("%.2f", TIME_ELAPSED) + "s\n" + "FPS: " + String.format("%.0f", 1e9 / elapsedTime));
+                    // Update the time elapsed label (the simulated time is shown as the time each frame takes multiplied by the time step) and the FPS rounded to the unit
+                    timeElapsedLabel.setText("Time elapsed: " + String.format("%.2f", snapshot.getTimeElapsed() * FRAME_TIME / 1.0e9) + "s\n" + "FPS: " + String.format("%.0f", 1e9 / elapsedTime));
                 }
             }
         }.start(); // Start it automatically, we don't need to stop it at one point in the simulation
@@ -159,13 +152,27 @@ public class SettingsStackPane implements StackPaneMaker {
         // Get the BorderPane that contains the distance to be merged multiplier slider
         final BorderPane distanceToBeMergedMultiplierSliderBorderPane = this.getDistanceToBeMergedMultiplierSlider();
 
+        // Get the BorderPane that contains the integrator choice box
+        final BorderPane integratorChoiceBoxBorderPane = this.getIntegratorChoiceBox();
+
+        // Get the BorderPane that contains the adaptive time step check box
+        final BorderPane adaptiveTimeStepCheckBoxBorderPane = this.getAdaptiveTimeStepCheckBox();
+
+        // Get the BorderPanes that contain the sliders and the check box of the number of steps done for each frame
+        final BorderPane stepsPerSecondSliderBorderPane = this.getStepsPerSecondSlider();
+        final BorderPane stepsPerRenderSliderBorderPane = this.getStepsPerRenderSlider();
+        final BorderPane asFastAsPossibleCheckBoxBorderPane = this.getAsFastAsPossibleCheckBox();
+
+        // Get the BorderPane that contains the render scale choice box
+        final BorderPane renderScaleChoiceBoxBorderPane = this.getRenderScaleChoiceBox();
+
         // Create a VBox to hold everything
         final VBox settingsVBox = new VBox(10);
         // Set the alignment of the VBox to the center of the settings stackPane
         settingsVBox.setAlignment(Pos.CENTER);
 
         // Add everything to the VBox
-        settingsVBox.getChildren().addAll(this.logoLrIndustries, timeElapsedBorderPane, timeStepSliderBorderPane, blackHole1RadiusSliderBorderPane, blackHole2RadiusSliderBorderPane, blackHole1MassSliderBorderPane, blackHole2MassSliderBorderPane, distanceToBeMergedMultiplierSliderBorderPane, controlCenter);
+        settingsVBox.getChildren().addAll(this.logoLrIndustries, timeElapsedBorderPane, timeStepSliderBorderPane, blackHole1RadiusSliderBorderPane, blackHole2RadiusSliderBorderPane, blackHole1MassSliderBorderPane, blackHole2MassSliderBorderPane, distanceToBeMergedMultiplierSliderBorderPane, integratorChoiceBoxBorderPane, adaptiveTimeStepCheckBoxBorderPane, stepsPerSecondSliderBorderPane, asFastAsPossibleCheckBoxBorderPane, stepsPerRenderSliderBorderPane, renderScaleChoiceBoxBorderPane, controlCenter);
 
         // Add the canvas and the VBox to the stackPane
         this.stackPane.getChildren().addAll(canvas, closeButton, settingsVBox);
@@ -198,7 +205,7 @@ public class SettingsStackPane implements StackPaneMaker {
         // Return the BorderPane that contains the time step slider
         return getSliderBorderPane(this.timeSlider, "Time Step", "0.00", (observable, oldValue, newValue) -> {
             // Set the time step to the new value
-            TIME_STEP = newValue.doubleValue();
+            SIMULATION_WORKER.update(() -> SIMULATION_STATE.setTimeStep(newValue.doubleValue()));
         });
     }
 
@@ -209,9 +216,7 @@ public class SettingsStackPane implements StackPaneMaker {
             // Set the black hole radius to the new value
             BLACK_HOLE_1.setRadius(newValue.doubleValue());
             this.blackHole1Radius = newValue.doubleValue();
-            // Update the black hole circle
-            BLACK_HOLE_1.updateCircles(true);
-            // Reset the canvas
+            // Reset the canvas, which also updates the black hole circle
             simulatorStackPane.defaultCanvas();
         });
     }
@@ -223,9 +228,7 @@ public class SettingsStackPane implements StackPaneMaker {
             // Set the black hole radius to the new value
             BLACK_HOLE_2.setRadius(newValue.doubleValue());
             this.blackHole2Radius = newValue.doubleValue();
-            // Update the black hole circle
-            BLACK_HOLE_2.updateCircles(true);
-            // Reset the canvas
+            // Reset the canvas, which also updates the black hole circle
             simulatorStackPane.defaultCanvas();
         });
     }
@@ -259,10 +262,128 @@ public class SettingsStackPane implements StackPaneMaker {
         // Return the BorderPane that contains the distance to be merged multiplier slider
         return getSliderBorderPane(this.distanceToBeMergedMultiplierSlider, "Distance To Be Merged Multiplier", "0.0", (observable, oldValue, newValue) -> {
             // Set the distance to be merged multiplier to the new value
-            DISTANCE_TO_BE_MERGED_MULTIPLIER = newValue.doubleValue();
+            SIMULATION_WORKER.update(() -> SIMULATION_STATE.setDistanceToBeMergedMultiplier(newValue.doubleValue()));
+        });
+    }
+
+    // The getIntegratorChoiceBox method is used to get the BorderPane that contains the choice box of the integrator moving the black holes
+    private BorderPane getIntegratorChoiceBox() {
+        // Create a choice box with every integrator, selecting the one currently used
+        final ChoiceBox<String> integratorChoiceBox = new ChoiceBox<>();
+        integratorChoiceBox.getItems().addAll(Integrator.NAMES);
+        integratorChoiceBox.setValue(SIMULATION_STEPPER.getIntegrator().getName());
+        // Make the choice box use the background different color hex color with the label color text
+        integratorChoiceBox.setStyle("-fx-background-color: " + BACKGROUND_DIFFERENT_COLOR_HEX + "; -fx-mark-color: " + LABEL_COLOR_HEX + ";");
+        // Set the width of the choice box to 1/6 times the width, like the text fields of the sliders
+        integratorChoiceBox.setPrefWidth(WIDTH / 6);
+
+        // Change the integrator of the simulation when another one is chosen, the symplectic ones keep the orbits stable with bigger time steps
+        integratorChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> SIMULATION_STEPPER.setIntegrator(Integrator.create(newValue)));
+
+        // Return the BorderPane that contains the choice box
+        return this.getControlBorderPane(integratorChoiceBox, "Integrator");
+    }
+
+    // The getRenderScaleChoiceBox method is used to get the BorderPane that contains the choice box of the render scale of the simulation and the gravitational waves
+    private BorderPane getRenderScaleChoiceBox() {
+        // Create a choice box with every render scale as a percentage, with the one given when launching the application if it is not one of them
+        final ChoiceBox<String> renderScaleChoiceBox = new ChoiceBox<>();
+        for (final double renderScale : RENDER_SCALES) renderScaleChoiceBox.getItems().add(String.format("%.0f", renderScale * 100) + "%");
+        final String currentRenderScale = String.format("%.0f", RENDER_SCALE * 100) + "%";
+        if (!renderScaleChoiceBox.getItems().contains(currentRenderScale)) renderScaleChoiceBox.getItems().add(currentRenderScale);
+        renderScaleChoiceBox.setValue(currentRenderScale);
+        // Make the choice box use the background different color hex color with the label color text
+        renderScaleChoiceBox.setStyle("-fx-background-color: " + BACKGROUND_DIFFERENT_COLOR_HEX + "; -fx-mark-color: " + LABEL_COLOR_HEX + ";");
+        // Set the width of the choice box to 1/6 times the width, like the text fields of the sliders
+        renderScaleChoiceBox.setPrefWidth(WIDTH / 6);
+
+        // Change the render scale of the simulation and the gravitational waves when another one is chosen, a lower scale draws fewer pixels for a blurrier image
+        renderScaleChoiceBox.valueProperty().addListener((observable, oldValue, newValue) -> {
+            RENDER_SCALE = Double.parseDouble(newValue.replace("%", "")) / 100;
+            simulatorStackPane.setRenderScale(RENDER_SCALE);
+            gravitationalWavesStackPane.setRenderScale(RENDER_SCALE);
+        });
+
+        // Return the BorderPane that contains the choice box
+        return this.getControlBorderPane(renderScaleChoiceBox, "Render Scale");
+    }
+
+    // The getAdaptiveTimeStepCheckBox method is used to get the BorderPane that contains the check box choosing between the adaptive time step and the one of the slider
+    private BorderPane getAdaptiveTimeStepCheckBox() {
+        // Create a check box, checked if the simulation already uses the adaptive time step
+        final CheckBox adaptiveTimeStepCheckBox = new CheckBox();
+        adaptiveTimeStepCheckBox.setSelected(SIMULATION_STATE.isAdaptiveTimeStep());
+
+        // Switch between the adaptive time step and the one of the slider, the slider is useless while the time step is adaptive
+        adaptiveTimeStepCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            SIMULATION_WORKER.update(() -> SIMULATION_STATE.setAdaptiveTimeStep(newValue));
+            this.timeSlider.setDisable(newValue);
+        });
+
+        // Return the BorderPane that contains the check box
+        return this.getControlBorderPane(adaptiveTimeStepCheckBox, "Adaptive Time Step");
+    }
+
+    // The getStepsPerSecondSlider method is used to get the BorderPane that contains the slider of the number of steps done per second
+    private BorderPane getStepsPerSecondSlider() {
+        // Return the BorderPane that contains the steps per second slider
+        return getSliderBorderPane(this.stepsPerSecondSlider, "Steps Per Second", "0", (observable, oldValue, newValue) -> {
+            // Set the number of steps per second of the clock, it can't be 0
+            SIMULATION_CLOCK.setStepsPerSecond(Math.max(1, newValue.doubleValue()));
+        });
+    }
+
+    // The getStepsPerRenderSlider method is used to get the BorderPane that contains the slider of the number of steps done per frame when running as fast as possible
+    private BorderPane getStepsPerRenderSlider() {
+        // Return the BorderPane that contains the steps per render slider
+        return getSliderBorderPane(this.stepsPerRenderSlider, "Steps Per Render", "0", (observable, oldValue, newValue) -> {
+            // Set the number of steps per render of the clock, it can't be 0
+            SIMULATION_CLOCK.setStepsPerRender(Math.max(1, newValue.intValue()));
         });
     }
 
+    // The getAsFastAsPossibleCheckBox method is used to get the BorderPane that contains the check box choosing between a fixed number of steps per second and as many steps as possible
+    private BorderPane getAsFastAsPossibleCheckBox() {
+        // Create a check box, checked if the clock already runs as fast as possible
+        final CheckBox asFastAsPossibleCheckBox = new CheckBox();
+        asFastAsPossibleCheckBox.setSelected(SIMULATION_CLOCK.getMode() == SimulationClock.Mode.AS_FAST_AS_POSSIBLE);
+        this.stepsPerSecondSlider.setDisable(asFastAsPossibleCheckBox.isSelected());
+        this.stepsPerRenderSlider.setDisable(!asFastAsPossibleCheckBox.isSelected());
+
+        // Switch the mode of the clock, and only enable the slider used by the new mode
+        asFastAsPossibleCheckBox.selectedProperty().addListener((observable, oldValue, newValue) -> {
+            SIMULATION_CLOCK.setMode(newValue ? SimulationClock.Mode.AS_FAST_AS_POSSIBLE : SimulationClock.Mode.FIXED_RATE);
+            this.stepsPerSecondSlider.setDisable(newValue);
+            this.stepsPerRenderSlider.setDisable(!newValue);
+        });
+
+        // Return the BorderPane that contains the check box
+        return this.getControlBorderPane(asFastAsPossibleCheckBox, "As Fast As Possible");
+    }
+
+    // The getControlBorderPane method is used to get a BorderPane that contains a control with its name on the left, like the sliders
+    private BorderPane getControlBorderPane(final Control control, final String name) {
+        // Create a BorderPane to hold the label and the control
+        final BorderPane borderPane = new BorderPane();
+        // Set the padding of the BorderPane to 20, like the sliders
+        borderPane.setPadding(new Insets(0, 20, 20, 20));
+
+        // Create a label to display the name of the control
+        final Label nameLabel = new Label(name);
+        // Set the text color of the label to the label color
+        nameLabel.setTextFill(LABEL_COLOR);
+        // Set the font of the label to the Montserrat font in size 14
+        nameLabel.setFont(FontUtils.getFont("Montserrat-Medium", 14));
+
+        // Add the label and the control to the BorderPane
+        borderPane.setLeft(nameLabel);
+        borderPane.setRight(control);
+        BorderPane.setAlignment(nameLabel, Pos.CENTER_LEFT);
+
+        // Return the BorderPane of the control
+        return borderPane;
+    }
+
     // The getControlCenter method is used to get a HBox that contains the control center
     private HBox getControlCenter() {
         // Create a HBox to hold the whole control center
@@ -325,29 +446,15 @@ public class SettingsStackPane implements StackPaneMaker {
             // Stop the animation timer for the simulation and the gravitational waves
             simulatorStackPane.getAnimationTimer().stop();
             gravitationalWavesStackPane.getAnimationTimer().stop();
-            // Reset the black holes
-            BLACK_HOLE_1.reset(
-                    SIMULATION_WIDTH / 2 - DEFAULT_POSITION_DIFFERENCE,
-                    SIMULATION_HEIGHT / 2,
-                    DEFAULT_BLACK_HOLE_VELOCITY,
-                    DEFAULT_BLACK_HOLE_VELOCITY,
-                    this.blackHole1Mass,
-                    this.blackHole1Radius
-            );
-            BLACK_HOLE_2.reset(
-                    SIMULATION_WIDTH / 2 + DEFAULT_POSITION_DIFFERENCE,
-                    SIMULATION_HEIGHT / 2,
-                    -DEFAULT_BLACK_HOLE_VELOCITY,
-                    -DEFAULT_BLACK_HOLE_VELOCITY,
-                    this.blackHole2Mass,
-                    this.blackHole2Radius
-            );
+            // Reset the black holes to their default positions with the masses and radii of the sliders, this also resets the time elapsed, the gravitational wave frequency and the strain
+            SIMULATION_WORKER.update(() -> {
+                SIMULATION_STATE.resetToDefault(SIMULATION_WIDTH, SIMULATION_HEIGHT, this.blackHole1Mass, this.blackHole1Radius, this.blackHole2Mass, this.blackHole2Radius);
+                SIMULATION_STEPPER.getStrainGenerator().clear();
+            });
             // Reset the canvas
             simulatorStackPane.defaultCanvas();
             // Reset the gravitational waves
             gravitationalWavesStackPane.reset();
-            // Reset the time elapsed
-            TIME_ELAPSED = 0;
             // Set the maximumFrequencyLabel to be not visible anymore
             simulatorStackPane.highestRecordedFrequency.setVisible(false);
             // Change the image to a pause icon
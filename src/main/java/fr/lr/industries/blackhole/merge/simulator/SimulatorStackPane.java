@@ -1,14 +1,19 @@
 package fr.lr.industries.blackhole.merge.simulator;
 
 // Import the required classes and packages
-import fr.lr.industries.blackhole.merge.Simulator;
+import fr.lr.industries.blackhole.merge.core.grid.FrameBudgetGovernor;
+import fr.lr.industries.blackhole.merge.core.grid.GridRasterizer;
+import fr.lr.industries.blackhole.merge.core.simulation.SimulationSnapshot;
 import fr.lr.industries.blackhole.merge.utils.StackPaneMaker;
 import fr.lr.industries.blackhole.merge.utils.FontUtils;
+import fr.lr.industries.blackhole.merge.utils.LayerUtils;
 import javafx.animation.AnimationTimer;
 import javafx.geometry.Pos;
 import javafx.scene.canvas.Canvas;
-import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.control.Label;
+import javafx.scene.image.ImageView;
+import javafx.scene.image.PixelFormat;
+import javafx.scene.image.WritableImage;
 import javafx.scene.layout.Pane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
@@ -20,31 +25,58 @@ public class SimulatorStackPane implements StackPaneMaker {
     private final double WIDTH;
     private final double HEIGHT;
 
-    // The canvas variable is used to store the canvas for the simulation
-    private final Canvas canvas;
+    // The borderLayer variable is used to store the layer of the border of the simulation, it never changes so it is only drawn once
+    private final Canvas borderLayer;
 
-    // The gc variable is used to store the graphics context of the canvas
-    private final GraphicsContext gc;
+    // The gridRasterizer variable is used to draw the grid into a pixel buffer, at the size of the pane times the render scale
+    private GridRasterizer gridRasterizer;
+
+    // The gridImage variable is used to store the image the pixel buffer of the grid is copied to, and the gridView variable the node showing it, stretched to the size of the pane
+    // JavaFX draws the image again by itself when its pixels change, so nothing is drawn when the grid doesn't change
+    private WritableImage gridImage;
+    private final ImageView gridView;
+
+    // The gridGovernor variable is used to choose the quality of the grid from the time it takes to be drawn
+    private final FrameBudgetGovernor gridGovernor;
 
     // The highestRecordedFrequency variable is used to store the maximum frequency label
     public final Label highestRecordedFrequency;
 
+    // The gridQualityLabel variable is used to show the quality level of the grid chosen by the governor
+    private final Label gridQualityLabel;
+
+    // The gridQualityFrames variable is used to count the frames since the grid quality label was updated
+    private int gridQualityFrames = 0;
+
     // The animationTimer variable is used to store the animation timer for the simulation
     private AnimationTimer animationTimer;
 
     // The started variable is used to store if the simulation has started
     private boolean started = false;
 
+    // The lastRenderedSnapshot variable is used to store the snapshot drawn by the last frame, so the same snapshot is not drawn twice
+    private SimulationSnapshot lastRenderedSnapshot = null;
+
     // The SimulatorStackPane constructor is used to create a new instance of the SimulatorStackPane class
     public SimulatorStackPane(final double width, final double height) {
         // Set the width and height of the screen
         this.WIDTH = width;
         this.HEIGHT = height;
 
-        // Create a canvas to the size of the screen
-        this.canvas = new Canvas(this.WIDTH, this.HEIGHT);
-        // Get the graphics context of the canvas
-        this.gc = this.canvas.getGraphicsContext2D();
+        // Create the layer of the border, the grid fills the background
+        this.borderLayer = LayerUtils.getFrameLayer(this.WIDTH, this.HEIGHT, null, BORDER_COLOR);
+
+        // Create the governor of the quality of the grid, it starts from the quality of the settings, and only has that quality if it is disabled
+        this.gridGovernor = new FrameBudgetGovernor(GRID_GOVERNOR ? GRID_QUALITY_LEVELS : new double[] {GRID_QUALITY}, GRID_FRAME_BUDGET, GRID_QUALITY);
+
+        // Create the view of the grid, the image is stretched to the size of the pane and smoothed when the render scale is below 1
+        this.gridView = new ImageView();
+        this.gridView.setFitWidth(this.WIDTH);
+        this.gridView.setFitHeight(this.HEIGHT);
+        this.gridView.setSmooth(true);
+
+        // Create the rasterizer of the grid and the image it is pushed to at the render scale
+        this.createGrid(RENDER_SCALE);
 
         // Create the maximum frequency label
         this.highestRecordedFrequency = new Label();
@@ -56,13 +88,24 @@ public class SimulatorStackPane implements StackPaneMaker {
         StackPane.setAlignment(this.highestRecordedFrequency, Pos.TOP_LEFT);
         // Set the highestRecordedFrequency invisible
         this.highestRecordedFrequency.setVisible(false);
+
+        // Create the grid quality label
+        this.gridQualityLabel = new Label();
+        // Set the text color and the font of the gridQualityLabel
+        this.gridQualityLabel.setTextFill(LABEL_COLOR);
+        this.gridQualityLabel.setFont(FontUtils.getFont("Montserrat-Bold", 14));
+        // Put the gridQualityLabel at the left low corner of the screen
+        this.gridQualityLabel.setLayoutX(10);
+        this.gridQualityLabel.setLayoutY(this.HEIGHT - 30);
+        // Show the first quality level
+        this.updateGridQualityLabel();
     }
 
     // The getStackPane method is used to get the stack pane
     @Override
     public StackPane getStackPane() {
         // Create the stack pane from the border pane
-        final StackPane stackPane = new StackPane(new Pane(this.canvas, this.highestRecordedFrequency, BLACK_HOLE_1.getEventHorizonCircle(), BLACK_HOLE_1.getBlackHoleCircle(), BLACK_HOLE_2.getEventHorizonCircle(), BLACK_HOLE_2.getBlackHoleCircle()));
+        final StackPane stackPane = new StackPane(new Pane(this.gridView, this.borderLayer, this.highestRecordedFrequency, this.gridQualityLabel, BLACK_HOLE_1.getEventHorizonCircle(), BLACK_HOLE_1.getBlackHoleCircle(), BLACK_HOLE_2.getEventHorizonCircle(), BLACK_HOLE_2.getBlackHoleCircle()));
 
         // Draw the default canvas
         this.defaultCanvas();
@@ -77,20 +120,11 @@ public class SimulatorStackPane implements StackPaneMaker {
 
                 // If the elapsed time is greater than the frame time, update this canvas
                 if (elapsedTime >= FRAME_TIME) {
-                    // Check if both black holes are enabled
-                    if (BLACK_HOLE_1.isEnabled() && BLACK_HOLE_2.isEnabled()) {
-                        // Calculate the gravitational forces between the black holes
-                        BLACK_HOLE_1.update(BLACK_HOLE_2);
-                    }
-
-                    // Update the screen with those new computed forces
-                    defaultCanvas();
+                    // Update the screen with the latest snapshot published by the simulation worker, only if the simulation moved since the last frame
+                    if (SIMULATION_WORKER.getSnapshot() != lastRenderedSnapshot) defaultCanvas();
 
                     // Update the last frame time
                     LAST_FRAME_TIME_SIMULATOR = now;
-
-                    // Update the time elapsed to the FPS * the time step divided by 1.0e9 to convert it to seconds
-                    TIME_ELAPSED += (FRAME_TIME * TIME_STEP) / 1.0e9;
                 }
             }
 
@@ -100,6 +134,9 @@ public class SimulatorStackPane implements StackPaneMaker {
                 // Set the started variable to true
                 started = true;
 
+                // Start stepping the simulation on the thread of the worker
+                SIMULATION_WORKER.start();
+
                 // Call the super method
                 super.start();
             }
@@ -110,8 +147,11 @@ public class SimulatorStackPane implements StackPaneMaker {
                 // Set the started variable to false
                 started = false;
 
-                // Check if one of the black holes is disabled to check if the simulation is over
-                if (!BLACK_HOLE_1.isEnabled() || !BLACK_HOLE_2.isEnabled()) {
+                // Stop stepping the simulation, this waits for the current steps to be over
+                SIMULATION_WORKER.pause();
+
+                // Check if the black holes are merged to check if the simulation is over
+                if (SIMULATION_WORKER.isFinished()) {
                     // The simulation is over, so we show a little recap of the simulation
                     showSimulationRecap();
                 }
@@ -127,71 +167,79 @@ public class SimulatorStackPane implements StackPaneMaker {
 
     // The defaultCanvas method is used to reset the canvas to its default state
     public void defaultCanvas() {
-        // Clear the canvas
-        this.gc.clearRect(0, 0, this.WIDTH, this.HEIGHT);
+        // Get the latest snapshot of the simulation, everything drawn in this frame comes from it
+        final SimulationSnapshot snapshot = SIMULATION_WORKER.getSnapshot();
+        this.lastRenderedSnapshot = snapshot;
+
+        // Update the circles of the black holes
+        BLACK_HOLE_1.render(snapshot);
+        BLACK_HOLE_2.render(snapshot);
 
-        // Fill the canvas with the background color
-        this.gc.setFill(BACKGROUND_COLOR);
-        this.gc.fillRect(0, 0, this.WIDTH, this.HEIGHT);
+        // Draw a grid to make it easier to see the black holes, the image of the grid also fills the background, the border is on its own layer above it
+        this.drawGrid(snapshot);
+    }
 
-        // Draw a border around the canvas with the border color
-        this.gc.setStroke(BORDER_COLOR);
-        this.gc.strokeRect(0, 0, this.WIDTH, this.HEIGHT);
+    // The setRenderScale method is used to change the render scale of the grid, the grid is then drawn again at the new scale
+    public void setRenderScale(final double renderScale) {
+        // Nothing to do if the grid is already drawn at this scale
+        if (renderScale == this.gridRasterizer.getScale()) return;
 
-        // Draw a grid on the canvas to make it easier to see the black holes
-        this.drawGrid();
+        // Stop the threads of the old rasterizer, and create the new rasterizer and its image
+        this.gridRasterizer.shutdown();
+        this.createGrid(renderScale);
 
-        // Save the graphics context
-        this.gc.save();
+        // Draw the grid again with the latest snapshot
+        this.defaultCanvas();
     }
 
-    // The drawGrid method is used to draw a grid on the canvas
-    private void drawGrid() {
-        // Iterate through the x's and y's of the canvas
-        for (int x = 0; x < WIDTH; x += GRID_QUALITY) {
-            for (int y = 0; y < HEIGHT; y += GRID_QUALITY) {
-                // Check if the x or y is a multiple of the grid cell size, if so, the pixel is a side of a grid cell
-                if (x % GRID_CELL_SIZE == 0 || y % GRID_CELL_SIZE == 0) {
-                    // First, check if the pixel is not in the event horizon of the black holes to not waste computation time
-                    if ((BLACK_HOLE_1.isEnabled() && BLACK_HOLE_1.isInEventHorizon(x, y)) || (BLACK_HOLE_2.isEnabled() && BLACK_HOLE_2.isInEventHorizon(x, y))) continue;
-
-                    // See how far the black holes are from the current pixel
-                    final double distanceToBlackHole1 = BLACK_HOLE_1.getDistance(x, y);
-                    final double distanceToBlackHole2 = BLACK_HOLE_2.getDistance(x, y);
-
-                    // Calculate the difference between the distance of the black holes and the current pixel
-                    final double dxBlackHole1 = BLACK_HOLE_1.getX() - x;
-                    final double dyBlackHole1 = BLACK_HOLE_1.getY() - y;
-                    final double dxBlackHole2 = BLACK_HOLE_2.getX() - x;
-                    final double dyBlackHole2 = BLACK_HOLE_2.getY() - y;
-
-                    // Calculate the force of the black holes on the current pixel
-                    final double forceBlackHole1 = BLACK_HOLE_1.isEnabled() ? BLACK_HOLE_1.getForce(distanceToBlackHole1) : 0;
-                    final double forceBlackHole2 = BLACK_HOLE_2.isEnabled() ? BLACK_HOLE_2.getForce(distanceToBlackHole2) : 0;
-
-                    // Check if the force that the pixel is going to endure is going to make it goes brrrr
-                    if (forceBlackHole1 > GRID_MAX_FORCE || forceBlackHole2 > GRID_MAX_FORCE) continue;
-
-                    // Calculate the gravitational forces between the black holes and the current pixel
-                    final double gxBlackHole1 = BLACK_HOLE_1.isEnabled() ? dxBlackHole1 / distanceToBlackHole1 * forceBlackHole1 : 0;
-                    final double gyBlackHole1 = BLACK_HOLE_1.isEnabled() ? dyBlackHole1 / distanceToBlackHole1 * forceBlackHole1 : 0;
-                    final double gxBlackHole2 = BLACK_HOLE_2.isEnabled() ? dxBlackHole2 / distanceToBlackHole2 * forceBlackHole2 : 0;
-                    final double gyBlackHole2 = BLACK_HOLE_2.isEnabled() ? dyBlackHole2 / distanceToBlackHole2 * forceBlackHole2 : 0;
-
-                    // Calculate the total gravitational forces between the black holes and the current pixel
-                    final double gx = (gxBlackHole1 + gxBlackHole2) * GRID_FORCE_MULTIPLIER;
-                    final double gy = (gyBlackHole1 + gyBlackHole2) * GRID_FORCE_MULTIPLIER;
-
-                    // Check if the new position of the pixel is in the event horizon of the black holes, if so, continue to the next pixel to gain some performance
-                    if ((BLACK_HOLE_1.isEnabled() && BLACK_HOLE_1.isInEventHorizon(x + gx, y + gy)) || (BLACK_HOLE_2.isEnabled() && BLACK_HOLE_2.isInEventHorizon(x + gx, y + gy))) continue;
-
-                    // Set the brightness of the pixel in function of the force that is endured
-                    gc.setFill(Color.hsb(0, 0, Math.min(1, Math.abs(1 - Math.abs((gx + gy) / Simulator.GRID_MAX_FORCE)))));
-                    // Actually draw the pixel
-                    gc.fillRect(x + gx, y + gy, 1, 1);
-                }
-            }
+    // The createGrid method is used to create the rasterizer of the grid and the image it is pushed to, both are reused for every frame until the render scale changes
+    private void createGrid(final double renderScale) {
+        // Create the rasterizer, its pixel buffer is the size of the pane times the render scale, with the quality chosen by the governor
+        this.gridRasterizer = new GridRasterizer((int) this.WIDTH, (int) this.HEIGHT, renderScale, GRID_CELL_SIZE, this.gridGovernor.getQuality(), GRID_FORCE_MULTIPLIER, GRID_MAX_FORCE, toArgb(BACKGROUND_COLOR), GRID_THREADS);
+
+        // Create the image to the size of the pixel buffer and show it
+        this.gridImage = new WritableImage(this.gridRasterizer.getWidth(), this.gridRasterizer.getHeight());
+        this.gridView.setImage(this.gridImage);
+    }
+
+    // The drawGrid method is used to draw the grid, the grid is drawn into the pixel buffer of the rasterizer and pushed to the image of the grid in a single call
+    // Only the tiles of the grid whose field changed are drawn again, so only the rectangle of changed pixels is pushed to the image
+    private void drawGrid(final SimulationSnapshot snapshot) {
+        // Draw the grid of the snapshot into the pixel buffer, and measure the time it takes
+        final long start = System.nanoTime();
+        final int[] pixels = this.gridRasterizer.rasterize(snapshot);
+
+        // Get the rectangle of pixels changed by this frame, if nothing changed the image is already right
+        final int x = this.gridRasterizer.getDirtyX(), y = this.gridRasterizer.getDirtyY();
+        final int width = this.gridRasterizer.getDirtyWidth(), height = this.gridRasterizer.getDirtyHeight();
+        if (width > 0 && height > 0) {
+            // Copy the changed pixels of the buffer into the image in one call, the view of the image shows them with the next pulse
+            this.gridImage.getPixelWriter().setPixels(x, y, width, height, PixelFormat.getIntArgbPreInstance(), pixels, y * this.gridRasterizer.getWidth() + x, this.gridRasterizer.getWidth());
         }
+
+        // Give the time taken by the grid and the part of the grid drawn to the governor, even when nothing was drawn, and use its new quality for the next frame if it changed
+        // The governor scales the time to the whole grid, so the frames drawing a few tiles don't let it pick a quality that a full redraw can't keep up with
+        final double drawnFraction = (double) this.gridRasterizer.getDirtyTileCount() / this.gridRasterizer.getTileCount();
+        if (this.gridGovernor.record(System.nanoTime() - start, drawnFraction)) {
+            this.gridRasterizer.setQuality(this.gridGovernor.getQuality());
+            this.updateGridQualityLabel();
+        }
+
+        // Update the time shown by the grid quality label about once a second
+        if (++this.gridQualityFrames >= FPS) this.updateGridQualityLabel();
+    }
+
+    // The updateGridQualityLabel method is used to show the quality level of the grid and the average time it takes to draw the whole grid
+    private void updateGridQualityLabel() {
+        // Set the text of the label, the level is counted from 1 so the finest level is the number of levels
+        this.gridQualityLabel.setText("Grid Quality: " + (this.gridGovernor.getLevel() + 1) + "/" + this.gridGovernor.getLevelCount() + " (" + String.format("%.0f", this.gridRasterizer.getQuality()) + " px, " + String.format("%.1f", this.gridGovernor.getAverageFrameTime() / 1.0e6) + " / " + String.format("%.1f", GRID_FRAME_BUDGET / 1.0e6) + " ms)");
+        this.gridQualityFrames = 0;
+    }
+
+    // The toArgb method is used to get the ARGB value of a color, as used by the pixel buffer of the grid
+    private static int toArgb(final Color color) {
+        // Pack the opacity, red, green and blue of the color in an int, one byte each
+        return (int) Math.round(color.getOpacity() * 255) << 24 | (int) Math.round(color.getRed() * 255) << 16 | (int) Math.round(color.getGreen() * 255) << 8 | (int) Math.round(color.getBlue() * 255);
     }
 
     // The showSimulationRecap method is used to show a little recap of the simulation
@@ -0,0 +1,32 @@
+package fr.lr.industries.blackhole.merge.utils;
+
+// Import the required classes and packages
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.paint.Color;
+
+// The LayerUtils class is used to create the layers of the panes that never change, they are drawn once and kept by JavaFX instead of being drawn again every frame
+public class LayerUtils {
+    // The getFrameLayer method is used to get a canvas with a border around it, filled with the background color if there is one (null keeps it transparent)
+    public static Canvas getFrameLayer(final double width, final double height, final Color backgroundColor, final Color borderColor) {
+        // Create a canvas to the size of the pane and get its graphics context
+        final Canvas canvas = new Canvas(width, height);
+        final GraphicsContext gc = canvas.getGraphicsContext2D();
+
+        // Fill the canvas with the background color
+        if (backgroundColor != null) {
+            gc.setFill(backgroundColor);
+            gc.fillRect(0, 0, width, height);
+        }
+
+        // Draw a border around the canvas with the border color
+        gc.setStroke(borderColor);
+        gc.strokeRect(0, 0, width, height);
+
+        // The layer is only drawn once, so the mouse goes through it to the nodes below
+        canvas.setMouseTransparent(true);
+
+        // Return the canvas
+        return canvas;
+    }
+}